@@ -14,12 +14,14 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Spring Boot application class for BuzzLink
  */
 @SpringBootApplication
 @EnableAsync
+@EnableScheduling
 @RequiredArgsConstructor
 public class BuzzLinkApplication {
 
@@ -0,0 +1,73 @@
+package com.buzzlink.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Listener bookkeeping and node identity shared by the bus implementations
+ */
+@Slf4j
+public abstract class AbstractClusterEventBus implements ClusterEventBus {
+
+    private final String nodeId;
+    private final Map<String, List<Consumer<ClusterEvent>>> listeners = new ConcurrentHashMap<>();
+
+    protected AbstractClusterEventBus(String configuredNodeId) {
+        this.nodeId = configuredNodeId == null || configuredNodeId.isBlank()
+                ? UUID.randomUUID().toString()
+                : configuredNodeId;
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(String type, Long channelId, String clerkId, String sessionId) {
+        send(new ClusterEvent(type, nodeId, null, channelId, clerkId, null, sessionId, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void publishForUsers(String type, List<String> clerkIds) {
+        send(new ClusterEvent(type, nodeId, null, null, null, List.copyOf(clerkIds), null, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void publishForWorkspace(String type, Long workspaceId) {
+        send(new ClusterEvent(type, nodeId, workspaceId, null, null, null, null, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void subscribe(String type, Consumer<ClusterEvent> listener) {
+        listeners.computeIfAbsent(type, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Hand an event to the transport
+     */
+    protected abstract void send(ClusterEvent event);
+
+    /**
+     * Deliver an event received from the transport to local listeners,
+     * skipping events this node published itself
+     */
+    protected void deliver(ClusterEvent event) {
+        if (nodeId.equals(event.originNodeId())) {
+            return;
+        }
+        for (Consumer<ClusterEvent> listener : listeners.getOrDefault(event.type(), List.of())) {
+            try {
+                listener.accept(event);
+            } catch (Exception e) {
+                log.warn("Cluster event listener failed for {}: {}", event.type(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.buzzlink.cluster;
+
+import java.util.List;
+
+/**
+ * Event replicated between backend nodes over the {@link ClusterEventBus}.
+ * Fields that do not apply to a type are null. An event about several users
+ * lists them in clerkIds and leaves clerkId null.
+ */
+public record ClusterEvent(
+        String type,
+        String originNodeId,
+        Long workspaceId,
+        Long channelId,
+        String clerkId,
+        List<String> clerkIds,
+        String sessionId,
+        long timestamp) {
+
+    public static final String PRESENCE_JOINED = "PRESENCE_JOINED";
+    public static final String PRESENCE_LEFT = "PRESENCE_LEFT";
+    public static final String PRESENCE_DISCONNECTED = "PRESENCE_DISCONNECTED";
+    public static final String PRESENCE_HEARTBEAT = "PRESENCE_HEARTBEAT";
+    public static final String PRESENCE_SYNC_REQUEST = "PRESENCE_SYNC_REQUEST";
+    // clerkId or clerkIds name the users; neither means every user
+    public static final String UNREAD_CHANGED = "UNREAD_CHANGED";
+    // workspaceId null means every workspace
+    public static final String MEMBERS_CHANGED = "MEMBERS_CHANGED";
+    public static final String MODERATION_TERMS_CHANGED = "MODERATION_TERMS_CHANGED";
+    // A message was added, deleted, replied to or reacted to in channelId
+    public static final String CHANNEL_TAIL_CHANGED = "CHANNEL_TAIL_CHANGED";
+}
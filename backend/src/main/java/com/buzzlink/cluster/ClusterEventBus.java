@@ -0,0 +1,40 @@
+package com.buzzlink.cluster;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Publish/subscribe channel between backend nodes, for state that lives in
+ * memory on each node (presence, caches). Channel messages themselves are
+ * fanned out by the STOMP broker relay, not by this bus.
+ *
+ * Implementations are selected with app.cluster.bus (local or kafka).
+ */
+public interface ClusterEventBus {
+
+    /**
+     * ID of this node, stamped on every event it publishes
+     */
+    String getNodeId();
+
+    /**
+     * Publish an event to the other nodes. Listeners on this node are not called;
+     * the publisher is expected to have applied the change locally already.
+     */
+    void publish(String type, Long channelId, String clerkId, String sessionId);
+
+    /**
+     * Publish one event about several users, e.g. the recipients of a fan-out
+     */
+    void publishForUsers(String type, List<String> clerkIds);
+
+    /**
+     * Publish an event about one workspace, e.g. a membership change
+     */
+    void publishForWorkspace(String type, Long workspaceId);
+
+    /**
+     * Register a listener for events of one type published by other nodes
+     */
+    void subscribe(String type, Consumer<ClusterEvent> listener);
+}
@@ -0,0 +1,46 @@
+package com.buzzlink.cluster;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-JVM stand-in for the cluster bus. Every bus joined to the same hub name
+ * sees the others' events, so several application contexts started in one JVM
+ * (e.g. in an integration test) behave like separate nodes. With a single
+ * node it is a no-op. Delivery is synchronous on the publishing thread.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cluster.bus", havingValue = "local", matchIfMissing = true)
+public class InMemoryClusterEventBus extends AbstractClusterEventBus {
+
+    private static final Map<String, List<InMemoryClusterEventBus>> HUBS = new ConcurrentHashMap<>();
+
+    private final List<InMemoryClusterEventBus> hub;
+
+    public InMemoryClusterEventBus(
+            @Value("${app.cluster.node-id:}") String nodeId,
+            @Value("${app.cluster.local-hub:default}") String hubName) {
+        super(nodeId);
+        this.hub = HUBS.computeIfAbsent(hubName, name -> new CopyOnWriteArrayList<>());
+        hub.add(this);
+    }
+
+    @Override
+    protected void send(ClusterEvent event) {
+        for (InMemoryClusterEventBus node : hub) {
+            node.deliver(event);
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        hub.remove(this);
+    }
+}
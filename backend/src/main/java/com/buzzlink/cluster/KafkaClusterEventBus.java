@@ -0,0 +1,59 @@
+package com.buzzlink.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cluster bus over a Kafka topic. Each node consumes with its own consumer
+ * group so every node receives every event.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cluster.bus", havingValue = "kafka")
+@Slf4j
+public class KafkaClusterEventBus extends AbstractClusterEventBus {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final String topic;
+
+    public KafkaClusterEventBus(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            ObjectMapper objectMapper,
+            @Value("${app.cluster.node-id:}") String nodeId,
+            @Value("${app.cluster.kafka-topic:buzzlink.cluster-events}") String topic) {
+        super(nodeId);
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.topic = topic;
+    }
+
+    public String getGroupId() {
+        return "buzzlink-cluster-" + getNodeId();
+    }
+
+    @Override
+    protected void send(ClusterEvent event) {
+        // Key by channel so events for one channel stay ordered within a partition
+        String key = event.channelId() != null ? event.channelId().toString() : event.clerkId();
+        kafkaTemplate.send(topic, key, event)
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.warn("Failed to publish cluster event {}: {}", event.type(), e.getMessage());
+                    }
+                });
+    }
+
+    @KafkaListener(topics = "${app.cluster.kafka-topic:buzzlink.cluster-events}", groupId = "#{__listener.groupId}")
+    public void onMessage(String payload) {
+        try {
+            deliver(objectMapper.readValue(payload, ClusterEvent.class));
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable cluster event: {}", e.getMessage());
+        }
+    }
+}
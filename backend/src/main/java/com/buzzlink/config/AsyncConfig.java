@@ -0,0 +1,76 @@
+package com.buzzlink.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executors for {@code @Async} methods.
+ *
+ * Without this Spring falls back to its default task executor, which has an
+ * unbounded queue and no metrics. The default pool and the named email pool
+ * are built by {@link BoundedExecutorFactory} like the pipeline and push pools.
+ */
+@Configuration
+@Slf4j
+public class AsyncConfig implements AsyncConfigurer {
+
+    public static final String EMAIL_EXECUTOR = "emailExecutor";
+
+    private final ThreadPoolExecutor asyncExecutor;
+
+    public AsyncConfig(
+            BoundedExecutorFactory executorFactory,
+            @Value("${app.executors.async.threads:4}") int threads,
+            @Value("${app.executors.async.queue-capacity:1000}") int queueCapacity,
+            @Value("${app.executors.async.overflow:caller_runs}") String overflow) {
+        this.asyncExecutor = executorFactory.create("async", threads, queueCapacity,
+                BoundedExecutorFactory.Overflow.valueOf(overflow.toUpperCase(Locale.ROOT)));
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * Outgoing mail, so a slow SMTP server does not hold up API requests
+     */
+    @Bean(name = EMAIL_EXECUTOR, destroyMethod = "shutdown")
+    public ThreadPoolExecutor emailExecutor(
+            BoundedExecutorFactory executorFactory,
+            @Value("${app.executors.email.threads:2}") int threads,
+            @Value("${app.executors.email.queue-capacity:500}") int queueCapacity,
+            @Value("${app.executors.email.overflow:caller_runs}") String overflow) {
+        return executorFactory.create("email", threads, queueCapacity,
+                BoundedExecutorFactory.Overflow.valueOf(overflow.toUpperCase(Locale.ROOT)));
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (e, method, params) ->
+                log.error("Async method {} failed: {}", method.getName(), e.getMessage(), e);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        asyncExecutor.shutdown();
+        try {
+            if (!asyncExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                asyncExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            asyncExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
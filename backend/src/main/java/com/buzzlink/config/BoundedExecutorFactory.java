@@ -0,0 +1,208 @@
+package com.buzzlink.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the application's named worker pools.
+ *
+ * Every pool has a fixed number of threads and a bounded queue, and reports
+ * per pool (tag "pool"): queue depth, active threads, rejected tasks, time
+ * spent queued and task run time. When the queue is full the pool's overflow
+ * policy decides what happens to the new task.
+ *
+ * With app.executors.virtual-threads=true (and a JDK that has them) pools run
+ * their tasks on virtual threads; the pool size still bounds concurrency.
+ */
+@Component
+@Slf4j
+public class BoundedExecutorFactory {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean virtualThreads;
+
+    public BoundedExecutorFactory(
+            MeterRegistry meterRegistry,
+            @Value("${app.executors.virtual-threads:false}") boolean virtualThreads) {
+        this.meterRegistry = meterRegistry;
+        this.virtualThreads = virtualThreads && virtualThreadFactory("probe-") != null;
+        if (virtualThreads && !this.virtualThreads) {
+            log.warn("Virtual threads requested but not supported by this JVM, using platform threads");
+        }
+    }
+
+    /**
+     * Create a fixed-size pool with a bounded queue
+     *
+     * @param name Pool name, used for thread names and the "pool" metric tag
+     */
+    public ThreadPoolExecutor create(String name, int threads, int queueCapacity, Overflow overflow) {
+        int size = Math.max(1, threads);
+        ThreadPoolExecutor executor = new InstrumentedExecutor(name, size, Math.max(1, queueCapacity),
+                threadFactory(name + "-"), rejectionHandler(name, overflow));
+
+        Gauge.builder("buzzlink.executor.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Tasks waiting in the pool's queue")
+                .tag("pool", name)
+                .register(meterRegistry);
+        Gauge.builder("buzzlink.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Threads running a task")
+                .tag("pool", name)
+                .register(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Create a scheduler for periodic jobs, with the same thread naming and
+     * gauges as the worker pools. Its queue holds the scheduled tasks, so
+     * its size is bounded by the number of jobs rather than by capacity.
+     */
+    public ThreadPoolTaskScheduler createScheduler(String name, int threads) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.max(1, threads));
+        scheduler.setThreadFactory(threadFactory(name + "-"));
+        scheduler.setErrorHandler(e -> log.error("Scheduled task on {} failed: {}", name, e.getMessage(), e));
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(10);
+        scheduler.initialize();
+
+        ScheduledThreadPoolExecutor executor = scheduler.getScheduledThreadPoolExecutor();
+        Gauge.builder("buzzlink.executor.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Tasks waiting in the pool's queue")
+                .tag("pool", name)
+                .register(meterRegistry);
+        Gauge.builder("buzzlink.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Threads running a task")
+                .tag("pool", name)
+                .register(meterRegistry);
+        return scheduler;
+    }
+
+    private ThreadFactory threadFactory(String prefix) {
+        if (virtualThreads) {
+            return virtualThreadFactory(prefix);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private RejectedExecutionHandler rejectionHandler(String name, Overflow overflow) {
+        Counter rejected = Counter.builder("buzzlink.executor.rejected")
+                .description("Tasks that found the pool's queue full")
+                .tag("pool", name)
+                .tag("overflow", overflow.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        RejectedExecutionHandler policy = switch (overflow) {
+            case BLOCK -> BoundedExecutorFactory::waitForRoom;
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD -> new ThreadPoolExecutor.DiscardPolicy();
+            case DISCARD_OLDEST -> new ThreadPoolExecutor.DiscardOldestPolicy();
+        };
+        return (task, executor) -> {
+            rejected.increment();
+            if (overflow == Overflow.DISCARD || overflow == Overflow.DISCARD_OLDEST) {
+                log.debug("Pool {} is full, dropping a task ({})", name, overflow);
+            }
+            policy.rejectedExecution(task, executor);
+        };
+    }
+
+    /**
+     * Block the submitting thread until the queue has room, so the task still
+     * runs after everything queued before it
+     */
+    private static void waitForRoom(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Pool is shut down");
+        }
+        try {
+            executor.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for room in the queue", e);
+        }
+    }
+
+    /**
+     * Thread.ofVirtual() looked up reflectively so the code still builds for Java 17
+     */
+    private static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * What a pool does with a task that finds its queue full
+     */
+    public enum Overflow {
+        BLOCK,          // Wait on the submitting thread for room (back-pressure, keeps queue order)
+        CALLER_RUNS,    // Run it on the submitting thread (back-pressure, nothing is lost)
+        DISCARD,        // Drop the new task
+        DISCARD_OLDEST  // Drop the oldest queued task and enqueue the new one
+    }
+
+    /**
+     * Records how long each task waited in the queue and how long it ran
+     */
+    private final class InstrumentedExecutor extends ThreadPoolExecutor {
+
+        private final Timer queueWait;
+        private final Timer runTime;
+
+        InstrumentedExecutor(String name, int threads, int queueCapacity, ThreadFactory threadFactory,
+                RejectedExecutionHandler rejectionHandler) {
+            super(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                    threadFactory, rejectionHandler);
+            this.queueWait = Timer.builder("buzzlink.executor.queue.wait")
+                    .description("Time tasks spent queued before running")
+                    .tag("pool", name)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.runTime = Timer.builder("buzzlink.executor.task.duration")
+                    .description("Task run time")
+                    .tag("pool", name)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            long enqueuedAt = System.nanoTime();
+            super.execute(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    command.run();
+                } finally {
+                    runTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        }
+    }
+}
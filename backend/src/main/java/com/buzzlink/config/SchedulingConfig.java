@@ -0,0 +1,38 @@
+package com.buzzlink.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Scheduler for {@code @Scheduled} methods.
+ *
+ * Without this, the WebSocket broker's scheduler is the only one in the
+ * context and runs every scheduled job, so a long backfill or retention batch
+ * would delay STOMP heartbeats on its few threads. Scheduled jobs get their
+ * own pool instead; heartbeats keep the broker's.
+ */
+@Configuration
+public class SchedulingConfig implements SchedulingConfigurer {
+
+    private final ThreadPoolTaskScheduler jobScheduler;
+
+    public SchedulingConfig(
+            BoundedExecutorFactory executorFactory,
+            @Value("${app.executors.scheduler.threads:6}") int threads) {
+        this.jobScheduler = executorFactory.createScheduler("scheduled", threads);
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.setTaskScheduler(jobScheduler);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobScheduler.shutdown();
+    }
+}
@@ -1,23 +1,100 @@
 package com.buzzlink.config;
 
+import com.buzzlink.websocket.DestinationIndexedSubscriptionRegistry;
+import com.buzzlink.websocket.PresenceHeartbeatInterceptor;
+import com.buzzlink.websocket.SessionShardedTaskExecutor;
+import com.buzzlink.websocket.WebSocketSessionTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
  * WebSocket configuration for real-time messaging
  * Uses STOMP protocol over WebSocket
+ *
+ * The broker is selected with app.websocket.broker:
+ * - simple: Spring's SimpleBroker as-is
+ * - sharded: SimpleBroker with subscriptions indexed by destination and
+ *   sessions sharded across outbound threads (for large channels)
+ * - relay: external STOMP broker (RabbitMQ, ActiveMQ), needed to run more
+ *   than one backend node
  */
 @Configuration
 @EnableWebSocketMessageBroker
+@Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    public static final String BROKER_SIMPLE = "simple";
+    public static final String BROKER_SHARDED = "sharded";
+    public static final String BROKER_RELAY = "relay";
+
     @Value("${spring.websocket.allowed-origins:http://localhost:3000,http://localhost:3001}")
     private String allowedOrigins;
 
+    @Value("${app.websocket.broker:simple}")
+    private String brokerMode;
+
+    // 0 = one shard per available processor
+    @Value("${app.websocket.outbound-shards:0}")
+    private int outboundShards;
+
+    // Frames each outbound shard may queue before it closes the sessions holding it up
+    @Value("${app.websocket.outbound-queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    // Per-session send limits; a session over either is closed
+    @Value("${app.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${app.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${app.websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${app.websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    // Server-side STOMP heartbeat interval (send and expect); drives presence expiry
+    @Value("${app.websocket.heartbeat-ms:10000}")
+    private long heartbeatMs;
+
+    @Autowired
+    private PresenceHeartbeatInterceptor presenceHeartbeatInterceptor;
+
+    @Autowired
+    private WebSocketSessionTracker sessionTracker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TaskScheduler heartbeatScheduler;
+
+    @Autowired
+    public void setHeartbeatScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler scheduler) {
+        this.heartbeatScheduler = scheduler;
+    }
+
     /**
      * Configure message broker
      * - /topic is for broadcasting to all subscribers (channel messages)
@@ -26,10 +103,64 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        switch (brokerMode) {
+            case BROKER_SIMPLE, BROKER_SHARDED -> config.enableSimpleBroker("/topic", "/queue")
+                    .setHeartbeatValue(new long[] {heartbeatMs, heartbeatMs})
+                    .setTaskScheduler(heartbeatScheduler);
+            case BROKER_RELAY -> {
+                // User destinations are resolved cluster-wide: sessions are shared through the
+                // registry broadcast, and unresolved sends are re-broadcast to the other nodes
+                config.enableStompBrokerRelay("/topic", "/queue")
+                        .setRelayHost(relayHost)
+                        .setRelayPort(relayPort)
+                        .setClientLogin(relayLogin)
+                        .setClientPasscode(relayPasscode)
+                        .setSystemLogin(relayLogin)
+                        .setSystemPasscode(relayPasscode)
+                        .setSystemHeartbeatSendInterval(heartbeatMs)
+                        .setSystemHeartbeatReceiveInterval(heartbeatMs)
+                        .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                        .setUserRegistryBroadcast("/topic/simp-user-registry");
+                log.info("WebSocket broker: relay to {}:{}", relayHost, relayPort);
+            }
+            default -> throw new IllegalStateException("Unknown app.websocket.broker: " + brokerMode);
+        }
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    /**
+     * Every inbound frame (heartbeats included) keeps the session's presence alive
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(presenceHeartbeatInterceptor);
+    }
+
+    /**
+     * In sharded mode, pin each session to one outbound thread
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (BROKER_SHARDED.equals(brokerMode)) {
+            int shards = outboundShards > 0 ? outboundShards : Runtime.getRuntime().availableProcessors();
+            registration.taskExecutor(new SessionShardedTaskExecutor(shards, outboundQueueCapacity,
+                    sendTimeLimitMs, sessionTracker, meterRegistry));
+            log.info("WebSocket broker: sharded, {} outbound shards", shards);
+        }
+    }
+
+    /**
+     * Bound what one slow client can hold up: a session whose send takes longer
+     * than the time limit, or whose buffered frames exceed the size limit, is
+     * closed. Sessions are tracked so the sharded executor can close them too.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .addDecoratorFactory(sessionTracker);
+    }
+
     /**
      * Register STOMP endpoints
      * Clients connect to /ws endpoint with SockJS fallback
@@ -40,4 +171,23 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOrigins(allowedOrigins.split(","))
                 .withSockJS();
     }
+
+    /**
+     * In sharded mode, swap the SimpleBroker's linear-scan subscription
+     * registry for one indexed by destination. The broker offers no
+     * registration hook for this, so it is set on the handler bean.
+     */
+    @Bean
+    public static BeanPostProcessor brokerSubscriptionRegistryPostProcessor(
+            @Value("${app.websocket.broker:simple}") String brokerMode) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof SimpleBrokerMessageHandler handler && BROKER_SHARDED.equals(brokerMode)) {
+                    handler.setSubscriptionRegistry(new DestinationIndexedSubscriptionRegistry());
+                }
+                return bean;
+            }
+        };
+    }
 }
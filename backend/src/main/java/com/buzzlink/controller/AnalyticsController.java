@@ -1,5 +1,7 @@
 package com.buzzlink.controller;
 
+import com.buzzlink.entity.MessageRollup;
+import com.buzzlink.entity.TopKSlice;
 import com.buzzlink.service.AnalyticsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -20,28 +22,57 @@ public class AnalyticsController {
         return ResponseEntity.ok(analyticsService.getKPIs());
     }
 
+    /**
+     * Distinct senders over the last N days (1-400), optionally for one workspace
+     */
+    @GetMapping("/active-users")
+    public ResponseEntity<Map<String, Object>> getActiveUsers(
+            @RequestParam(required = false) Long workspaceId,
+            @RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(analyticsService.getActiveUsers(workspaceId, Math.min(Math.max(days, 1), 400)));
+    }
+
+    /**
+     * granularity=day (last 90 days, default) or hour (last 48 hours)
+     */
     @GetMapping("/messages-timeline")
-    public ResponseEntity<Map<String, Object>> getMessagesTimeline() {
-        return ResponseEntity.ok(analyticsService.getMessagesTimeline());
+    public ResponseEntity<Map<String, Object>> getMessagesTimeline(
+            @RequestParam(defaultValue = "day") String granularity) {
+        MessageRollup.Granularity bucket = "hour".equalsIgnoreCase(granularity)
+                ? MessageRollup.Granularity.HOUR
+                : MessageRollup.Granularity.DAY;
+        return ResponseEntity.ok(analyticsService.getMessagesTimeline(bucket));
     }
 
+    /**
+     * window=hour, day, month (last 30 days; lower-bound counts) or all (default; exact)
+     */
     @GetMapping("/top-workspaces")
-    public ResponseEntity<Map<String, Object>> getTopWorkspaces() {
-        return ResponseEntity.ok(analyticsService.getTopWorkspaces());
+    public ResponseEntity<Map<String, Object>> getTopWorkspaces(@RequestParam(defaultValue = "all") String window) {
+        return ResponseEntity.ok(analyticsService.getTopWorkspaces(parseWindow(window)));
     }
 
     @GetMapping("/top-users")
-    public ResponseEntity<Map<String, Object>> getTopUsers() {
-        return ResponseEntity.ok(analyticsService.getTopUsers());
+    public ResponseEntity<Map<String, Object>> getTopUsers(@RequestParam(defaultValue = "all") String window) {
+        return ResponseEntity.ok(analyticsService.getTopUsers(parseWindow(window)));
     }
 
     @GetMapping("/messages-by-channel")
-    public ResponseEntity<Map<String, Object>> getMessagesByChannel() {
-        return ResponseEntity.ok(analyticsService.getMessagesByChannel());
+    public ResponseEntity<Map<String, Object>> getMessagesByChannel(@RequestParam(defaultValue = "all") String window) {
+        return ResponseEntity.ok(analyticsService.getMessagesByChannel(parseWindow(window)));
     }
 
     @GetMapping("/user-activity-distribution")
     public ResponseEntity<Map<String, Object>> getUserActivityDistribution() {
         return ResponseEntity.ok(analyticsService.getUserActivityDistribution());
     }
+
+    private static TopKSlice.Window parseWindow(String window) {
+        for (TopKSlice.Window candidate : TopKSlice.Window.values()) {
+            if (candidate.name().equalsIgnoreCase(window)) {
+                return candidate;
+            }
+        }
+        return TopKSlice.Window.ALL;
+    }
 }
@@ -1,9 +1,12 @@
 package com.buzzlink.controller;
 
+import com.buzzlink.dto.ChannelActivityDTO;
 import com.buzzlink.dto.ChannelDTO;
 import com.buzzlink.entity.Channel;
 import com.buzzlink.entity.Workspace;
 import com.buzzlink.repository.ChannelRepository;
+import com.buzzlink.service.ChannelReadStateService;
+import com.buzzlink.service.NotificationService;
 import com.buzzlink.service.WorkspaceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +26,8 @@ public class ChannelController {
 
     private final ChannelRepository channelRepository;
     private final WorkspaceService workspaceService;
+    private final ChannelReadStateService channelReadStateService;
+    private final NotificationService notificationService;
 
     /**
      * GET /api/channels - List all channels (optionally filtered by workspace)
@@ -43,6 +48,44 @@ public class ChannelController {
         return ResponseEntity.ok(channelDTOs);
     }
 
+    /**
+     * GET /api/channels/activity - Channels with unread messages for a user
+     * (optionally filtered by workspace)
+     */
+    @GetMapping("/activity")
+    public ResponseEntity<List<ChannelActivityDTO>> getChannelActivity(
+            @RequestParam String clerkId,
+            @RequestParam(required = false) Long workspaceId) {
+        return ResponseEntity.ok(channelReadStateService.getChannelActivity(clerkId, workspaceId));
+    }
+
+    /**
+     * PUT /api/channels/{id}/read - Move the user's read cursor
+     * Without messageId the channel is read up to its latest message
+     */
+    @PutMapping("/{id}/read")
+    public ResponseEntity<Void> markChannelRead(
+            @PathVariable Long id,
+            @RequestParam String clerkId,
+            @RequestParam(required = false) Long messageId) {
+        channelReadStateService.markRead(clerkId, id, messageId);
+        notificationService.refreshUnreadCount(clerkId);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * PUT /api/channels/{id}/notify-all - Opt in to a notification for every message
+     * (by default only mentions notify)
+     */
+    @PutMapping("/{id}/notify-all")
+    public ResponseEntity<Void> setNotifyAll(
+            @PathVariable Long id,
+            @RequestParam String clerkId,
+            @RequestParam boolean enabled) {
+        channelReadStateService.setNotifyAll(clerkId, id, enabled);
+        return ResponseEntity.ok().build();
+    }
+
     /**
      * GET /api/channels/{id} - Get a specific channel
      */
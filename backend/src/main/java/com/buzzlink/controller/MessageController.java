@@ -1,6 +1,7 @@
 package com.buzzlink.controller;
 
 import com.buzzlink.dto.MessageDTO;
+import com.buzzlink.dto.PageCursor;
 import com.buzzlink.service.MessageService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -17,20 +18,49 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:3000")
 public class MessageController {
 
+    /**
+     * Response header carrying the cursor for the next (older) page
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final MessageService messageService;
 
     /**
-     * GET /api/channels/{channelId}/messages - Get recent messages for a channel
+     * GET /api/channels/{channelId}/messages - Get messages for a channel, newest first
      * 
      * @param channelId Channel ID
-     * @param limit     Maximum number of messages (default 50)
+     * @param limit     Maximum number of messages (default 50, max 200)
+     * @param before    Cursor from a previous page's X-Next-Cursor header (optional)
      */
     @GetMapping("/channels/{channelId}/messages")
     public ResponseEntity<List<MessageDTO>> getMessages(
             @PathVariable Long channelId,
-            @RequestParam(defaultValue = "50") int limit) {
-        List<MessageDTO> messages = messageService.getRecentMessages(channelId, limit);
-        return ResponseEntity.ok(messages);
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String before) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        List<MessageDTO> messages;
+        if (before == null) {
+            messages = messageService.getRecentMessages(channelId, pageSize);
+        } else {
+            PageCursor cursor;
+            try {
+                cursor = PageCursor.decode(before);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+            messages = messageService.getMessagesBefore(channelId, cursor, pageSize);
+        }
+
+        // A full page means there may be older messages
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (messages.size() == pageSize) {
+            MessageDTO oldest = messages.get(messages.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, new PageCursor(oldest.getCreatedAt(), oldest.getId()).encode());
+        }
+        return response.body(messages);
     }
 
     /**
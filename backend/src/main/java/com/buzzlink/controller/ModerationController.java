@@ -2,9 +2,12 @@ package com.buzzlink.controller;
 
 import com.buzzlink.dto.UserDTO;
 import com.buzzlink.entity.MessageModeration;
+import com.buzzlink.entity.ModerationTerm;
 import com.buzzlink.entity.User;
 import com.buzzlink.repository.MessageModerationRepository;
+import com.buzzlink.repository.ModerationTermRepository;
 import com.buzzlink.repository.UserRepository;
+import com.buzzlink.service.ModerationPrefilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -13,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 /**
@@ -26,6 +30,8 @@ public class ModerationController {
 
     private final MessageModerationRepository moderationRepository;
     private final UserRepository userRepository;
+    private final ModerationTermRepository termRepository;
+    private final ModerationPrefilter prefilter;
 
     /**
      * Get flagged messages for a workspace (admin only)
@@ -109,6 +115,76 @@ public class ModerationController {
         return ResponseEntity.ok(toDTO(moderation));
     }
 
+    /**
+     * List pre-filter terms of a workspace, or the global ones without workspaceId (admin only)
+     * GET /api/moderation/terms?workspaceId={id}
+     */
+    @GetMapping("/terms")
+    public ResponseEntity<?> getTerms(
+            @RequestHeader("X-Clerk-User-Id") String clerkId,
+            @RequestParam(required = false) Long workspaceId) {
+
+        User user = userRepository.findByClerkId(clerkId).orElse(null);
+        if (user == null || !user.getIsAdmin()) {
+            return ResponseEntity.status(403).body("Only admins can view moderation terms");
+        }
+
+        return ResponseEntity.ok(termRepository.findByWorkspaceIdOrderByTermAsc(workspaceId));
+    }
+
+    /**
+     * Add a pre-filter term (admin only)
+     * POST /api/moderation/terms
+     */
+    @PostMapping("/terms")
+    public ResponseEntity<?> addTerm(
+            @RequestHeader("X-Clerk-User-Id") String clerkId,
+            @RequestBody TermRequest request) {
+
+        User user = userRepository.findByClerkId(clerkId).orElse(null);
+        if (user == null || !user.getIsAdmin()) {
+            return ResponseEntity.status(403).body("Only admins can change moderation terms");
+        }
+        if (request.term() == null || request.term().isBlank() || request.term().strip().length() > 200) {
+            return ResponseEntity.badRequest().body("Term must be 1-200 characters");
+        }
+
+        ModerationTerm term = new ModerationTerm();
+        term.setWorkspaceId(request.workspaceId());
+        term.setTerm(request.term().strip().toLowerCase(Locale.ROOT));
+        term.setAction(request.action() != null ? request.action() : ModerationTerm.Action.ESCALATE);
+        term = termRepository.save(term);
+        prefilter.invalidate(term.getWorkspaceId());
+
+        log.info("Admin {} added moderation term {} ({})", clerkId, term.getId(), term.getAction());
+
+        return ResponseEntity.ok(term);
+    }
+
+    /**
+     * Remove a pre-filter term (admin only)
+     * DELETE /api/moderation/terms/{termId}
+     */
+    @DeleteMapping("/terms/{termId}")
+    public ResponseEntity<?> deleteTerm(
+            @RequestHeader("X-Clerk-User-Id") String clerkId,
+            @PathVariable Long termId) {
+
+        User user = userRepository.findByClerkId(clerkId).orElse(null);
+        if (user == null || !user.getIsAdmin()) {
+            return ResponseEntity.status(403).body("Only admins can change moderation terms");
+        }
+
+        ModerationTerm term = termRepository.findById(termId).orElse(null);
+        if (term == null) {
+            return ResponseEntity.notFound().build();
+        }
+        termRepository.delete(term);
+        prefilter.invalidate(term.getWorkspaceId());
+
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Convert MessageModeration entity to DTO
      */
@@ -165,4 +241,9 @@ public class ModerationController {
      * Request body for reviewing a message
      */
     public record ReviewRequest(String status) {}
+
+    /**
+     * Request body for adding a pre-filter term; action is FLAG or ESCALATE (default)
+     */
+    public record TermRequest(Long workspaceId, String term, ModerationTerm.Action action) {}
 }
@@ -1,6 +1,7 @@
 package com.buzzlink.controller;
 
 import com.buzzlink.dto.NotificationDTO;
+import com.buzzlink.dto.PageCursor;
 import com.buzzlink.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -15,24 +16,50 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class NotificationController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationService notificationService;
 
     /**
-     * Get all notifications for the authenticated user
+     * Get a page of notifications for the authenticated user, newest first
+     *
+     * @param limit  Maximum number of notifications (default 50, max 100)
+     * @param before Cursor from a previous page's X-Next-Cursor header (optional)
      */
     @GetMapping
-    public ResponseEntity<List<NotificationDTO>> getNotifications(@RequestParam String clerkId) {
-        List<NotificationDTO> notifications = notificationService.getUserNotifications(clerkId);
-        return ResponseEntity.ok(notifications);
+    public ResponseEntity<List<NotificationDTO>> getNotifications(
+            @RequestParam String clerkId,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String before) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        PageCursor cursor;
+        try {
+            cursor = before != null ? PageCursor.decode(before) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return page(notificationService.getUserNotifications(clerkId, cursor, pageSize), pageSize);
     }
 
     /**
-     * Get unread notifications
+     * Get a page of unread notifications, newest first
+     *
+     * @param limit  Maximum number of stored notifications (default 50, max 100)
+     * @param before Cursor from a previous page's X-Next-Cursor header (optional)
      */
     @GetMapping("/unread")
-    public ResponseEntity<List<NotificationDTO>> getUnreadNotifications(@RequestParam String clerkId) {
-        List<NotificationDTO> notifications = notificationService.getUnreadNotifications(clerkId);
-        return ResponseEntity.ok(notifications);
+    public ResponseEntity<List<NotificationDTO>> getUnreadNotifications(
+            @RequestParam String clerkId,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String before) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        PageCursor cursor;
+        try {
+            cursor = before != null ? PageCursor.decode(before) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return page(notificationService.getUnreadNotifications(clerkId, cursor, pageSize), pageSize);
     }
 
     /**
@@ -63,4 +90,33 @@ public class NotificationController {
         notificationService.markAllAsRead(clerkId);
         return ResponseEntity.ok().build();
     }
+
+    /**
+     * Attach a next-page cursor when the page of stored notifications is full.
+     * Derived channel-activity entries (no ID) are skipped.
+     */
+    private static ResponseEntity<List<NotificationDTO>> page(List<NotificationDTO> notifications, int pageSize) {
+        NotificationDTO oldest = null;
+        int stored = 0;
+        for (NotificationDTO notification : notifications) {
+            if (notification.getId() != null) {
+                stored++;
+                if (oldest == null || isOlder(notification, oldest)) {
+                    oldest = notification;
+                }
+            }
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (stored == pageSize) {
+            response.header(MessageController.NEXT_CURSOR_HEADER,
+                    new PageCursor(oldest.getCreatedAt(), oldest.getId()).encode());
+        }
+        return response.body(notifications);
+    }
+
+    private static boolean isOlder(NotificationDTO a, NotificationDTO b) {
+        int byTime = a.getCreatedAt().compareTo(b.getCreatedAt());
+        return byTime < 0 || (byTime == 0 && a.getId() < b.getId());
+    }
 }
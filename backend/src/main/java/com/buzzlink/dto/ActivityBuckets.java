@@ -0,0 +1,7 @@
+package com.buzzlink.dto;
+
+/**
+ * Number of users with 11-50 and with more than 50 messages
+ */
+public record ActivityBuckets(Long medium, Long high) {
+}
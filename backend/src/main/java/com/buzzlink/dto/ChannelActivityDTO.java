@@ -0,0 +1,22 @@
+package com.buzzlink.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Unread activity in one channel, derived from the user's read cursor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChannelActivityDTO {
+    private Long channelId;
+    private String channelName;
+    private Long workspaceId;
+    // Stops at ChannelReadStateRepository.UNREAD_CAP
+    private Long unreadCount;
+    private LocalDateTime lastActivityAt;
+}
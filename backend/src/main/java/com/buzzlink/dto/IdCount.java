@@ -0,0 +1,7 @@
+package com.buzzlink.dto;
+
+/**
+ * Count for one entity ID, from a grouped aggregate query
+ */
+public record IdCount(Long id, Long count) {
+}
@@ -0,0 +1,11 @@
+package com.buzzlink.dto;
+
+/**
+ * Workspace member as indexed by the mention directory
+ */
+public record MentionCandidate(Long userId, String clerkId, String displayName) {
+
+    public NotificationRecipient toRecipient() {
+        return new NotificationRecipient(userId, clerkId);
+    }
+}
@@ -41,9 +41,9 @@ public class MessageDTO {
     }
 
     /**
-     * Overload for when reaction count is not needed
+     * Overload using the message's denormalized reaction count
      */
     public static MessageDTO fromEntity(Message message) {
-        return fromEntity(message, 0L);
+        return fromEntity(message, message.getReactionCount());
     }
 }
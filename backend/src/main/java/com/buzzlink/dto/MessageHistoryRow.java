@@ -0,0 +1,43 @@
+package com.buzzlink.dto;
+
+import com.buzzlink.entity.Message;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat projection of a message and its sender for history queries.
+ * Selected with a JPQL constructor expression so no entities or lazy
+ * proxies are loaded.
+ */
+public record MessageHistoryRow(
+        Long id,
+        Long channelId,
+        Long senderId,
+        String senderClerkId,
+        String senderDisplayName,
+        String senderAvatarUrl,
+        Boolean senderIsAdmin,
+        String senderEmail,
+        String content,
+        Message.MessageType type,
+        LocalDateTime createdAt,
+        Long parentMessageId,
+        Integer replyCount,
+        Long reactionCount) {
+
+    /**
+     * Convert to the DTO sent to clients
+     */
+    public MessageDTO toDTO() {
+        return new MessageDTO(
+                id,
+                channelId,
+                new UserDTO(senderId, senderClerkId, senderDisplayName, senderAvatarUrl, senderIsAdmin, senderEmail),
+                content,
+                type.name(),
+                createdAt,
+                reactionCount,
+                parentMessageId,
+                replyCount);
+    }
+}
@@ -0,0 +1,7 @@
+package com.buzzlink.dto;
+
+/**
+ * Message count for a named entity (user, channel or workspace), from an aggregate query
+ */
+public record NamedCount(String name, Long count) {
+}
@@ -0,0 +1,7 @@
+package com.buzzlink.dto;
+
+/**
+ * User to notify, as resolved by a single recipient query
+ */
+public record NotificationRecipient(Long userId, String clerkId) {
+}
@@ -0,0 +1,41 @@
+package com.buzzlink.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset pagination cursor: the (createdAt, id) of the last row on a page.
+ * Sent to clients as an opaque URL-safe token.
+ */
+public record PageCursor(LocalDateTime createdAt, Long id) {
+
+    /**
+     * Encode as an opaque token
+     */
+    public String encode() {
+        String raw = createdAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int comma = raw.lastIndexOf(',');
+            if (comma < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new PageCursor(
+                    LocalDateTime.parse(raw.substring(0, comma)),
+                    Long.parseLong(raw.substring(comma + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
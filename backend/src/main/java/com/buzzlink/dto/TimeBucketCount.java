@@ -0,0 +1,9 @@
+package com.buzzlink.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Message count for one hour or day, from an aggregate query
+ */
+public record TimeBucketCount(LocalDateTime bucketStart, Long count) {
+}
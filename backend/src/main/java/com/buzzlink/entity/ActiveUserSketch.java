@@ -0,0 +1,54 @@
+package com.buzzlink.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * HyperLogLog sketch of the users who sent messages on one day, in one
+ * workspace or (workspace 0) across all workspaces.
+ */
+@Entity
+@Table(name = "active_user_sketches", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_sketch_day_workspace", columnNames = {"activity_day", "workspace_id"})
+}, indexes = {
+    @Index(name = "idx_sketch_workspace_day", columnList = "workspace_id,activity_day")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActiveUserSketch {
+
+    /**
+     * workspaceId of the sketch that covers every workspace
+     */
+    public static final long ALL_WORKSPACES = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "activity_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "workspace_id", nullable = false)
+    private Long workspaceId;
+
+    /**
+     * Serialized {@link com.buzzlink.service.HyperLogLog}
+     */
+    @Column(nullable = false, length = 4200)
+    private byte[] sketch;
+
+    /**
+     * True once the day has been rebuilt from the daily rollups
+     */
+    @Column(nullable = false)
+    private Boolean backfilled = false;
+
+    @Version
+    private Long version;
+}
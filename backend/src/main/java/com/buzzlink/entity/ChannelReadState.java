@@ -0,0 +1,53 @@
+package com.buzzlink.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user's read cursor in a channel.
+ * Channel activity (unread counts, "new messages in #channel") is derived from
+ * this at query time instead of writing a notification row per member per message.
+ */
+@Entity
+@Table(name = "channel_read_states", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_read_state_user_channel", columnNames = {"user_id", "channel_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChannelReadState {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "channel_id", nullable = false)
+    private Channel channel;
+
+    /**
+     * Newest top-level message the user has seen
+     */
+    @Column(name = "last_read_message_id")
+    private Long lastReadMessageId;
+
+    /**
+     * Creation time of that message; messages after it are unread
+     */
+    @Column(name = "last_read_at")
+    private LocalDateTime lastReadAt;
+
+    /**
+     * Opt-in: notify on every top-level message, not just mentions
+     */
+    @Column(name = "notify_all")
+    private Boolean notifyAll = false;
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -13,15 +14,24 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "messages", indexes = {
-        @Index(name = "idx_channel_created", columnList = "channel_id,created_at")
+        @Index(name = "idx_channel_created", columnList = "channel_id,created_at"),
+        @Index(name = "idx_message_sender", columnList = "sender_id")
 })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Message {
 
+    /**
+     * Sequence used for message IDs. Pooled so inserts can be JDBC-batched and
+     * so the write-behind buffer can assign IDs before the row is written.
+     */
+    public static final String ID_SEQUENCE = "messages_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "message_id_generator")
+    @SequenceGenerator(name = "message_id_generator", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -66,6 +76,16 @@ public class Message {
     @Column(nullable = false)
     private Integer replyCount = 0;
 
+    /**
+     * Number of reactions on this message (denormalized)
+     * Kept in sync with atomic increments/decrements in the same transaction
+     * as the reaction insert/delete, repaired by ReactionCountReconciler, and
+     * filled in for messages older than the column by ReactionCountBackfillJob
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long reactionCount = 0L;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,72 @@
+package com.buzzlink.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Pre-aggregated message count for one channel and sender in one hour or day.
+ * Analytics reads these instead of the messages table; workspace totals,
+ * channel totals and distinct active senders are sums and counts over them.
+ */
+@Entity
+@Table(name = "message_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_rollup_bucket",
+            columnNames = {"granularity", "bucket_start", "channel_id", "sender_id"})
+}, indexes = {
+    @Index(name = "idx_rollup_bucket", columnList = "granularity,bucket_start"),
+    @Index(name = "idx_rollup_workspace_bucket", columnList = "workspace_id,granularity,bucket_start")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Granularity granularity;
+
+    /**
+     * Start of the hour or day (server time)
+     */
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "workspace_id", nullable = false)
+    private Long workspaceId;
+
+    @Column(name = "channel_id", nullable = false)
+    private Long channelId;
+
+    @Column(name = "sender_id", nullable = false)
+    private Long senderId;
+
+    @Column(name = "message_count", nullable = false)
+    private Long messageCount = 0L;
+
+    public enum Granularity {
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        /**
+         * Start of the bucket containing a timestamp
+         */
+        public LocalDateTime bucketOf(LocalDateTime timestamp) {
+            return timestamp.truncatedTo(unit);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.buzzlink.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Term for the local moderation pre-filter.
+ * Terms without a workspace apply to every workspace.
+ */
+@Entity
+@Table(name = "moderation_terms", indexes = {
+    @Index(name = "idx_moderation_term_workspace", columnList = "workspace_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationTerm {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Workspace the term applies to, or null for all workspaces
+     */
+    @Column(name = "workspace_id")
+    private Long workspaceId;
+
+    /**
+     * Word or phrase, stored lowercase; matched on word boundaries
+     */
+    @Column(nullable = false, length = 200)
+    private String term;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Action action;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum Action {
+        FLAG,       // Flag locally without a remote call
+        ESCALATE    // Always send to the remote moderation API
+    }
+}
@@ -10,16 +10,27 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "notifications", indexes = {
-    @Index(name = "idx_user_read", columnList = "user_id,is_read"),
-    @Index(name = "idx_created_at", columnList = "created_at")
+    @Index(name = "idx_user_read_created", columnList = "user_id,is_read,created_at"),
+    @Index(name = "idx_user_created", columnList = "user_id,created_at"),
+    @Index(name = "idx_created_at", columnList = "created_at"),
+    @Index(name = "idx_notification_type_user_channel", columnList = "type,user_id,channel_id")
 })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Notification {
 
+    /**
+     * Sequence used for notification IDs. Pooled so the fan-out engine can
+     * assign IDs itself and write rows with JDBC batch inserts.
+     */
+    public static final String ID_SEQUENCE = "notifications_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_id_generator")
+    @SequenceGenerator(name = "notification_id_generator", sequenceName = ID_SEQUENCE,
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -0,0 +1,43 @@
+package com.buzzlink.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a backfill over the messages table (rollups, reaction counts),
+ * so an interrupted backfill resumes where it stopped. For rollups, messages
+ * created at or after the cutoff are counted by the live path instead.
+ */
+@Entity
+@Table(name = "rollup_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    /**
+     * When live rollup updates started; the backfill only covers older messages
+     */
+    @Column(nullable = false)
+    private LocalDateTime cutoff;
+
+    /**
+     * Highest message ID the backfill has already covered
+     */
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId = 0L;
+
+    /**
+     * Null until the backfill has covered every message before the cutoff
+     */
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
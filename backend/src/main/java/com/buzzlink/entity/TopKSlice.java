@@ -0,0 +1,110 @@
+package com.buzzlink.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Snapshot of the heaviest users, channels or workspaces for one slice of a
+ * sliding window. A window's ranking is the merge of its newest slices.
+ */
+@Entity
+@Table(name = "top_k_slices", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_top_k_slice", columnNames = {"dimension", "window_name", "slice_start"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopKSlice {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Dimension dimension;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "window_name", nullable = false, length = 8)
+    private Window window;
+
+    /**
+     * Start of the slice (server time); {@link Window#ALL} is not stored, its
+     * rankings are exact queries over the rollups
+     */
+    @Column(name = "slice_start", nullable = false)
+    private LocalDateTime sliceStart;
+
+    /**
+     * Serialized {@link com.buzzlink.service.SpaceSaving}
+     */
+    @Column(nullable = false, length = 65536)
+    private byte[] summary;
+
+    @Version
+    private Long version;
+
+    public enum Dimension {
+        USER("sender_id"),
+        CHANNEL("channel_id"),
+        WORKSPACE("workspace_id");
+
+        private final String rollupColumn;
+
+        Dimension(String rollupColumn) {
+            this.rollupColumn = rollupColumn;
+        }
+
+        /**
+         * Column of message_rollups holding this dimension's ID
+         */
+        public String rollupColumn() {
+            return rollupColumn;
+        }
+    }
+
+    public enum Window {
+        HOUR(Duration.ofMinutes(5), 12),
+        DAY(Duration.ofHours(1), 24),
+        MONTH(Duration.ofDays(1), 30),
+        ALL(null, 1);
+
+        private static final LocalDateTime ALL_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+        private final Duration slice;
+        private final int slices;
+
+        Window(Duration slice, int slices) {
+            this.slice = slice;
+            this.slices = slices;
+        }
+
+        /**
+         * Start of the slice containing a timestamp
+         */
+        public LocalDateTime sliceOf(LocalDateTime timestamp) {
+            if (slice == null) {
+                return ALL_TIME;
+            }
+            LocalDateTime day = timestamp.truncatedTo(ChronoUnit.DAYS);
+            long intoDay = Duration.between(day, timestamp).toMillis();
+            return day.plus(Duration.ofMillis(intoDay / slice.toMillis() * slice.toMillis()));
+        }
+
+        /**
+         * Start of the oldest slice still inside the window
+         */
+        public LocalDateTime oldestSlice(LocalDateTime now) {
+            if (slice == null) {
+                return ALL_TIME;
+            }
+            return sliceOf(now).minus(slice.multipliedBy(slices - 1L));
+        }
+    }
+}
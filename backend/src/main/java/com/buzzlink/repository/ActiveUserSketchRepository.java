@@ -0,0 +1,26 @@
+package com.buzzlink.repository;
+
+import com.buzzlink.entity.ActiveUserSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ActiveUserSketchRepository extends JpaRepository<ActiveUserSketch, Long> {
+
+    Optional<ActiveUserSketch> findByDayAndWorkspaceId(LocalDate day, Long workspaceId);
+
+    List<ActiveUserSketch> findByWorkspaceIdAndDayBetween(Long workspaceId, LocalDate from, LocalDate to);
+
+    /**
+     * Days already rebuilt from the rollups
+     */
+    @Query("SELECT s.day FROM ActiveUserSketch s WHERE s.workspaceId = :workspaceId AND s.backfilled = true " +
+           "AND s.day >= :from")
+    List<LocalDate> findBackfilledDays(@Param("workspaceId") Long workspaceId, @Param("from") LocalDate from);
+}
@@ -0,0 +1,102 @@
+package com.buzzlink.repository;
+
+import com.buzzlink.dto.NotificationRecipient;
+import com.buzzlink.entity.ChannelReadState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ChannelReadStateRepository extends JpaRepository<ChannelReadState, Long> {
+
+    /**
+     * Move a read cursor forward (never backwards)
+     * Returns 0 if the user has no cursor in the channel yet
+     */
+    @Modifying
+    @Query("UPDATE ChannelReadState s SET s.lastReadMessageId = :messageId, s.lastReadAt = :readAt " +
+           "WHERE s.user.id = :userId AND s.channel.id = :channelId " +
+           "AND (s.lastReadAt IS NULL OR s.lastReadAt <= :readAt)")
+    int advance(@Param("userId") Long userId, @Param("channelId") Long channelId,
+                @Param("messageId") Long messageId, @Param("readAt") LocalDateTime readAt);
+
+    boolean existsByUserIdAndChannelId(Long userId, Long channelId);
+
+    /**
+     * Set the notify-on-every-message preference
+     * Returns 0 if the user has no cursor in the channel yet
+     */
+    @Modifying
+    @Query("UPDATE ChannelReadState s SET s.notifyAll = :notifyAll " +
+           "WHERE s.user.id = :userId AND s.channel.id = :channelId")
+    int updateNotifyAll(@Param("userId") Long userId, @Param("channelId") Long channelId,
+                        @Param("notifyAll") Boolean notifyAll);
+
+    /**
+     * Users who opted in to notifications for every message in a channel
+     */
+    @Query("SELECT new com.buzzlink.dto.NotificationRecipient(u.id, u.clerkId) " +
+           "FROM ChannelReadState s JOIN s.user u " +
+           "WHERE s.channel.id = :channelId AND s.notifyAll = true AND u.id <> :excludeUserId")
+    List<NotificationRecipient> findNotifyAllRecipients(@Param("channelId") Long channelId,
+                                                        @Param("excludeUserId") Long excludeUserId);
+
+    /**
+     * Unread counts stop at this many; a capped count is shown as "99+"
+     */
+    int UNREAD_CAP = 100;
+
+    // Unread top-level messages by others in channel c since the user's cursor
+    // (or, without one, since they joined the workspace)
+    String UNREAD_MESSAGES =
+            "FROM messages m WHERE m.channel_id = c.id " +
+            "AND m.created_at > COALESCE(rs.last_read_at, uwm.joined_at) " +
+            "AND m.parent_message_id IS NULL AND m.sender_id <> :userId";
+
+    /**
+     * Unread top-level messages per channel for a user, counted up to
+     * {@link #UNREAD_CAP}, with the newest one's time. Each channel costs at
+     * most UNREAD_CAP index entries on messages(channel_id, created_at) plus
+     * one for the newest, however long its unread history. Channels with
+     * nothing unread are omitted.
+     */
+    String CHANNEL_ACTIVITY_SQL =
+            "SELECT * FROM (SELECT c.id AS channelId, c.name AS channelName, c.workspace_id AS workspaceId, " +
+            "(SELECT COUNT(*) FROM (SELECT 1 AS unread " + UNREAD_MESSAGES + " LIMIT " + UNREAD_CAP + ") capped) " +
+            "AS unreadCount, " +
+            "(SELECT MAX(m.created_at) " + UNREAD_MESSAGES + ") AS lastActivityAt " +
+            "FROM channels c " +
+            "JOIN user_workspace_members uwm ON uwm.workspace_id = c.workspace_id AND uwm.user_id = :userId " +
+            "LEFT JOIN channel_read_states rs ON rs.channel_id = c.id AND rs.user_id = :userId ";
+
+    /**
+     * Channel activity across all of the user's workspaces
+     */
+    @Query(value = CHANNEL_ACTIVITY_SQL + ") activity WHERE activity.unreadCount > 0", nativeQuery = true)
+    List<ChannelUnreadRow> findChannelActivity(@Param("userId") Long userId);
+
+    /**
+     * Channel activity in one workspace
+     */
+    @Query(value = CHANNEL_ACTIVITY_SQL + "WHERE c.workspace_id = :workspaceId) activity " +
+                   "WHERE activity.unreadCount > 0",
+           nativeQuery = true)
+    List<ChannelUnreadRow> findChannelActivityInWorkspace(@Param("userId") Long userId,
+                                                          @Param("workspaceId") Long workspaceId);
+
+    /**
+     * Row of {@link #findChannelActivity}
+     */
+    interface ChannelUnreadRow {
+        Long getChannelId();
+        String getChannelName();
+        Long getWorkspaceId();
+        Long getUnreadCount();
+        LocalDateTime getLastActivityAt();
+    }
+}
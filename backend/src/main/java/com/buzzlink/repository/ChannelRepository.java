@@ -34,4 +34,10 @@ public interface ChannelRepository extends JpaRepository<Channel, Long> {
      */
     @Query("SELECT c FROM Channel c WHERE c.name = :name AND c.workspace.id = :workspaceId")
     Optional<Channel> findByNameAndWorkspaceId(@Param("name") String name, @Param("workspaceId") Long workspaceId);
+
+    /**
+     * Find the workspace ID of a channel without loading the workspace
+     */
+    @Query("SELECT c.workspace.id FROM Channel c WHERE c.id = :channelId")
+    Optional<Long> findWorkspaceIdById(@Param("channelId") Long channelId);
 }
@@ -35,6 +35,7 @@ public interface DirectMessageRepository extends JpaRepository<DirectMessage, Lo
            "ORDER BY dm.createdAt DESC")
     List<DirectMessage> findRecentMessages(@Param("userId") Long userId, Pageable pageable);
 
-    // Count DMs by sender (for admin dashboard)
-    long countBySender(com.buzzlink.entity.User sender);
+    // Count DMs per sender in one grouped query (for admin dashboard)
+    @Query("SELECT new com.buzzlink.dto.IdCount(dm.sender.id, COUNT(dm)) FROM DirectMessage dm GROUP BY dm.sender.id")
+    List<com.buzzlink.dto.IdCount> countGroupedBySender();
 }
@@ -1,13 +1,19 @@
 package com.buzzlink.repository;
 
+import com.buzzlink.dto.IdCount;
+import com.buzzlink.dto.MessageHistoryRow;
 import com.buzzlink.entity.Channel;
 import com.buzzlink.entity.Message;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
@@ -25,11 +31,6 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.channel = :channel ORDER BY m.createdAt DESC")
     List<Message> findByChannelWithSender(Channel channel, Pageable pageable);
 
-    /**
-     * Count messages in a channel (useful for analytics)
-     */
-    long countByChannel(Channel channel);
-
     /**
      * Find all replies to a parent message, ordered by creation time
      */
@@ -42,7 +43,99 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     List<Message> findTopLevelMessagesByChannel(Channel channel, Pageable pageable);
 
     /**
-     * Count messages by sender (for admin dashboard)
+     * Top-level messages in a channel with sender details, newest first.
+     * Single query - no per-row sender or parent lookups.
+     */
+    @Query("SELECT new com.buzzlink.dto.MessageHistoryRow(" +
+           "m.id, m.channel.id, s.id, s.clerkId, s.displayName, s.avatarUrl, s.isAdmin, s.email, " +
+           "m.content, m.type, m.createdAt, m.parentMessage.id, m.replyCount, m.reactionCount) " +
+           "FROM Message m JOIN m.sender s " +
+           "WHERE m.channel.id = :channelId AND m.parentMessage IS NULL " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MessageHistoryRow> findTopLevelHistoryRows(Long channelId, Pageable pageable);
+
+    /**
+     * Keyset page of top-level messages older than the (createdAt, id) cursor,
+     * newest first. Seeks on idx_channel_created, so cost does not grow with depth.
+     */
+    @Query("SELECT new com.buzzlink.dto.MessageHistoryRow(" +
+           "m.id, m.channel.id, s.id, s.clerkId, s.displayName, s.avatarUrl, s.isAdmin, s.email, " +
+           "m.content, m.type, m.createdAt, m.parentMessage.id, m.replyCount, m.reactionCount) " +
+           "FROM Message m JOIN m.sender s " +
+           "WHERE m.channel.id = :channelId AND m.parentMessage IS NULL " +
+           "AND (m.createdAt < :beforeCreatedAt OR (m.createdAt = :beforeCreatedAt AND m.id < :beforeId)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MessageHistoryRow> findTopLevelHistoryRowsBefore(Long channelId, LocalDateTime beforeCreatedAt,
+            Long beforeId, Pageable pageable);
+
+    /**
+     * Replies to a message with sender details, oldest first
+     */
+    @Query("SELECT new com.buzzlink.dto.MessageHistoryRow(" +
+           "m.id, m.channel.id, s.id, s.clerkId, s.displayName, s.avatarUrl, s.isAdmin, s.email, " +
+           "m.content, m.type, m.createdAt, m.parentMessage.id, m.replyCount, m.reactionCount) " +
+           "FROM Message m JOIN m.sender s " +
+           "WHERE m.parentMessage.id = :parentMessageId " +
+           "ORDER BY m.createdAt ASC")
+    List<MessageHistoryRow> findReplyHistoryRows(Long parentMessageId);
+
+    /**
+     * Exact channel message count per sender in one grouped query (admin dashboard)
+     */
+    @Query("SELECT new com.buzzlink.dto.IdCount(m.sender.id, COUNT(m)) FROM Message m GROUP BY m.sender.id")
+    List<IdCount> countGroupedBySender();
+
+    /**
+     * Find the Clerk ID of a message's sender without loading the message
+     */
+    @Query("SELECT m.sender.clerkId FROM Message m WHERE m.id = :messageId")
+    Optional<String> findSenderClerkIdById(Long messageId);
+
+    /**
+     * Creation time of a message, if it belongs to the given channel
+     */
+    @Query("SELECT m.createdAt FROM Message m WHERE m.id = :messageId AND m.channel.id = :channelId")
+    Optional<LocalDateTime> findCreatedAtByIdAndChannelId(Long messageId, Long channelId);
+
+    /**
+     * Atomically add one to a message's reaction count
+     * Returns 0 if the message does not exist
+     */
+    @Modifying
+    @Query("UPDATE Message m SET m.reactionCount = m.reactionCount + 1 WHERE m.id = :messageId")
+    int incrementReactionCount(Long messageId);
+
+    /**
+     * Atomically subtract one from a message's reaction count (never below zero)
+     */
+    @Modifying
+    @Query("UPDATE Message m SET m.reactionCount = m.reactionCount - 1 WHERE m.id = :messageId AND m.reactionCount > 0")
+    int decrementReactionCount(Long messageId);
+
+    /**
+     * Read a message's current reaction count
+     */
+    @Query("SELECT m.reactionCount FROM Message m WHERE m.id = :messageId")
+    Optional<Long> findReactionCountById(Long messageId);
+
+    @Query("SELECT m.channel.id FROM Message m WHERE m.id = :messageId")
+    Optional<Long> findChannelIdById(Long messageId);
+
+    /**
+     * Channels with messages created since the given time whose reaction
+     * counts drifted from the reactions table
+     */
+    @Query("SELECT DISTINCT m.channel.id FROM Message m WHERE m.createdAt >= :since " +
+           "AND m.reactionCount <> (SELECT COUNT(r) FROM Reaction r WHERE r.message = m)")
+    List<Long> findChannelIdsWithDriftedReactionCounts(LocalDateTime since);
+
+    /**
+     * Reset reaction counts that drifted from the reactions table,
+     * limited to messages in the given channels created since the given time
      */
-    long countBySender(com.buzzlink.entity.User sender);
+    @Modifying
+    @Query("UPDATE Message m SET m.reactionCount = (SELECT COUNT(r) FROM Reaction r WHERE r.message = m) " +
+           "WHERE m.createdAt >= :since AND m.channel.id IN :channelIds " +
+           "AND m.reactionCount <> (SELECT COUNT(r) FROM Reaction r WHERE r.message = m)")
+    int reconcileReactionCounts(LocalDateTime since, Collection<Long> channelIds);
 }
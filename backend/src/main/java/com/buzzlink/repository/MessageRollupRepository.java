@@ -0,0 +1,77 @@
+package com.buzzlink.repository;
+
+import com.buzzlink.dto.ActivityBuckets;
+import com.buzzlink.dto.IdCount;
+import com.buzzlink.dto.NamedCount;
+import com.buzzlink.dto.TimeBucketCount;
+import com.buzzlink.entity.MessageRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Aggregate reads over message rollups. Pass DAY for all-time totals; HOUR
+ * rows are only kept for a limited time.
+ */
+@Repository
+public interface MessageRollupRepository extends JpaRepository<MessageRollup, Long> {
+
+    @Query("SELECT COALESCE(SUM(r.messageCount), 0) FROM MessageRollup r WHERE r.granularity = :granularity")
+    long sumMessages(@Param("granularity") MessageRollup.Granularity granularity);
+
+    /**
+     * Message totals per bucket, oldest first; empty buckets are absent
+     */
+    @Query("SELECT new com.buzzlink.dto.TimeBucketCount(r.bucketStart, SUM(r.messageCount)) " +
+           "FROM MessageRollup r WHERE r.granularity = :granularity AND r.bucketStart >= :since " +
+           "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<TimeBucketCount> sumByBucketSince(@Param("granularity") MessageRollup.Granularity granularity,
+            @Param("since") LocalDateTime since);
+
+    // Exact all-time rankings (top-N in SQL); shorter windows come from the TopKTracker
+    @Query("SELECT new com.buzzlink.dto.NamedCount(w.name, SUM(r.messageCount)) " +
+           "FROM MessageRollup r JOIN Workspace w ON w.id = r.workspaceId " +
+           "WHERE r.granularity = :granularity GROUP BY w.id, w.name HAVING SUM(r.messageCount) > 0 " +
+           "ORDER BY SUM(r.messageCount) DESC")
+    List<NamedCount> topWorkspaces(@Param("granularity") MessageRollup.Granularity granularity, Pageable pageable);
+
+    @Query("SELECT new com.buzzlink.dto.NamedCount(c.name, SUM(r.messageCount)) " +
+           "FROM MessageRollup r JOIN Channel c ON c.id = r.channelId " +
+           "WHERE r.granularity = :granularity GROUP BY c.id, c.name HAVING SUM(r.messageCount) > 0 " +
+           "ORDER BY SUM(r.messageCount) DESC")
+    List<NamedCount> topChannels(@Param("granularity") MessageRollup.Granularity granularity, Pageable pageable);
+
+    @Query("SELECT new com.buzzlink.dto.NamedCount(u.displayName, SUM(r.messageCount)) " +
+           "FROM MessageRollup r JOIN User u ON u.id = r.senderId " +
+           "WHERE r.granularity = :granularity GROUP BY u.id, u.displayName HAVING SUM(r.messageCount) > 0 " +
+           "ORDER BY SUM(r.messageCount) DESC")
+    List<NamedCount> topSenders(@Param("granularity") MessageRollup.Granularity granularity, Pageable pageable);
+
+    /**
+     * Message total of every sender with at least one message
+     */
+    @Query("SELECT new com.buzzlink.dto.IdCount(r.senderId, SUM(r.messageCount)) FROM MessageRollup r " +
+           "WHERE r.granularity = :granularity GROUP BY r.senderId HAVING SUM(r.messageCount) > 0")
+    List<IdCount> sumPerSender(@Param("granularity") MessageRollup.Granularity granularity);
+
+    /**
+     * Number of senders with 11-50 and with more than 50 messages, in one pass
+     */
+    @Query("SELECT new com.buzzlink.dto.ActivityBuckets(" +
+           "COALESCE(SUM(CASE WHEN t.total BETWEEN 11 AND 50 THEN 1L ELSE 0L END), 0L), " +
+           "COALESCE(SUM(CASE WHEN t.total > 50 THEN 1L ELSE 0L END), 0L)) " +
+           "FROM (SELECT SUM(r.messageCount) AS total FROM MessageRollup r " +
+           "WHERE r.granularity = :granularity GROUP BY r.senderId) t")
+    ActivityBuckets countSendersByActivity(@Param("granularity") MessageRollup.Granularity granularity);
+
+    @Modifying
+    @Query("DELETE FROM MessageRollup r WHERE r.granularity = :granularity AND r.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") MessageRollup.Granularity granularity,
+            @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,21 @@
+package com.buzzlink.repository;
+
+import com.buzzlink.entity.ModerationTerm;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ModerationTermRepository extends JpaRepository<ModerationTerm, Long> {
+
+    /**
+     * Terms that apply to a workspace: its own plus the global ones
+     */
+    @Query("SELECT t FROM ModerationTerm t WHERE t.workspaceId = :workspaceId OR t.workspaceId IS NULL")
+    List<ModerationTerm> findApplicableTo(@Param("workspaceId") Long workspaceId);
+
+    List<ModerationTerm> findByWorkspaceIdOrderByTermAsc(Long workspaceId);
+}
@@ -1,38 +1,60 @@
 package com.buzzlink.repository;
 
 import com.buzzlink.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
-    // Get all notifications for a user, ordered by most recent first
-    List<Notification> findByUserClerkIdOrderByCreatedAtDesc(String clerkId);
-
-    // Get unread notifications for a user
-    List<Notification> findByUserClerkIdAndIsReadFalseOrderByCreatedAtDesc(String clerkId);
+    // Newest page of a user's notifications (seeks on idx_user_created)
+    @Query("SELECT n FROM Notification n LEFT JOIN FETCH n.actor " +
+           "WHERE n.user.id = :userId " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Page of a user's notifications older than the (createdAt, id) cursor
+    @Query("SELECT n FROM Notification n LEFT JOIN FETCH n.actor " +
+           "WHERE n.user.id = :userId " +
+           "AND (n.createdAt < :beforeCreatedAt OR (n.createdAt = :beforeCreatedAt AND n.id < :beforeId)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageByUserIdBefore(@Param("userId") Long userId,
+            @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt, @Param("beforeId") Long beforeId,
+            Pageable pageable);
+
+    // Newest page of a user's unread notifications (seeks on idx_user_read_created)
+    @Query("SELECT n FROM Notification n LEFT JOIN FETCH n.actor " +
+           "WHERE n.user.id = :userId AND n.isRead = false " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findUnreadPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Page of a user's unread notifications older than the (createdAt, id) cursor
+    @Query("SELECT n FROM Notification n LEFT JOIN FETCH n.actor " +
+           "WHERE n.user.id = :userId AND n.isRead = false " +
+           "AND (n.createdAt < :beforeCreatedAt OR (n.createdAt = :beforeCreatedAt AND n.id < :beforeId)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findUnreadPageByUserIdBefore(@Param("userId") Long userId,
+            @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt, @Param("beforeId") Long beforeId,
+            Pageable pageable);
 
     // Count unread notifications for a user
-    Long countByUserClerkIdAndIsReadFalse(String clerkId);
+    long countByUserIdAndIsReadFalse(Long userId);
 
     // Mark a notification as read
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :notificationId AND n.user.clerkId = :clerkId")
-    int markAsRead(@Param("notificationId") Long notificationId, @Param("clerkId") String clerkId);
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :notificationId AND n.user.id = :userId " +
+           "AND n.isRead = false")
+    int markAsRead(@Param("notificationId") Long notificationId, @Param("userId") Long userId);
 
     // Mark all notifications as read for a user
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.clerkId = :clerkId AND n.isRead = false")
-    int markAllAsRead(@Param("clerkId") String clerkId);
-
-    // Delete old read notifications (optional cleanup)
-    @Modifying
-    @Query("DELETE FROM Notification n WHERE n.user.clerkId = :clerkId AND n.isRead = true AND n.createdAt < :cutoffDate")
-    int deleteOldReadNotifications(@Param("clerkId") String clerkId, @Param("cutoffDate") java.time.LocalDateTime cutoffDate);
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllAsRead(@Param("userId") Long userId);
 }
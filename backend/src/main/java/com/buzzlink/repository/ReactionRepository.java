@@ -4,6 +4,8 @@ import com.buzzlink.entity.Message;
 import com.buzzlink.entity.Reaction;
 import com.buzzlink.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -31,4 +33,12 @@ public interface ReactionRepository extends JpaRepository<Reaction, Long> {
      * Delete a user's reaction to a message (toggle off)
      */
     void deleteByMessageAndUser(Message message, User user);
+
+    /**
+     * Delete a user's reaction by IDs without loading either entity
+     * Returns the number of rows removed (0 or 1)
+     */
+    @Modifying
+    @Query("DELETE FROM Reaction r WHERE r.message.id = :messageId AND r.user.id = :userId")
+    int deleteByMessageIdAndUserId(Long messageId, Long userId);
 }
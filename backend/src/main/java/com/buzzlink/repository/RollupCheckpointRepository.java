@@ -0,0 +1,9 @@
+package com.buzzlink.repository;
+
+import com.buzzlink.entity.RollupCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RollupCheckpointRepository extends JpaRepository<RollupCheckpoint, String> {
+}
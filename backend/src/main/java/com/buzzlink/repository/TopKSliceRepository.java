@@ -0,0 +1,25 @@
+package com.buzzlink.repository;
+
+import com.buzzlink.entity.TopKSlice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface TopKSliceRepository extends JpaRepository<TopKSlice, Long> {
+
+    Optional<TopKSlice> findByDimensionAndWindowAndSliceStart(TopKSlice.Dimension dimension,
+            TopKSlice.Window window, LocalDateTime sliceStart);
+
+    /**
+     * Drop slices that have slid out of their window
+     */
+    @Modifying
+    @Query("DELETE FROM TopKSlice s WHERE s.window = :window AND s.sliceStart < :before")
+    int deleteOlderThan(@Param("window") TopKSlice.Window window, @Param("before") LocalDateTime before);
+}
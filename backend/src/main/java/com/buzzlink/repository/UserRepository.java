@@ -17,6 +17,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByClerkId(String clerkId);
 
+    /**
+     * Internal ID for a Clerk ID, without loading the user
+     */
+    @Query("SELECT u.id FROM User u WHERE u.clerkId = :clerkId")
+    Optional<Long> findIdByClerkId(@Param("clerkId") String clerkId);
+
     /**
      * Check if a user exists by Clerk ID
      */
@@ -27,6 +33,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
 
+    long countByIsBannedTrue();
+
+    long countByIsAdminTrue();
+
     /**
      * Search users by display name or email (case-insensitive)
      */
@@ -1,5 +1,7 @@
 package com.buzzlink.repository;
 
+import com.buzzlink.dto.MentionCandidate;
+import com.buzzlink.dto.NotificationRecipient;
 import com.buzzlink.entity.UserWorkspaceMember;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -23,4 +25,15 @@ public interface UserWorkspaceMemberRepository extends JpaRepository<UserWorkspa
 
     @Query("SELECT uwm FROM UserWorkspaceMember uwm WHERE uwm.user.clerkId = :clerkId")
     List<UserWorkspaceMember> findByUserClerkId(@Param("clerkId") String clerkId);
+
+    @Query("SELECT new com.buzzlink.dto.NotificationRecipient(u.id, u.clerkId) " +
+           "FROM UserWorkspaceMember uwm JOIN uwm.user u " +
+           "WHERE uwm.workspace.id = :workspaceId AND u.id <> :excludeUserId")
+    List<NotificationRecipient> findNotificationRecipients(@Param("workspaceId") Long workspaceId,
+                                                           @Param("excludeUserId") Long excludeUserId);
+
+    @Query("SELECT new com.buzzlink.dto.MentionCandidate(u.id, u.clerkId, u.displayName) " +
+           "FROM UserWorkspaceMember uwm JOIN uwm.user u " +
+           "WHERE uwm.workspace.id = :workspaceId")
+    List<MentionCandidate> findMentionCandidates(@Param("workspaceId") Long workspaceId);
 }
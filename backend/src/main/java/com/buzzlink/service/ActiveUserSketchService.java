@@ -0,0 +1,212 @@
+package com.buzzlink.service;
+
+import com.buzzlink.entity.ActiveUserSketch;
+import com.buzzlink.entity.MessageRollup;
+import com.buzzlink.repository.ActiveUserSketchRepository;
+import com.buzzlink.repository.RollupCheckpointRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Daily active-user sketches, per workspace and across all workspaces.
+ *
+ * Senders are added to in-memory sketches for their message's day, which are
+ * merged into the stored sketches every flush interval (optimistic locking;
+ * a conflicting flush is retried next time, and re-adding a user is
+ * harmless). Active users over any window are the estimate of the union of
+ * that window's daily sketches, so DAU/WAU/MAU cost O(days), not O(messages).
+ *
+ * Days before live recording started are rebuilt from the daily rollups once
+ * the rollup backfill has finished.
+ */
+@Component
+@Slf4j
+public class ActiveUserSketchService {
+
+    private static final String ROLLUP_DAYS_SQL =
+            "SELECT DISTINCT bucket_start FROM message_rollups WHERE granularity = ? " +
+            "AND bucket_start >= ? AND bucket_start <= ?";
+
+    private static final String ROLLUP_SENDERS_SQL =
+            "SELECT DISTINCT workspace_id, sender_id FROM message_rollups " +
+            "WHERE granularity = ? AND bucket_start = ? AND message_count > 0";
+
+    private final ActiveUserSketchRepository sketchRepository;
+    private final RollupCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int backfillDays;
+    private final int backfillDaysPerRun;
+
+    private final LocalDate liveSince = LocalDate.now();
+    private final Map<SketchKey, HyperLogLog> pending = new ConcurrentHashMap<>();
+
+    public ActiveUserSketchService(
+            ActiveUserSketchRepository sketchRepository,
+            RollupCheckpointRepository checkpointRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.analytics.sketches.backfill-days:400}") int backfillDays,
+            @Value("${app.analytics.sketches.backfill-days-per-run:30}") int backfillDaysPerRun) {
+        this.sketchRepository = sketchRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillDays = backfillDays;
+        this.backfillDaysPerRun = Math.max(1, backfillDaysPerRun);
+
+        Gauge.builder("buzzlink.analytics.sketches.pending", pending, Map::size)
+                .description("Active-user sketches with unflushed additions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Count a sender as active on the day of their message
+     */
+    public void record(long workspaceId, long senderId, LocalDateTime createdAt) {
+        LocalDate day = createdAt.toLocalDate();
+        add(new SketchKey(day, workspaceId), senderId);
+        add(new SketchKey(day, ActiveUserSketch.ALL_WORKSPACES), senderId);
+    }
+
+    /**
+     * Estimated distinct senders over an inclusive range of days
+     *
+     * @param workspaceId Workspace, or null for all workspaces
+     */
+    public long countActiveUsers(Long workspaceId, LocalDate from, LocalDate to) {
+        long scope = workspaceId != null ? workspaceId : ActiveUserSketch.ALL_WORKSPACES;
+        HyperLogLog union = new HyperLogLog();
+        for (ActiveUserSketch stored : sketchRepository.findByWorkspaceIdAndDayBetween(scope, from, to)) {
+            union.merge(HyperLogLog.fromBytes(stored.getSketch()));
+        }
+        // Include additions that have not been flushed yet
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            pending.computeIfPresent(new SketchKey(day, scope), (key, sketch) -> {
+                union.merge(sketch);
+                return sketch;
+            });
+        }
+        return union.estimate();
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.sketches.flush-ms:10000}")
+    public void flush() {
+        for (SketchKey key : pending.keySet()) {
+            // After remove() no record() can touch this sketch; later additions start a new one
+            HyperLogLog additions = pending.remove(key);
+            if (additions == null) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> mergeInto(key, additions, false));
+            } catch (Exception e) {
+                // Optimistic lock or unique key conflict with another node; retry next flush
+                pending.merge(key, additions, (current, failed) -> {
+                    current.merge(failed);
+                    return current;
+                });
+                log.debug("Sketch flush for {} deferred: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rebuild days from before live recording out of the daily rollups, newest first
+     */
+    @Scheduled(initialDelayString = "${app.analytics.sketches.backfill-initial-delay-ms:60000}",
+            fixedDelayString = "${app.analytics.sketches.backfill-interval-ms:60000}")
+    public void backfill() {
+        boolean rollupsComplete = checkpointRepository.findById(MessageRollupBackfillJob.CHECKPOINT_NAME)
+                .map(checkpoint -> checkpoint.getCompletedAt() != null)
+                .orElse(false);
+        if (!rollupsComplete) {
+            return;
+        }
+        try {
+            LocalDate from = liveSince.minusDays(backfillDays);
+            Set<LocalDate> done = new HashSet<>(
+                    sketchRepository.findBackfilledDays(ActiveUserSketch.ALL_WORKSPACES, from));
+            List<LocalDate> days = jdbcTemplate.queryForList(ROLLUP_DAYS_SQL, Timestamp.class,
+                            MessageRollup.Granularity.DAY.name(),
+                            Timestamp.valueOf(from.atStartOfDay()),
+                            Timestamp.valueOf(liveSince.atStartOfDay()))
+                    .stream()
+                    .map(timestamp -> timestamp.toLocalDateTime().toLocalDate())
+                    .filter(day -> !done.contains(day))
+                    .sorted((a, b) -> b.compareTo(a))
+                    .limit(backfillDaysPerRun)
+                    .toList();
+            for (LocalDate day : days) {
+                transactionTemplate.executeWithoutResult(status -> backfillDay(day));
+            }
+        } catch (Exception e) {
+            log.warn("Active-user sketch backfill failed: {}", e.getMessage());
+        }
+    }
+
+    private void backfillDay(LocalDate day) {
+        Map<Long, HyperLogLog> byWorkspace = new HashMap<>();
+        HyperLogLog all = new HyperLogLog();
+        jdbcTemplate.query(ROLLUP_SENDERS_SQL, rs -> {
+            long senderId = rs.getLong("sender_id");
+            byWorkspace.computeIfAbsent(rs.getLong("workspace_id"), id -> new HyperLogLog()).add(senderId);
+            all.add(senderId);
+        }, MessageRollup.Granularity.DAY.name(), Timestamp.valueOf(day.atStartOfDay()));
+
+        byWorkspace.forEach((workspaceId, sketch) -> mergeInto(new SketchKey(day, workspaceId), sketch, true));
+        mergeInto(new SketchKey(day, ActiveUserSketch.ALL_WORKSPACES), all, true);
+    }
+
+    private void mergeInto(SketchKey key, HyperLogLog additions, boolean backfilled) {
+        ActiveUserSketch stored = sketchRepository.findByDayAndWorkspaceId(key.day(), key.workspaceId())
+                .orElseGet(() -> {
+                    ActiveUserSketch created = new ActiveUserSketch();
+                    created.setDay(key.day());
+                    created.setWorkspaceId(key.workspaceId());
+                    return created;
+                });
+        HyperLogLog sketch = HyperLogLog.fromBytes(stored.getSketch());
+        sketch.merge(additions);
+        stored.setSketch(sketch.toBytes());
+        if (backfilled) {
+            stored.setBackfilled(true);
+        }
+        sketchRepository.save(stored);
+    }
+
+    private void add(SketchKey key, long senderId) {
+        pending.compute(key, (k, sketch) -> {
+            HyperLogLog target = sketch != null ? sketch : new HyperLogLog();
+            target.add(senderId);
+            return target;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private record SketchKey(LocalDate day, long workspaceId) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.buzzlink.service;
 
+import com.buzzlink.dto.IdCount;
 import com.buzzlink.entity.User;
 import com.buzzlink.repository.ChannelRepository;
 import com.buzzlink.repository.DirectMessageRepository;
@@ -13,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -35,9 +37,14 @@ public class AdminService {
 
     /**
      * Get all users with their stats
+     * Message counts come from two grouped queries (channel messages and direct
+     * messages) rather than two count queries per user. They are exact, so they
+     * do not depend on the analytics rollups being enabled or backfilled.
      */
     public List<Map<String, Object>> getAllUsers() {
         List<User> users = userRepository.findAll();
+        Map<Long, Long> messageCounts = toMap(messageRepository.countGroupedBySender());
+        Map<Long, Long> dmCounts = toMap(directMessageRepository.countGroupedBySender());
         return users.stream().map(user -> {
             Map<String, Object> userMap = new HashMap<>();
             userMap.put("id", user.getId());
@@ -49,9 +56,8 @@ public class AdminService {
             userMap.put("isBanned", user.getIsBanned());
             userMap.put("createdAt", user.getCreatedAt());
 
-            // Count messages sent by user
-            long messageCount = messageRepository.countBySender(user);
-            long dmCount = directMessageRepository.countBySender(user);
+            long messageCount = messageCounts.getOrDefault(user.getId(), 0L);
+            long dmCount = dmCounts.getOrDefault(user.getId(), 0L);
             userMap.put("messageCount", messageCount + dmCount);
 
             return userMap;
@@ -68,11 +74,15 @@ public class AdminService {
         stats.put("totalChannels", channelRepository.count());
         stats.put("totalMessages", messageRepository.count());
         stats.put("totalDirectMessages", directMessageRepository.count());
-        stats.put("bannedUsers", userRepository.findAll().stream().filter(User::getIsBanned).count());
-        stats.put("adminUsers", userRepository.findAll().stream().filter(User::getIsAdmin).count());
+        stats.put("bannedUsers", userRepository.countByIsBannedTrue());
+        stats.put("adminUsers", userRepository.countByIsAdminTrue());
         return stats;
     }
 
+    private static Map<Long, Long> toMap(List<IdCount> counts) {
+        return counts.stream().collect(Collectors.toMap(IdCount::id, IdCount::count));
+    }
+
     /**
      * Ban a user
      */
@@ -0,0 +1,112 @@
+package com.buzzlink.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Multi-pattern matcher: finds every occurrence of any of a set of terms in
+ * one pass over the text, whatever the number of terms.
+ *
+ * Matching is case-insensitive and only reports terms that start and end on
+ * word boundaries, so "ass" does not match inside "class". Immutable after
+ * construction and safe to share between threads.
+ *
+ * @param <T> Value attached to each term
+ */
+public final class AhoCorasickMatcher<T> {
+
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final List<Integer> failure = new ArrayList<>();
+    // Terms ending at each state (including those reached through failure links)
+    private final List<List<Term<T>>> outputs = new ArrayList<>();
+
+    public AhoCorasickMatcher(Map<String, T> terms) {
+        newState();
+        terms.forEach((text, value) -> {
+            String normalized = text.strip();
+            if (!normalized.isEmpty()) {
+                add(new Term<>(normalized, value));
+            }
+        });
+        buildFailureLinks();
+    }
+
+    public boolean isEmpty() {
+        return transitions.get(0).isEmpty();
+    }
+
+    /**
+     * Values of all terms found in the text, in order of their end position
+     */
+    public List<T> findAll(String text) {
+        List<T> found = new ArrayList<>();
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            Integer next;
+            while ((next = transitions.get(state).get(c)) == null && state != 0) {
+                state = failure.get(state);
+            }
+            state = next != null ? next : 0;
+
+            for (Term<T> term : outputs.get(state)) {
+                int start = i - term.text().length() + 1;
+                if (isBoundary(text, start - 1) && isBoundary(text, i + 1)) {
+                    found.add(term.value());
+                }
+            }
+        }
+        return found;
+    }
+
+    private void add(Term<T> term) {
+        int state = 0;
+        for (char raw : term.text().toCharArray()) {
+            char c = Character.toLowerCase(raw);
+            Integer next = transitions.get(state).get(c);
+            if (next == null) {
+                next = newState();
+                transitions.get(state).put(c, next);
+            }
+            state = next;
+        }
+        outputs.get(state).add(term);
+    }
+
+    private void buildFailureLinks() {
+        Queue<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                int child = edge.getValue();
+                int fallback = failure.get(state);
+                while (fallback != 0 && !transitions.get(fallback).containsKey(edge.getKey())) {
+                    fallback = failure.get(fallback);
+                }
+                Integer target = transitions.get(fallback).get(edge.getKey());
+                int link = target != null && target != child ? target : 0;
+                failure.set(child, link);
+                outputs.get(child).addAll(outputs.get(link));
+                queue.add(child);
+            }
+        }
+    }
+
+    private int newState() {
+        transitions.add(new HashMap<>());
+        failure.add(0);
+        outputs.add(new ArrayList<>(0));
+        return transitions.size() - 1;
+    }
+
+    private static boolean isBoundary(String text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    private record Term<T>(String text, T value) {
+    }
+}
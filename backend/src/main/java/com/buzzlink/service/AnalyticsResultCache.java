@@ -0,0 +1,234 @@
+package com.buzzlink.service;
+
+import com.buzzlink.config.BoundedExecutorFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Shared results of the analytics endpoints, so concurrent dashboards cost one
+ * computation per freshness period rather than one per request.
+ *
+ * A result is fresh until the end of the fresh-ms bucket it was computed in
+ * (buckets are aligned to the clock, so every node refreshes at the same
+ * moments). Once stale, the stored result is still served for up to
+ * max-stale-ms while one background refresh runs; after that, callers wait
+ * for a recomputation. Concurrent recomputations of the same result are
+ * collapsed into one. Cached results are shared and must not be modified.
+ */
+@Component
+@Slf4j
+public class AnalyticsResultCache {
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final long defaultFreshMs;
+    private final long maxStaleMs;
+    private final int maxEntries;
+    private final ExecutorService refreshExecutor;
+
+    private final Map<CacheKey, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, EndpointPolicy> policies = new ConcurrentHashMap<>();
+
+    public AnalyticsResultCache(
+            Environment environment,
+            MeterRegistry meterRegistry,
+            BoundedExecutorFactory executorFactory,
+            @Value("${app.analytics.cache.fresh-ms:30000}") long defaultFreshMs,
+            @Value("${app.analytics.cache.max-stale-ms:300000}") long maxStaleMs,
+            @Value("${app.analytics.cache.max-entries:1000}") int maxEntries,
+            @Value("${app.analytics.cache.refresh-threads:2}") int refreshThreads) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.defaultFreshMs = Math.max(1, defaultFreshMs);
+        this.maxStaleMs = Math.max(0, maxStaleMs);
+        this.maxEntries = Math.max(1, maxEntries);
+        // A full queue makes the requesting thread refresh, so a refresh is never lost
+        this.refreshExecutor = executorFactory.create("analytics-refresh", refreshThreads, 100,
+                BoundedExecutorFactory.Overflow.CALLER_RUNS);
+
+        Gauge.builder("buzzlink.analytics.cache.entries", entries, Map::size)
+                .description("Cached analytics results")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cached result for an endpoint and its parameters, computing it if needed
+     *
+     * @param endpoint Endpoint name; sets the freshness (app.analytics.cache.endpoints.NAME.fresh-ms)
+     * @param key      Request parameters that change the result, or "" if none
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String endpoint, String key, Supplier<T> loader) {
+        EndpointPolicy policy = policyFor(endpoint);
+        CacheKey cacheKey = new CacheKey(endpoint, key);
+        Entry entry = entries.get(cacheKey);
+        if (entry == null) {
+            if (entries.size() >= maxEntries) {
+                // Too many distinct parameter sets; compute without caching
+                policy.requests("bypass").increment();
+                return policy.recompute.record(loader);
+            }
+            entry = entries.computeIfAbsent(cacheKey, k -> new Entry());
+        }
+
+        long now = System.currentTimeMillis();
+        Result result = entry.result;
+        if (result != null && now < result.expiresAt()) {
+            policy.requests("hit").increment();
+            policy.age.record(now - result.computedAt());
+            return (T) result.value();
+        }
+        if (result != null && now - result.expiresAt() < maxStaleMs) {
+            policy.requests("stale").increment();
+            policy.age.record(now - result.computedAt());
+            refreshInBackground(entry, policy, loader);
+            return (T) result.value();
+        }
+        policy.requests("miss").increment();
+        try {
+            return (T) load(entry, policy, loader, false).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drop results too stale to be served, so unused parameter sets do not accumulate
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.cache.purge-interval-ms:60000}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> {
+            Result result = e.getValue().result;
+            return result != null && now - result.expiresAt() >= maxStaleMs;
+        });
+    }
+
+    private void refreshInBackground(Entry entry, EndpointPolicy policy, Supplier<?> loader) {
+        load(entry, policy, loader, true).exceptionally(failure -> {
+            log.warn("Analytics refresh for {} failed, serving the previous result: {}",
+                    policy.endpoint, failure.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Join the entry's running computation, or start one
+     */
+    private CompletableFuture<Object> load(Entry entry, EndpointPolicy policy, Supplier<?> loader,
+            boolean background) {
+        CompletableFuture<Object> running;
+        synchronized (entry) {
+            if (entry.loading != null) {
+                return entry.loading;
+            }
+            running = new CompletableFuture<>();
+            entry.loading = running;
+        }
+        Runnable compute = () -> {
+            try {
+                Object value = policy.recompute.record(loader);
+                long computedAt = System.currentTimeMillis();
+                entry.result = new Result(value, computedAt, (computedAt / policy.freshMs + 1) * policy.freshMs);
+                complete(entry, running, value, null);
+            } catch (Throwable e) {
+                // Waiters must always be released, or the entry would never load again
+                complete(entry, running, null, e);
+            }
+        };
+        if (background) {
+            refreshExecutor.execute(compute);
+        } else {
+            compute.run();
+        }
+        return running;
+    }
+
+    private static void complete(Entry entry, CompletableFuture<Object> running, Object value, Throwable failure) {
+        synchronized (entry) {
+            entry.loading = null;
+        }
+        if (failure != null) {
+            running.completeExceptionally(failure);
+        } else {
+            running.complete(value);
+        }
+    }
+
+    private EndpointPolicy policyFor(String endpoint) {
+        return policies.computeIfAbsent(endpoint, name -> new EndpointPolicy(name,
+                environment.getProperty("app.analytics.cache.endpoints." + name + ".fresh-ms",
+                        Long.class, defaultFreshMs)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
+    private record CacheKey(String endpoint, String key) {
+    }
+
+    private record Result(Object value, long computedAt, long expiresAt) {
+    }
+
+    private static final class Entry {
+
+        private volatile Result result;
+        // Guarded by the entry
+        private CompletableFuture<Object> loading;
+    }
+
+    /**
+     * Freshness and meters of one endpoint
+     */
+    private final class EndpointPolicy {
+
+        private final String endpoint;
+        private final long freshMs;
+        private final Timer recompute;
+        private final DistributionSummary age;
+        private final Map<String, Counter> requests = new ConcurrentHashMap<>();
+
+        EndpointPolicy(String endpoint, long freshMs) {
+            this.endpoint = endpoint;
+            this.freshMs = Math.max(1, freshMs);
+            this.recompute = Timer.builder("buzzlink.analytics.cache.recompute")
+                    .description("Time to compute an analytics result")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+            this.age = DistributionSummary.builder("buzzlink.analytics.cache.age")
+                    .description("Age of cached analytics results when served")
+                    .baseUnit("milliseconds")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+        }
+
+        Counter requests(String result) {
+            return requests.computeIfAbsent(result, r -> Counter.builder("buzzlink.analytics.cache.requests")
+                    .description("Analytics requests by cache outcome")
+                    .tag("endpoint", endpoint)
+                    .tag("result", r)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.buzzlink.service;
 
-import com.buzzlink.entity.Message;
+import com.buzzlink.dto.ActivityBuckets;
+import com.buzzlink.dto.IdCount;
+import com.buzzlink.dto.NamedCount;
+import com.buzzlink.dto.TimeBucketCount;
+import com.buzzlink.entity.Channel;
+import com.buzzlink.entity.MessageRollup;
+import com.buzzlink.entity.TopKSlice;
 import com.buzzlink.entity.User;
 import com.buzzlink.entity.Workspace;
-import com.buzzlink.entity.Channel;
 import com.buzzlink.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -14,15 +20,20 @@ import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Dashboard analytics. Message figures come from the message rollups
+ * (see {@link MessageRollupService}), never from the messages table. All-time
+ * rankings are exact grouped queries over the daily rollups; hour, day and
+ * 30-day rankings come from the {@link TopKTracker} and report guaranteed
+ * (lower-bound) counts. Every endpoint's result is shared through the
+ * {@link AnalyticsResultCache}.
+ */
 @Service
 public class AnalyticsService {
 
     @Autowired
     private UserRepository userRepository;
 
-    @Autowired
-    private MessageRepository messageRepository;
-
     @Autowired
     private WorkspaceRepository workspaceRepository;
 
@@ -35,26 +46,37 @@ public class AnalyticsService {
     @Autowired
     private UserWorkspaceMemberRepository memberRepository;
 
+    @Autowired
+    private MessageRollupRepository rollupRepository;
+
+    @Autowired
+    private ActiveUserSketchService activeUserSketches;
+
+    @Autowired
+    private TopKTracker topK;
+
+    @Autowired
+    private AnalyticsResultCache resultCache;
+
     public Map<String, Object> getKPIs() {
+        return resultCache.get("kpis", "", this::computeKPIs);
+    }
+
+    private Map<String, Object> computeKPIs() {
         Map<String, Object> kpis = new HashMap<>();
 
         long totalUsers = userRepository.count();
-        long totalMessages = messageRepository.count();
+        long totalMessages = rollupRepository.sumMessages(MessageRollup.Granularity.DAY);
         long totalWorkspaces = workspaceRepository.count();
         long totalChannels = channelRepository.count();
         long totalReactions = reactionRepository.count();
         long totalMembers = memberRepository.count();
 
-        // Active users in last 30 days
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        List<Message> recentMessages = messageRepository.findAll().stream()
-                .filter(m -> m.getCreatedAt().isAfter(thirtyDaysAgo))
-                .collect(Collectors.toList());
-
-        long activeUsers = recentMessages.stream()
-                .map(m -> m.getSender().getId())
-                .distinct()
-                .count();
+        // Active users today, in the last 7 days and in the last 30 days
+        LocalDate today = LocalDate.now();
+        long dailyActiveUsers = activeUserSketches.countActiveUsers(null, today, today);
+        long weeklyActiveUsers = activeUserSketches.countActiveUsers(null, today.minusDays(6), today);
+        long activeUsers = activeUserSketches.countActiveUsers(null, today.minusDays(29), today);
 
         kpis.put("totalUsers", totalUsers);
         kpis.put("totalMessages", totalMessages);
@@ -63,33 +85,63 @@ public class AnalyticsService {
         kpis.put("totalReactions", totalReactions);
         kpis.put("totalMembers", totalMembers);
         kpis.put("activeUsers", activeUsers);
+        kpis.put("dailyActiveUsers", dailyActiveUsers);
+        kpis.put("weeklyActiveUsers", weeklyActiveUsers);
         kpis.put("engagementRate", totalUsers > 0 ? (int) ((activeUsers * 100.0) / totalUsers) : 0);
 
         return kpis;
     }
 
-    public Map<String, Object> getMessagesTimeline() {
-        List<Message> allMessages = messageRepository.findAll();
+    /**
+     * Estimated distinct senders over the last N days (today included)
+     *
+     * @param workspaceId Workspace, or null for all workspaces
+     */
+    public Map<String, Object> getActiveUsers(Long workspaceId, int days) {
+        return resultCache.get("active-users", workspaceId + ":" + days, () -> computeActiveUsers(workspaceId, days));
+    }
 
-        // Group messages by date
-        Map<LocalDate, Long> messagesByDate = allMessages.stream()
-                .collect(Collectors.groupingBy(
-                        m -> m.getCreatedAt().toLocalDate(),
-                        Collectors.counting()));
+    private Map<String, Object> computeActiveUsers(Long workspaceId, int days) {
+        LocalDate today = LocalDate.now();
+        Map<String, Object> result = new HashMap<>();
+        result.put("workspaceId", workspaceId);
+        result.put("days", days);
+        result.put("activeUsers", activeUserSketches.countActiveUsers(workspaceId, today.minusDays(days - 1L), today));
+        return result;
+    }
 
-        // Get last 90 days
-        List<LocalDate> last90Days = new ArrayList<>();
-        for (int i = 89; i >= 0; i--) {
-            last90Days.add(LocalDate.now().minusDays(i));
+    /**
+     * Messages per day for the last 90 days, or per hour for the last 48 hours
+     */
+    public Map<String, Object> getMessagesTimeline(MessageRollup.Granularity granularity) {
+        return resultCache.get("messages-timeline", granularity.name(), () -> computeMessagesTimeline(granularity));
+    }
+
+    private Map<String, Object> computeMessagesTimeline(MessageRollup.Granularity granularity) {
+        List<LocalDateTime> buckets = new ArrayList<>();
+        DateTimeFormatter formatter;
+        if (granularity == MessageRollup.Granularity.HOUR) {
+            LocalDateTime currentHour = granularity.bucketOf(LocalDateTime.now());
+            for (int i = 47; i >= 0; i--) {
+                buckets.add(currentHour.minusHours(i));
+            }
+            formatter = DateTimeFormatter.ofPattern("MMM dd HH:00");
+        } else {
+            for (int i = 89; i >= 0; i--) {
+                buckets.add(LocalDate.now().minusDays(i).atStartOfDay());
+            }
+            formatter = DateTimeFormatter.ofPattern("MMM dd");
         }
 
+        Map<LocalDateTime, Long> messagesByBucket = rollupRepository.sumByBucketSince(granularity, buckets.get(0))
+                .stream()
+                .collect(Collectors.toMap(TimeBucketCount::bucketStart, TimeBucketCount::count));
+
         List<String> labels = new ArrayList<>();
         List<Long> data = new ArrayList<>();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd");
-
-        for (LocalDate date : last90Days) {
-            labels.add(date.format(formatter));
-            data.add(messagesByDate.getOrDefault(date, 0L));
+        for (LocalDateTime bucket : buckets) {
+            labels.add(bucket.format(formatter));
+            data.add(messagesByBucket.getOrDefault(bucket, 0L));
         }
 
         Map<String, Object> result = new HashMap<>();
@@ -99,131 +151,85 @@ public class AnalyticsService {
         return result;
     }
 
-    public Map<String, Object> getTopWorkspaces() {
-        List<Workspace> workspaces = workspaceRepository.findAll();
-
-        // Count messages per workspace
-        Map<String, Long> workspaceMessageCounts = new HashMap<>();
+    public Map<String, Object> getTopWorkspaces(TopKSlice.Window window) {
+        return resultCache.get("top-workspaces", window.name(), () -> computeTopWorkspaces(window));
+    }
 
-        for (Workspace workspace : workspaces) {
-            long messageCount = channelRepository.findByWorkspace(workspace).stream()
-                    .mapToLong(channel -> messageRepository.countByChannel(channel))
-                    .sum();
-            workspaceMessageCounts.put(workspace.getName(), messageCount);
+    private Map<String, Object> computeTopWorkspaces(TopKSlice.Window window) {
+        if (window == TopKSlice.Window.ALL) {
+            return toChart(rollupRepository.topWorkspaces(MessageRollup.Granularity.DAY, PageRequest.of(0, 5)));
         }
+        List<IdCount> top = topK.top(TopKSlice.Dimension.WORKSPACE, window, 5);
+        Map<Long, String> names = workspaceRepository.findAllById(ids(top)).stream()
+                .collect(Collectors.toMap(Workspace::getId, Workspace::getName));
+        return toChart(named(top, names));
+    }
 
-        // Sort and get top 5
-        List<Map.Entry<String, Long>> sortedWorkspaces = workspaceMessageCounts.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(5)
-                .collect(Collectors.toList());
-
-        List<String> labels = sortedWorkspaces.stream()
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-
-        List<Long> data = sortedWorkspaces.stream()
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toList());
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("labels", labels);
-        result.put("data", data);
-
-        return result;
+    public Map<String, Object> getTopUsers(TopKSlice.Window window) {
+        return resultCache.get("top-users", window.name(), () -> computeTopUsers(window));
     }
 
-    public Map<String, Object> getTopUsers() {
-        List<User> users = userRepository.findAll();
+    private Map<String, Object> computeTopUsers(TopKSlice.Window window) {
+        if (window == TopKSlice.Window.ALL) {
+            return toChart(rollupRepository.topSenders(MessageRollup.Granularity.DAY, PageRequest.of(0, 10)));
+        }
+        List<IdCount> top = topK.top(TopKSlice.Dimension.USER, window, 10);
+        Map<Long, String> names = userRepository.findAllById(ids(top)).stream()
+                .collect(Collectors.toMap(User::getId, User::getDisplayName));
+        return toChart(named(top, names));
+    }
 
-        // Count messages per user
-        Map<String, Long> userMessageCounts = new HashMap<>();
+    public Map<String, Object> getMessagesByChannel(TopKSlice.Window window) {
+        return resultCache.get("messages-by-channel", window.name(), () -> computeMessagesByChannel(window));
+    }
 
-        for (User user : users) {
-            long messageCount = messageRepository.countBySender(user);
-            if (messageCount > 0) {
-                userMessageCounts.put(user.getDisplayName(), messageCount);
-            }
+    private Map<String, Object> computeMessagesByChannel(TopKSlice.Window window) {
+        if (window == TopKSlice.Window.ALL) {
+            return toChart(rollupRepository.topChannels(MessageRollup.Granularity.DAY, PageRequest.of(0, 10)));
         }
+        List<IdCount> top = topK.top(TopKSlice.Dimension.CHANNEL, window, 10);
+        Map<Long, String> names = channelRepository.findAllById(ids(top)).stream()
+                .collect(Collectors.toMap(Channel::getId, Channel::getName));
+        return toChart(named(top, names));
+    }
 
-        // Sort and get top 10
-        List<Map.Entry<String, Long>> sortedUsers = userMessageCounts.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(10)
-                .collect(Collectors.toList());
-
-        List<String> labels = sortedUsers.stream()
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+    public Map<String, Object> getUserActivityDistribution() {
+        return resultCache.get("user-activity-distribution", "", this::computeUserActivityDistribution);
+    }
 
-        List<Long> data = sortedUsers.stream()
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toList());
+    private Map<String, Object> computeUserActivityDistribution() {
+        // Categorize users by message count in one grouped query; users without
+        // messages have no rollup rows, so the low bucket is everyone else
+        ActivityBuckets buckets = rollupRepository.countSendersByActivity(MessageRollup.Granularity.DAY);
+        long mediumActivity = buckets.medium(); // 11-50 messages
+        long highActivity = buckets.high(); // 51+ messages
+        long lowActivity = Math.max(0, userRepository.count() - mediumActivity - highActivity); // 0-10 messages
 
         Map<String, Object> result = new HashMap<>();
-        result.put("labels", labels);
-        result.put("data", data);
+        result.put("labels", Arrays.asList("0-10 messages", "11-50 messages", "51+ messages"));
+        result.put("data", Arrays.asList(lowActivity, mediumActivity, highActivity));
 
         return result;
     }
 
-    public Map<String, Object> getMessagesByChannel() {
-        List<Channel> channels = channelRepository.findAll();
-
-        // Count messages per channel
-        Map<String, Long> channelMessageCounts = new HashMap<>();
-
-        for (Channel channel : channels) {
-            long messageCount = messageRepository.countByChannel(channel);
-            if (messageCount > 0) {
-                channelMessageCounts.put(channel.getName(), messageCount);
-            }
-        }
-
-        // Sort and get top 10
-        List<Map.Entry<String, Long>> sortedChannels = channelMessageCounts.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(10)
-                .collect(Collectors.toList());
-
-        List<String> labels = sortedChannels.stream()
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
+    private static List<Long> ids(List<IdCount> counts) {
+        return counts.stream().map(IdCount::id).collect(Collectors.toList());
+    }
 
-        List<Long> data = sortedChannels.stream()
-                .map(Map.Entry::getValue)
+    /**
+     * Attach names in ranking order, skipping IDs that no longer exist
+     */
+    private static List<NamedCount> named(List<IdCount> counts, Map<Long, String> names) {
+        return counts.stream()
+                .filter(count -> names.containsKey(count.id()))
+                .map(count -> new NamedCount(names.get(count.id()), count.count()))
                 .collect(Collectors.toList());
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("labels", labels);
-        result.put("data", data);
-
-        return result;
     }
 
-    public Map<String, Object> getUserActivityDistribution() {
-        List<User> users = userRepository.findAll();
-
-        // Categorize users by message count
-        int lowActivity = 0; // 0-10 messages
-        int mediumActivity = 0; // 11-50 messages
-        int highActivity = 0; // 51+ messages
-
-        for (User user : users) {
-            long messageCount = messageRepository.countBySender(user);
-            if (messageCount <= 10) {
-                lowActivity++;
-            } else if (messageCount <= 50) {
-                mediumActivity++;
-            } else {
-                highActivity++;
-            }
-        }
-
+    private static Map<String, Object> toChart(List<NamedCount> counts) {
         Map<String, Object> result = new HashMap<>();
-        result.put("labels", Arrays.asList("0-10 messages", "11-50 messages", "51+ messages"));
-        result.put("data", Arrays.asList(lowActivity, mediumActivity, highActivity));
-
+        result.put("labels", counts.stream().map(NamedCount::name).collect(Collectors.toList()));
+        result.put("data", counts.stream().map(NamedCount::count).collect(Collectors.toList()));
         return result;
     }
 }
@@ -0,0 +1,128 @@
+package com.buzzlink.service;
+
+import com.buzzlink.dto.ChannelActivityDTO;
+import com.buzzlink.dto.MessageHistoryRow;
+import com.buzzlink.entity.ChannelReadState;
+import com.buzzlink.entity.User;
+import com.buzzlink.repository.ChannelReadStateRepository;
+import com.buzzlink.repository.ChannelReadStateRepository.ChannelUnreadRow;
+import com.buzzlink.repository.ChannelRepository;
+import com.buzzlink.repository.MessageRepository;
+import com.buzzlink.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Per-user, per-channel read cursors, and the channel activity derived from them
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChannelReadStateService {
+
+    private final ChannelReadStateRepository readStateRepository;
+    private final MessageRepository messageRepository;
+    private final ChannelRepository channelRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * Mark a channel as read up to a message
+     *
+     * @param messageId Newest message seen, or null for the channel's latest message
+     */
+    @Transactional
+    public void markRead(String clerkId, Long channelId, Long messageId) {
+        User user = userRepository.findByClerkId(clerkId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        markRead(user.getId(), channelId, messageId);
+    }
+
+    /**
+     * Opt in to (or out of) a notification for every top-level message in a channel
+     */
+    @Transactional
+    public void setNotifyAll(String clerkId, Long channelId, boolean notifyAll) {
+        User user = userRepository.findByClerkId(clerkId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!channelRepository.existsById(channelId)) {
+            throw new RuntimeException("Channel not found");
+        }
+        if (readStateRepository.updateNotifyAll(user.getId(), channelId, notifyAll) == 0) {
+            // No cursor yet - unread activity keeps counting from the join time
+            ChannelReadState state = new ChannelReadState();
+            state.setUser(user);
+            state.setChannel(channelRepository.getReferenceById(channelId));
+            state.setNotifyAll(notifyAll);
+            readStateRepository.save(state);
+        }
+    }
+
+    /**
+     * Mark every channel with unread activity as read
+     */
+    @Transactional
+    public void markAllRead(String clerkId) {
+        User user = userRepository.findByClerkId(clerkId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        for (ChannelUnreadRow row : readStateRepository.findChannelActivity(user.getId())) {
+            markRead(user.getId(), row.getChannelId(), null);
+        }
+    }
+
+    /**
+     * Channels with unread messages, optionally limited to one workspace
+     * Unknown users have no activity
+     */
+    @Transactional(readOnly = true)
+    public List<ChannelActivityDTO> getChannelActivity(String clerkId, Long workspaceId) {
+        Long userId = userRepository.findByClerkId(clerkId).map(User::getId).orElse(null);
+        if (userId == null) {
+            return List.of();
+        }
+        List<ChannelUnreadRow> rows = workspaceId != null
+                ? readStateRepository.findChannelActivityInWorkspace(userId, workspaceId)
+                : readStateRepository.findChannelActivity(userId);
+        return rows.stream()
+                .map(row -> new ChannelActivityDTO(
+                        row.getChannelId(),
+                        row.getChannelName(),
+                        row.getWorkspaceId(),
+                        row.getUnreadCount(),
+                        row.getLastActivityAt()))
+                .collect(Collectors.toList());
+    }
+
+    private void markRead(Long userId, Long channelId, Long messageId) {
+        Long readMessageId = messageId;
+        LocalDateTime readAt;
+        if (messageId != null) {
+            readAt = messageRepository.findCreatedAtByIdAndChannelId(messageId, channelId)
+                    .orElseThrow(() -> new RuntimeException("Message not found"));
+        } else {
+            List<MessageHistoryRow> latest = messageRepository.findTopLevelHistoryRows(channelId, PageRequest.of(0, 1));
+            if (latest.isEmpty()) {
+                return; // Nothing to read yet
+            }
+            readMessageId = latest.get(0).id();
+            readAt = latest.get(0).createdAt();
+        }
+
+        if (readStateRepository.advance(userId, channelId, readMessageId, readAt) == 0
+                && !readStateRepository.existsByUserIdAndChannelId(userId, channelId)) {
+            ChannelReadState state = new ChannelReadState();
+            state.setUser(userRepository.getReferenceById(userId));
+            state.setChannel(channelRepository.getReferenceById(channelId));
+            state.setLastReadMessageId(readMessageId);
+            state.setLastReadAt(readAt);
+            readStateRepository.save(state);
+        }
+        log.debug("User {} read channel {} up to message {}", userId, channelId, readMessageId);
+    }
+}
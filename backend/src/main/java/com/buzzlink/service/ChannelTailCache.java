@@ -0,0 +1,300 @@
+package com.buzzlink.service;
+
+import com.buzzlink.cluster.ClusterEvent;
+import com.buzzlink.cluster.ClusterEventBus;
+import com.buzzlink.dto.MessageDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory cache of the most recent top-level messages per channel.
+ *
+ * Each channel keeps up to perChannel messages, newest first. Channels are
+ * evicted least-recently-used when the estimated size of all cached messages
+ * exceeds maxBytes. MessageService updates the cache write-through after its
+ * transactions commit. Every write is also published on the cluster bus, and
+ * other nodes drop their copy of that channel so their next read reloads it
+ * with the change. Cached DTOs are shared and must not be mutated.
+ */
+@Component
+@Slf4j
+public class ChannelTailCache {
+
+    // Rough per-message overhead: DTO, sender DTO, boxed fields, list and index entries
+    private static final int MESSAGE_OVERHEAD_BYTES = 320;
+    private static final int WRITE_STAMP_STRIPES = 1024;
+
+    private static final Comparator<MessageDTO> NEWEST_FIRST = Comparator
+            .comparing(MessageDTO::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(MessageDTO::getId)
+            .reversed();
+
+    private final ClusterEventBus clusterEventBus;
+    private final boolean enabled;
+    private final int perChannel;
+    private final long maxBytes;
+
+    // Access-ordered for LRU eviction; all access is synchronized on this cache
+    private final LinkedHashMap<Long, ChannelTail> tails = new LinkedHashMap<>(64, 0.75f, true);
+    // messageId -> channelId for cached messages, so updates by message ID find their channel
+    private final Map<Long, Long> messageChannels = new HashMap<>();
+    private long totalBytes;
+
+    // Bumped on every write; a DB load only populates the cache if its stripe did not change meanwhile
+    private final AtomicLongArray writeStamps = new AtomicLongArray(WRITE_STAMP_STRIPES);
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ChannelTailCache(
+            MeterRegistry meterRegistry,
+            ClusterEventBus clusterEventBus,
+            @Value("${app.messages.tail-cache.enabled:true}") boolean enabled,
+            @Value("${app.messages.tail-cache.per-channel:200}") int perChannel,
+            @Value("${app.messages.tail-cache.max-bytes:67108864}") long maxBytes) {
+        this.clusterEventBus = clusterEventBus;
+        this.enabled = enabled;
+        this.perChannel = Math.max(1, perChannel);
+        this.maxBytes = maxBytes;
+
+        this.hits = Counter.builder("buzzlink.messages.tail.cache.requests")
+                .tag("result", "hit")
+                .description("Channel history requests served from the tail cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("buzzlink.messages.tail.cache.requests")
+                .tag("result", "miss")
+                .description("Channel history requests that went to the database")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("buzzlink.messages.tail.cache.evictions")
+                .description("Channels evicted from the tail cache")
+                .register(meterRegistry);
+        Gauge.builder("buzzlink.messages.tail.cache.bytes", this, ChannelTailCache::estimatedBytes)
+                .description("Estimated size of cached messages")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("buzzlink.messages.tail.cache.channels", this, ChannelTailCache::channelCount)
+                .description("Channels currently cached")
+                .register(meterRegistry);
+
+        clusterEventBus.subscribe(ClusterEvent.CHANNEL_TAIL_CHANGED, event -> {
+            if (event.channelId() != null) {
+                drop(event.channelId());
+            }
+        });
+    }
+
+    /**
+     * Number of messages a channel entry holds; loads for the cache fetch this many
+     */
+    public int getPerChannel() {
+        return perChannel;
+    }
+
+    /**
+     * Newest messages of a channel, if the cache can answer for this limit
+     */
+    public synchronized Optional<List<MessageDTO>> get(Long channelId, int limit) {
+        ChannelTail tail = enabled ? tails.get(channelId) : null;
+        if (tail == null || (limit > tail.messages.size() && !tail.complete)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(new ArrayList<>(tail.messages.subList(0, Math.min(limit, tail.messages.size()))));
+    }
+
+    /**
+     * Read before loading a channel from the database; pass to {@link #populate}
+     */
+    public long writeStamp(Long channelId) {
+        return writeStamps.get(stripe(channelId));
+    }
+
+    /**
+     * Cache a freshly loaded channel tail, unless a write raced with the load
+     *
+     * @param newestFirst Messages as loaded, newest first
+     * @param complete    True if the channel has no older top-level messages
+     * @param stamp       Value of {@link #writeStamp} taken before the load
+     */
+    public synchronized void populate(Long channelId, List<MessageDTO> newestFirst, boolean complete, long stamp) {
+        if (!enabled || tails.containsKey(channelId) || writeStamps.get(stripe(channelId)) != stamp) {
+            return;
+        }
+
+        ChannelTail tail = new ChannelTail();
+        tail.complete = complete || newestFirst.size() < perChannel;
+        for (MessageDTO message : newestFirst.subList(0, Math.min(perChannel, newestFirst.size()))) {
+            tail.messages.add(message);
+            track(channelId, message);
+        }
+        tails.put(channelId, tail);
+        evictIfNeeded();
+    }
+
+    /**
+     * Write-through for a newly created top-level message. Idempotent.
+     */
+    public void messageAdded(MessageDTO message) {
+        addLocally(message);
+        publish(message.getChannelId());
+    }
+
+    private synchronized void addLocally(MessageDTO message) {
+        writeStamps.incrementAndGet(stripe(message.getChannelId()));
+        ChannelTail tail = tails.get(message.getChannelId());
+        if (tail == null || messageChannels.containsKey(message.getId())) {
+            return;
+        }
+
+        // Usually the newest, but buffered writes can land slightly out of order
+        ListIterator<MessageDTO> it = tail.messages.listIterator();
+        while (it.hasNext()) {
+            if (NEWEST_FIRST.compare(message, it.next()) < 0) {
+                it.previous();
+                break;
+            }
+        }
+        if (!it.hasNext() && !tail.complete) {
+            return; // older than everything cached - the database is authoritative there
+        }
+        it.add(message);
+        track(message.getChannelId(), message);
+
+        if (tail.messages.size() > perChannel) {
+            untrack(tail.messages.remove(tail.messages.size() - 1));
+            tail.complete = false;
+        }
+        evictIfNeeded();
+    }
+
+    /**
+     * Write-through for a new reply: bump the cached parent's reply count
+     */
+    public void replyAdded(Long channelId, Long parentMessageId) {
+        synchronized (this) {
+            replace(parentMessageId, parent -> copy(parent, parent.getReactionCount(), parent.getReplyCount() + 1));
+        }
+        publish(channelId);
+    }
+
+    /**
+     * Write-through for a reaction toggle
+     */
+    public void reactionCountChanged(Long channelId, Long messageId, long reactionCount) {
+        synchronized (this) {
+            replace(messageId, message -> copy(message, reactionCount, message.getReplyCount()));
+        }
+        publish(channelId);
+    }
+
+    /**
+     * Drop a channel on every node, e.g. after a message was deleted
+     */
+    public void invalidate(Long channelId) {
+        drop(channelId);
+        publish(channelId);
+    }
+
+    private synchronized void drop(Long channelId) {
+        writeStamps.incrementAndGet(stripe(channelId));
+        ChannelTail tail = tails.remove(channelId);
+        if (tail != null) {
+            tail.messages.forEach(this::untrack);
+        }
+    }
+
+    private void publish(Long channelId) {
+        if (enabled && channelId != null) {
+            clusterEventBus.publish(ClusterEvent.CHANNEL_TAIL_CHANGED, channelId, null, null);
+        }
+    }
+
+    private void replace(Long messageId, UnaryOperator<MessageDTO> update) {
+        Long channelId = messageChannels.get(messageId);
+        ChannelTail tail = channelId != null ? tails.get(channelId) : null;
+        if (tail == null) {
+            return;
+        }
+        ListIterator<MessageDTO> it = tail.messages.listIterator();
+        while (it.hasNext()) {
+            MessageDTO current = it.next();
+            if (current.getId().equals(messageId)) {
+                it.set(update.apply(current));
+                return;
+            }
+        }
+    }
+
+    private void track(Long channelId, MessageDTO message) {
+        totalBytes += estimateBytes(message);
+        messageChannels.put(message.getId(), channelId);
+    }
+
+    private void untrack(MessageDTO message) {
+        totalBytes -= estimateBytes(message);
+        messageChannels.remove(message.getId());
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Long, ChannelTail>> it = tails.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            ChannelTail eldest = it.next().getValue();
+            it.remove();
+            eldest.messages.forEach(this::untrack);
+            evictions.increment();
+        }
+    }
+
+    private synchronized double estimatedBytes() {
+        return totalBytes;
+    }
+
+    private synchronized double channelCount() {
+        return tails.size();
+    }
+
+    private static long estimateBytes(MessageDTO message) {
+        String content = message.getContent();
+        return MESSAGE_OVERHEAD_BYTES + (content != null ? 2L * content.length() : 0L);
+    }
+
+    private static int stripe(Long channelId) {
+        return Math.floorMod(channelId.hashCode(), WRITE_STAMP_STRIPES);
+    }
+
+    private static MessageDTO copy(MessageDTO message, Long reactionCount, Integer replyCount) {
+        return new MessageDTO(
+                message.getId(),
+                message.getChannelId(),
+                message.getSender(),
+                message.getContent(),
+                message.getType(),
+                message.getCreatedAt(),
+                reactionCount,
+                message.getParentMessageId(),
+                replyCount);
+    }
+
+    private static class ChannelTail {
+        private final List<MessageDTO> messages = new ArrayList<>();
+        private boolean complete;
+    }
+}
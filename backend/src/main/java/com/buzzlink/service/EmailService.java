@@ -1,9 +1,11 @@
 package com.buzzlink.service;
 
+import com.buzzlink.config.AsyncConfig;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 /**
@@ -23,8 +25,9 @@ public class EmailService {
     private String frontendUrl;
 
     /**
-     * Send workspace invitation email
+     * Send workspace invitation email (asynchronously, on the email pool)
      */
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendWorkspaceInvitation(
         String toEmail,
         String workspaceName,
@@ -0,0 +1,146 @@
+package com.buzzlink.service;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * HyperLogLog sketch for counting distinct IDs in bounded memory.
+ *
+ * Small sets are kept exactly (as 64-bit hashes) and counted exactly; past
+ * {@link #EXACT_LIMIT} entries the sketch switches to 4096 registers
+ * (precision 12, about 1.6% standard error). Sketches merge by union, so a
+ * window's count is the estimate of its merged daily sketches. Not thread-safe.
+ */
+public final class HyperLogLog {
+
+    static final int PRECISION = 12;
+    static final int REGISTERS = 1 << PRECISION;
+    static final int EXACT_LIMIT = 256;
+
+    private static final byte FORMAT_EXACT = 0;
+    private static final byte FORMAT_DENSE = 1;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private Set<Long> exact = new HashSet<>();
+    private byte[] registers;
+
+    public void add(long value) {
+        addHash(hash(value));
+    }
+
+    /**
+     * Union another sketch into this one
+     */
+    public void merge(HyperLogLog other) {
+        if (other.registers == null) {
+            other.exact.forEach(this::addHash);
+            return;
+        }
+        toDense();
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Number of distinct values added; exact while the sketch is small
+     */
+    public long estimate() {
+        if (registers == null) {
+            return exact.size();
+        }
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            // Linear counting is more accurate for small cardinalities
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Serialized form: a format byte, then either the hash count and hashes or the registers
+     */
+    public byte[] toBytes() {
+        if (registers == null) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 + Integer.BYTES + exact.size() * Long.BYTES);
+            buffer.put(FORMAT_EXACT).putInt(exact.size());
+            exact.forEach(buffer::putLong);
+            return buffer.array();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 + REGISTERS);
+        buffer.put(FORMAT_DENSE).put(registers);
+        return buffer.array();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        HyperLogLog sketch = new HyperLogLog();
+        if (bytes == null || bytes.length == 0) {
+            return sketch;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte format = buffer.get();
+        if (format == FORMAT_EXACT) {
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                sketch.exact.add(buffer.getLong());
+            }
+        } else if (format == FORMAT_DENSE) {
+            sketch.exact = null;
+            sketch.registers = new byte[REGISTERS];
+            buffer.get(sketch.registers);
+        } else {
+            throw new IllegalArgumentException("Unknown sketch format " + format);
+        }
+        return sketch;
+    }
+
+    private void addHash(long hash) {
+        if (registers == null) {
+            exact.add(hash);
+            if (exact.size() > EXACT_LIMIT) {
+                toDense();
+            }
+            return;
+        }
+        int index = (int) (hash >>> (64 - PRECISION));
+        long remaining = hash << PRECISION;
+        int rank = remaining == 0 ? 64 - PRECISION + 1 : Long.numberOfLeadingZeros(remaining) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    private void toDense() {
+        if (registers != null) {
+            return;
+        }
+        Set<Long> hashes = exact;
+        exact = null;
+        registers = new byte[REGISTERS];
+        hashes.forEach(this::addHash);
+    }
+
+    /**
+     * 64-bit finalizer from MurmurHash3; spreads sequential IDs over all bits
+     */
+    static long hash(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,42 @@
+package com.buzzlink.service;
+
+import com.buzzlink.entity.Message;
+import com.buzzlink.entity.Notification;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aligns the pooled ID sequences with the rows already in their tables.
+ *
+ * Message and notification IDs used to come from IDENTITY columns, and
+ * {@code ddl-auto=update} creates their sequences starting at 1, so on an
+ * existing database the first insert would reuse a taken ID. This runs while
+ * the context starts, before the web server accepts requests.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PooledIdAllocator idAllocator;
+
+    @PostConstruct
+    public void alignSequences() {
+        align(Message.ID_SEQUENCE, Message.ID_ALLOCATION_SIZE, "messages");
+        align(Notification.ID_SEQUENCE, Notification.ID_ALLOCATION_SIZE, "notifications");
+    }
+
+    private void align(String sequenceName, int allocationSize, String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        if (idAllocator.alignPast(sequenceName, allocationSize, maxId)) {
+            log.info("Restarted {} past existing {} IDs (max {})", sequenceName, table, maxId);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.buzzlink.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Presence store for a single node.
+ *
+ * Sessions keep a reverse index of the channels they joined, so a disconnect
+ * touches only those channels. Channels count sessions per user. Writes are
+ * serialized on the store; reads and heartbeats do not lock.
+ */
+@Component
+@ConditionalOnProperty(name = "app.presence.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryPresenceStore implements PresenceStore {
+
+    // sessionId -> session state, including the channels it joined
+    private final Map<String, SessionPresence> sessions = new ConcurrentHashMap<>();
+    // channelId -> clerkId -> number of that user's sessions in the channel
+    private final Map<Long, Map<String, Integer>> channelUsers = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<PresenceChange> join(String sessionId, String clerkId, Long channelId) {
+        return join(sessionId, clerkId, channelId, null);
+    }
+
+    /**
+     * Join with a liveness clock shared by several sessions; touching the clock
+     * keeps all of them alive. Used for sessions owned by another node.
+     */
+    synchronized Optional<PresenceChange> join(String sessionId, String clerkId, Long channelId,
+            AtomicLong sharedLastSeen) {
+        SessionPresence session = sessions.computeIfAbsent(sessionId, id -> new SessionPresence(clerkId,
+                sharedLastSeen != null ? sharedLastSeen : new AtomicLong()));
+        if (sharedLastSeen == null) {
+            session.lastSeen.set(System.currentTimeMillis());
+        }
+        if (!session.channels.add(channelId)) {
+            return Optional.empty();
+        }
+        Integer count = channelUsers.computeIfAbsent(channelId, id -> new ConcurrentHashMap<>())
+                .merge(session.clerkId, 1, Integer::sum);
+        return count == 1 ? Optional.of(PresenceChange.joined(channelId, session.clerkId)) : Optional.empty();
+    }
+
+    @Override
+    public synchronized Optional<PresenceChange> leave(String sessionId, Long channelId) {
+        SessionPresence session = sessions.get(sessionId);
+        if (session == null || !session.channels.remove(channelId)) {
+            return Optional.empty();
+        }
+        return decrement(channelId, session.clerkId)
+                ? Optional.of(PresenceChange.left(channelId, session.clerkId))
+                : Optional.empty();
+    }
+
+    @Override
+    public synchronized List<PresenceChange> removeSession(String sessionId) {
+        SessionPresence session = sessions.remove(sessionId);
+        if (session == null) {
+            return Collections.emptyList();
+        }
+        List<PresenceChange> changes = new ArrayList<>();
+        for (Long channelId : session.channels) {
+            if (decrement(channelId, session.clerkId)) {
+                changes.add(PresenceChange.left(channelId, session.clerkId));
+            }
+        }
+        return changes;
+    }
+
+    @Override
+    public void touch(String sessionId) {
+        SessionPresence session = sessions.get(sessionId);
+        if (session != null) {
+            session.lastSeen.set(System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public List<PresenceChange> expireIdle(Duration ttl) {
+        List<PresenceChange> changes = new ArrayList<>();
+        for (String sessionId : idleSessions(ttl)) {
+            changes.addAll(removeSession(sessionId));
+        }
+        return changes;
+    }
+
+    /**
+     * Sessions silent for longer than ttl
+     */
+    List<String> idleSessions(Duration ttl) {
+        long cutoff = System.currentTimeMillis() - ttl.toMillis();
+        List<String> idle = new ArrayList<>();
+        sessions.forEach((sessionId, session) -> {
+            if (session.lastSeen.get() < cutoff) {
+                idle.add(sessionId);
+            }
+        });
+        return idle;
+    }
+
+    /**
+     * Channels a session has joined
+     */
+    synchronized Set<Long> channelsOf(String sessionId) {
+        SessionPresence session = sessions.get(sessionId);
+        return session != null ? new HashSet<>(session.channels) : Collections.emptySet();
+    }
+
+    /**
+     * User owning a session, or null if unknown
+     */
+    String clerkIdOf(String sessionId) {
+        SessionPresence session = sessions.get(sessionId);
+        return session != null ? session.clerkId : null;
+    }
+
+    Set<String> sessionIds() {
+        return new HashSet<>(sessions.keySet());
+    }
+
+    @Override
+    public Set<Long> getActiveChannels() {
+        return new HashSet<>(channelUsers.keySet());
+    }
+
+    @Override
+    public Set<String> getOnlineUsers(Long channelId) {
+        return new HashSet<>(channelUsers.getOrDefault(channelId, Collections.emptyMap()).keySet());
+    }
+
+    @Override
+    public int getOnlineCount(Long channelId) {
+        return channelUsers.getOrDefault(channelId, Collections.emptyMap()).size();
+    }
+
+    /**
+     * @return true if that was the user's last session in the channel
+     */
+    private boolean decrement(Long channelId, String clerkId) {
+        Map<String, Integer> users = channelUsers.get(channelId);
+        if (users == null) {
+            return false;
+        }
+        Integer remaining = users.computeIfPresent(clerkId, (id, count) -> count > 1 ? count - 1 : null);
+        if (users.isEmpty()) {
+            channelUsers.remove(channelId);
+        }
+        return remaining == null;
+    }
+
+    private static final class SessionPresence {
+        private final String clerkId;
+        private final Set<Long> channels = new HashSet<>();
+        private final AtomicLong lastSeen;
+
+        private SessionPresence(String clerkId, AtomicLong lastSeen) {
+            this.clerkId = clerkId;
+            this.lastSeen = lastSeen;
+        }
+    }
+}
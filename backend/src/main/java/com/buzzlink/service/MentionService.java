@@ -0,0 +1,134 @@
+package com.buzzlink.service;
+
+import com.buzzlink.dto.MentionCandidate;
+import com.buzzlink.dto.MessageDTO;
+import com.buzzlink.dto.NotificationRecipient;
+import com.buzzlink.dto.UserDTO;
+import com.buzzlink.entity.Notification;
+import com.buzzlink.repository.ChannelReadStateRepository;
+import com.buzzlink.service.NotificationFanoutService.FanoutRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Targeted notifications for channel messages.
+ *
+ * Recipients are only the users a message mentions ({@code @displayName},
+ * {@code @here} for members currently in the channel, {@code @channel} for the
+ * whole workspace) plus members who opted in to every message of the channel.
+ * Everyone else sees the message as channel activity via their read cursor.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MentionService {
+
+    private static final String HERE = "here";
+    private static final String CHANNEL = "channel";
+
+    private final WorkspaceMemberDirectory memberDirectory;
+    private final PresenceService presenceService;
+    private final ChannelReadStateRepository readStateRepository;
+    private final NotificationFanoutService fanoutService;
+
+    /**
+     * Write and push notifications for a newly posted message
+     */
+    public void notifyRecipients(MessageDTO message, Long workspaceId) {
+        UserDTO sender = message.getSender();
+        Mentions mentions = parse(workspaceId, message.getContent());
+
+        if (mentions.channel()) {
+            fanoutService.fanOutToWorkspace(request(Notification.NotificationType.MENTION,
+                    sender, sender.getDisplayName() + " mentioned @channel", message, workspaceId));
+            return;
+        }
+
+        Map<Long, NotificationRecipient> mentioned = new LinkedHashMap<>();
+        mentions.users().forEach(member -> mentioned.put(member.userId(), member.toRecipient()));
+        if (mentions.here()) {
+            for (String clerkId : presenceService.getOnlineUsers(message.getChannelId())) {
+                memberDirectory.findByClerkId(workspaceId, clerkId)
+                        .ifPresent(member -> mentioned.putIfAbsent(member.userId(), member.toRecipient()));
+            }
+        }
+        mentioned.remove(sender.getId());
+        fanoutService.fanOut(request(Notification.NotificationType.MENTION,
+                sender, sender.getDisplayName() + " mentioned you", message, workspaceId),
+                new ArrayList<>(mentioned.values()));
+
+        // Opted-in members hear about every top-level message
+        if (message.getParentMessageId() == null) {
+            List<NotificationRecipient> subscribers = readStateRepository
+                    .findNotifyAllRecipients(message.getChannelId(), sender.getId()).stream()
+                    .filter(recipient -> !mentioned.containsKey(recipient.userId()))
+                    .toList();
+            fanoutService.fanOut(request(Notification.NotificationType.CHANNEL_MESSAGE,
+                    sender, sender.getDisplayName() + " posted in a channel", message, workspaceId), subscribers);
+        }
+    }
+
+    /**
+     * Find the mentions in a message. A token only counts at the start of the
+     * text or after a non-word character, so email addresses are not mentions.
+     */
+    public Mentions parse(Long workspaceId, String content) {
+        Map<Long, MentionCandidate> users = new LinkedHashMap<>();
+        boolean here = false;
+        boolean channel = false;
+        if (content == null) {
+            return new Mentions(List.of(), false, false);
+        }
+
+        int at = content.indexOf('@');
+        while (at >= 0) {
+            int start = at + 1;
+            int next = start;
+            if (at == 0 || !Character.isLetterOrDigit(content.charAt(at - 1))) {
+                if (matchesKeyword(content, start, HERE)) {
+                    here = true;
+                    next = start + HERE.length();
+                } else if (matchesKeyword(content, start, CHANNEL)) {
+                    channel = true;
+                    next = start + CHANNEL.length();
+                } else {
+                    Optional<WorkspaceMemberDirectory.Match> match = memberDirectory.longestMatch(workspaceId, content, start);
+                    if (match.isPresent()) {
+                        match.get().members().forEach(member -> users.putIfAbsent(member.userId(), member));
+                        next = start + match.get().length();
+                    }
+                }
+            }
+            at = content.indexOf('@', next);
+        }
+        return new Mentions(new ArrayList<>(users.values()), here, channel);
+    }
+
+    private static boolean matchesKeyword(String content, int start, String keyword) {
+        int end = start + keyword.length();
+        return content.regionMatches(true, start, keyword, 0, keyword.length())
+                && (end >= content.length() || !Character.isLetterOrDigit(content.charAt(end)));
+    }
+
+    private static FanoutRequest request(Notification.NotificationType type, UserDTO sender, String text,
+            MessageDTO message, Long workspaceId) {
+        return new FanoutRequest(type, sender, text, message.getChannelId(), message.getId(), workspaceId);
+    }
+
+    /**
+     * Mentions found in a message
+     *
+     * @param users   Members mentioned by name
+     * @param here    True if the message mentions @here
+     * @param channel True if the message mentions @channel
+     */
+    public record Mentions(List<MentionCandidate> users, boolean here, boolean channel) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.buzzlink.service;
+
+import com.buzzlink.config.BoundedExecutorFactory;
+import com.buzzlink.dto.MessageDTO;
+import com.buzzlink.entity.Message;
+import com.buzzlink.repository.ChannelRepository;
+import com.buzzlink.repository.MessageRepository;
+import com.buzzlink.websocket.dto.ChatMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Staged ingest pipeline for channel messages sent over WebSocket.
+ *
+ * Stages: persist -> broadcast -> moderation -> notification fan-out.
+ * Each stage has its own bounded queue so the STOMP inbound thread only
+ * enqueues work, and a slow stage cannot hold up the broadcast of messages
+ * in other channels. Persist and notification stages push back on the
+ * producer when full (a full persist stripe blocks the producer, so the
+ * channel's order holds); moderation is best effort and sheds load by default.
+ */
+@Service
+@Slf4j
+public class MessageIngestPipeline {
+
+    // Fallback when a channel's workspace cannot be resolved
+    private static final Long DEFAULT_WORKSPACE_ID = 1L;
+
+    private final MessageService messageService;
+    private final ModerationService moderationService;
+    private final NotificationService notificationService;
+    private final MentionService mentionService;
+    private final MessageRepository messageRepository;
+    private final ChannelRepository channelRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    // Persist stage is striped by channel so messages within a channel keep their order
+    private final ThreadPoolExecutor[] persistStages;
+    private final ThreadPoolExecutor moderationStage;
+    private final ThreadPoolExecutor notificationStage;
+
+    public MessageIngestPipeline(
+            MessageService messageService,
+            ModerationService moderationService,
+            NotificationService notificationService,
+            MentionService mentionService,
+            MessageRepository messageRepository,
+            ChannelRepository channelRepository,
+            SimpMessagingTemplate messagingTemplate,
+            BoundedExecutorFactory executorFactory,
+            @Value("${app.ingest.persist-stripes:4}") int persistStripes,
+            @Value("${app.ingest.moderation-threads:2}") int moderationThreads,
+            @Value("${app.ingest.notification-threads:2}") int notificationThreads,
+            @Value("${app.ingest.queue-capacity:1000}") int queueCapacity,
+            @Value("${app.ingest.moderation-overflow:discard}") String moderationOverflow,
+            @Value("${app.ingest.notification-overflow:caller_runs}") String notificationOverflow) {
+        this.messageService = messageService;
+        this.moderationService = moderationService;
+        this.notificationService = notificationService;
+        this.mentionService = mentionService;
+        this.messageRepository = messageRepository;
+        this.channelRepository = channelRepository;
+        this.messagingTemplate = messagingTemplate;
+
+        this.persistStages = new ThreadPoolExecutor[Math.max(1, persistStripes)];
+        for (int i = 0; i < persistStages.length; i++) {
+            // Blocking rather than caller-runs: a message persisted on the caller would overtake its queued channel
+            persistStages[i] = executorFactory.create("ingest-persist-" + i, 1, queueCapacity,
+                    BoundedExecutorFactory.Overflow.BLOCK);
+        }
+        this.moderationStage = executorFactory.create("ingest-moderation", moderationThreads, queueCapacity,
+                BoundedExecutorFactory.Overflow.valueOf(moderationOverflow.toUpperCase(Locale.ROOT)));
+        this.notificationStage = executorFactory.create("ingest-notification", notificationThreads, queueCapacity,
+                BoundedExecutorFactory.Overflow.valueOf(notificationOverflow.toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * Enqueue a channel message for ingestion and return immediately
+     */
+    public void submit(Long channelId, String clerkId, String content, Message.MessageType type,
+            Long parentMessageId) {
+        persistStageFor(channelId).execute(
+                () -> persistAndBroadcast(channelId, clerkId, content, type, parentMessageId));
+    }
+
+    /**
+     * Persist stage: save the message, then once its row exists broadcast it
+     * and hand off to the moderation and notification stages. A write-behind
+     * message is broadcast after its flush, so clients never see a message
+     * whose row was dropped.
+     */
+    private void persistAndBroadcast(Long channelId, String clerkId, String content, Message.MessageType type,
+            Long parentMessageId) {
+        MessageDTO savedMessage;
+        try {
+            savedMessage = messageService.createMessage(channelId, clerkId, content, type, parentMessageId);
+        } catch (Exception e) {
+            log.error("Error persisting message from {}: {}", clerkId, e.getMessage(), e);
+            return;
+        }
+
+        Long workspaceId = resolveWorkspaceId(channelId);
+
+        // Completes in flush order, so messages of a channel are still broadcast in order
+        messageService.whenPersisted(savedMessage.getId())
+                .thenRun(() -> {
+                    broadcast(savedMessage);
+                    moderationStage.execute(() -> moderate(savedMessage, workspaceId));
+                    notificationStage.execute(() -> notify(savedMessage, workspaceId));
+                })
+                .exceptionally(e -> {
+                    log.error("Message {} was not persisted, not broadcasting it", savedMessage.getId());
+                    return null;
+                });
+    }
+
+    /**
+     * Broadcast stage: push the saved message to all subscribers of its channel
+     */
+    private void broadcast(MessageDTO savedMessage) {
+        ChatMessage chatMessage = new ChatMessage(
+                savedMessage.getId(),
+                savedMessage.getChannelId(),
+                savedMessage.getSender(),
+                savedMessage.getContent(),
+                savedMessage.getType(),
+                savedMessage.getCreatedAt(),
+                savedMessage.getReactionCount(),
+                savedMessage.getParentMessageId(),
+                savedMessage.getReplyCount());
+
+        messagingTemplate.convertAndSend("/topic/channel." + savedMessage.getChannelId(), chatMessage);
+    }
+
+    /**
+     * Moderation stage: run AI moderation on the saved message
+     */
+    private void moderate(MessageDTO savedMessage, Long workspaceId) {
+        try {
+            moderationService.analyzeMessage(savedMessage.getId(), savedMessage.getContent(), workspaceId);
+        } catch (Exception e) {
+            log.warn("Failed to run moderation: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Notification stage: notify the parent author for replies, then mentioned
+     * and opted-in users. Everyone else sees the message via their read cursor.
+     */
+    private void notify(MessageDTO savedMessage, Long workspaceId) {
+        try {
+            if (savedMessage.getParentMessageId() != null) {
+                messageRepository.findSenderClerkIdById(savedMessage.getParentMessageId())
+                        .ifPresent(parentAuthor ->
+                                notificationService.createThreadReplyNotification(savedMessage, parentAuthor));
+            }
+            mentionService.notifyRecipients(savedMessage, workspaceId);
+        } catch (Exception e) {
+            log.warn("Failed to create notification: {}", e.getMessage());
+        }
+    }
+
+    private Long resolveWorkspaceId(Long channelId) {
+        try {
+            return channelRepository.findWorkspaceIdById(channelId).orElse(DEFAULT_WORKSPACE_ID);
+        } catch (Exception e) {
+            log.warn("Failed to resolve workspace for channel {}: {}", channelId, e.getMessage());
+            return DEFAULT_WORKSPACE_ID;
+        }
+    }
+
+    private ThreadPoolExecutor persistStageFor(Long channelId) {
+        return persistStages[Math.floorMod(channelId.hashCode(), persistStages.length)];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Drain upstream stages first so their hand-offs still find a running executor
+        for (ThreadPoolExecutor stage : persistStages) {
+            awaitStage(stage);
+        }
+        awaitStage(moderationStage);
+        awaitStage(notificationStage);
+    }
+
+    private void awaitStage(ThreadPoolExecutor stage) {
+        stage.shutdown();
+        try {
+            if (!stage.awaitTermination(10, TimeUnit.SECONDS)) {
+                stage.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            stage.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
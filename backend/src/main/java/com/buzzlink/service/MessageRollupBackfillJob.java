@@ -0,0 +1,183 @@
+package com.buzzlink.service;
+
+import com.buzzlink.entity.MessageRollup;
+import com.buzzlink.entity.RollupCheckpoint;
+import com.buzzlink.repository.MessageRollupRepository;
+import com.buzzlink.repository.RollupCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds messages written before live rollup updates started into the rollups,
+ * and prunes HOUR rows past their retention.
+ *
+ * The backfill walks the messages table by ID in batches. Each batch adds its
+ * counts and advances the checkpoint in one transaction, with the checkpoint
+ * row locked, so a restart resumes after the last committed batch and two
+ * nodes never count the same batch.
+ */
+@Component
+@Slf4j
+public class MessageRollupBackfillJob {
+
+    static final String CHECKPOINT_NAME = "message_rollups";
+
+    private static final String LOCK_CHECKPOINT_SQL =
+            "SELECT last_message_id FROM rollup_checkpoints WHERE name = ? FOR UPDATE";
+
+    private static final String BATCH_SQL =
+            "SELECT m.id, m.channel_id, m.sender_id, m.created_at, c.workspace_id " +
+            "FROM messages m JOIN channels c ON c.id = m.channel_id " +
+            "WHERE m.id > ? AND m.created_at < ? ORDER BY m.id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MessageRollupService rollupService;
+    private final MessageRollupRepository rollupRepository;
+    private final RollupCheckpointRepository checkpointRepository;
+    private final int batchSize;
+    private final long batchPauseMs;
+    private final int maxBatchesPerRun;
+
+    private final Counter backfilled;
+
+    public MessageRollupBackfillJob(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MessageRollupService rollupService,
+            MessageRollupRepository rollupRepository,
+            RollupCheckpointRepository checkpointRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.analytics.rollup.backfill.batch-size:5000}") int batchSize,
+            @Value("${app.analytics.rollup.backfill.batch-pause-ms:50}") long batchPauseMs,
+            @Value("${app.analytics.rollup.backfill.max-batches-per-run:200}") int maxBatchesPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rollupService = rollupService;
+        this.rollupRepository = rollupRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPauseMs = batchPauseMs;
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+
+        this.backfilled = Counter.builder("buzzlink.analytics.rollup.backfilled")
+                .description("Messages folded into rollups by the backfill")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.analytics.rollup.backfill.initial-delay-ms:30000}",
+            fixedDelayString = "${app.analytics.rollup.backfill.interval-ms:60000}")
+    public void run() {
+        if (!rollupService.isEnabled()) {
+            return;
+        }
+        try {
+            backfill();
+            pruneHourly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Rollup backfill failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * True once every message older than the live cutoff has been counted
+     */
+    public boolean isComplete() {
+        return checkpointRepository.findById(CHECKPOINT_NAME)
+                .map(checkpoint -> checkpoint.getCompletedAt() != null)
+                .orElse(false);
+    }
+
+    void backfill() throws InterruptedException {
+        RollupCheckpoint checkpoint = loadOrCreateCheckpoint();
+        if (checkpoint.getCompletedAt() != null) {
+            return;
+        }
+        Timestamp cutoff = Timestamp.valueOf(checkpoint.getCutoff());
+        LocalDateTime hourlyHorizon = rollupService.hourlyHorizon();
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer counted = transactionTemplate.execute(status -> foldBatch(cutoff, hourlyHorizon));
+            if (counted == null || counted < batchSize) {
+                if (counted != null) {
+                    backfilled.increment(counted);
+                }
+                markComplete();
+                log.info("Rollup backfill complete");
+                return;
+            }
+            backfilled.increment(counted);
+            Thread.sleep(batchPauseMs);
+        }
+    }
+
+    /**
+     * Count one batch of messages after the checkpoint and advance it
+     *
+     * @return Number of messages in the batch
+     */
+    private int foldBatch(Timestamp cutoff, LocalDateTime hourlyHorizon) {
+        Long checkpointId = jdbcTemplate.queryForObject(LOCK_CHECKPOINT_SQL, Long.class, CHECKPOINT_NAME);
+        long afterId = checkpointId != null ? checkpointId : 0L;
+        Map<MessageRollupService.RollupKey, Long> deltas = new HashMap<>();
+        long[] lastId = {afterId};
+
+        List<Integer> rows = jdbcTemplate.query(BATCH_SQL, (rs, rowNum) -> {
+            LocalDateTime createdAt = rs.getTimestamp("created_at").toLocalDateTime();
+            for (MessageRollupService.RollupKey key : MessageRollupService.RollupKey.keysFor(
+                    rs.getLong("workspace_id"), rs.getLong("channel_id"), rs.getLong("sender_id"),
+                    createdAt, hourlyHorizon)) {
+                deltas.merge(key, 1L, Long::sum);
+            }
+            lastId[0] = rs.getLong("id");
+            return rowNum;
+        }, afterId, cutoff, batchSize);
+
+        rollupService.apply(deltas);
+        jdbcTemplate.update("UPDATE rollup_checkpoints SET last_message_id = ? WHERE name = ?",
+                lastId[0], CHECKPOINT_NAME);
+        return rows.size();
+    }
+
+    private RollupCheckpoint loadOrCreateCheckpoint() {
+        return checkpointRepository.findById(CHECKPOINT_NAME).orElseGet(() -> {
+            try {
+                return checkpointRepository.save(
+                        new RollupCheckpoint(CHECKPOINT_NAME, rollupService.getLiveSince(), 0L, null));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created it first
+                return checkpointRepository.findById(CHECKPOINT_NAME).orElseThrow();
+            }
+        });
+    }
+
+    private void markComplete() {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE rollup_checkpoints SET completed_at = ? WHERE name = ?",
+                Timestamp.valueOf(LocalDateTime.now()), CHECKPOINT_NAME));
+    }
+
+    private void pruneHourly() {
+        Integer removed = transactionTemplate.execute(status ->
+                rollupRepository.deleteOlderThan(MessageRollup.Granularity.HOUR, rollupService.hourlyHorizon()));
+        if (removed != null && removed > 0) {
+            log.debug("Pruned {} hourly rollup rows", removed);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.buzzlink.service;
+
+import com.buzzlink.entity.MessageRollup;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the message rollups current as messages are written and deleted.
+ *
+ * Each message adds one to its channel/sender row for its hour and its day,
+ * its sender to the day's {@link ActiveUserSketchService active-user sketches},
+ * and its sender, channel and workspace to the {@link TopKTracker top-K rankings}.
+ * Deltas are summed in memory and written every flush interval with one
+ * batched UPDATE plus INSERTs for new rows, so a busy channel costs one row
+ * update per flush rather than one per message. Deltas not yet flushed are
+ * lost if the process dies; the analytics they feed tolerate that.
+ */
+@Component
+@Slf4j
+public class MessageRollupService {
+
+    private static final String UPDATE_SQL =
+            "UPDATE message_rollups SET message_count = message_count + ? " +
+            "WHERE granularity = ? AND bucket_start = ? AND channel_id = ? AND sender_id = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO message_rollups (granularity, bucket_start, workspace_id, channel_id, sender_id, message_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ActiveUserSketchService activeUserSketches;
+    private final TopKTracker topK;
+    private final boolean enabled;
+    private final int hourlyRetentionDays;
+
+    // When this node started recording; older messages are left to the backfill
+    private final LocalDateTime liveSince = LocalDateTime.now();
+    private final Map<RollupKey, Long> pending = new ConcurrentHashMap<>();
+
+    private final Counter flushedRows;
+
+    public MessageRollupService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ActiveUserSketchService activeUserSketches,
+            TopKTracker topK,
+            MeterRegistry meterRegistry,
+            @Value("${app.analytics.rollup.enabled:true}") boolean enabled,
+            @Value("${app.analytics.rollup.hourly-retention-days:14}") int hourlyRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.activeUserSketches = activeUserSketches;
+        this.topK = topK;
+        this.enabled = enabled;
+        this.hourlyRetentionDays = hourlyRetentionDays;
+
+        this.flushedRows = Counter.builder("buzzlink.analytics.rollup.flushed")
+                .description("Rollup rows updated or inserted by the live flush")
+                .register(meterRegistry);
+        Gauge.builder("buzzlink.analytics.rollup.pending", pending, Map::size)
+                .description("Rollup rows with unflushed deltas")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public LocalDateTime getLiveSince() {
+        return liveSince;
+    }
+
+    /**
+     * Oldest hour that still has HOUR rows
+     */
+    public LocalDateTime hourlyHorizon() {
+        return MessageRollup.Granularity.DAY.bucketOf(LocalDateTime.now().minusDays(hourlyRetentionDays));
+    }
+
+    /**
+     * Count a message that was written (+1) or deleted (-1)
+     */
+    public void record(Long workspaceId, Long channelId, Long senderId, LocalDateTime createdAt, long delta) {
+        if (!enabled || workspaceId == null || channelId == null || senderId == null || createdAt == null) {
+            return;
+        }
+        for (RollupKey key : RollupKey.keysFor(workspaceId, channelId, senderId, createdAt, hourlyHorizon())) {
+            pending.merge(key, delta, Long::sum);
+        }
+        if (delta > 0) {
+            activeUserSketches.record(workspaceId, senderId, createdAt);
+            topK.record(workspaceId, channelId, senderId, createdAt);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.rollup.flush-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<RollupKey, Long> deltas = new HashMap<>();
+        for (RollupKey key : pending.keySet()) {
+            // remove() is atomic, so a concurrent record() either lands in this flush or starts a new entry
+            Long delta = pending.remove(key);
+            if (delta != null && delta != 0) {
+                deltas.put(key, delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            applyInTransaction(deltas);
+        } catch (DataIntegrityViolationException e) {
+            // Another node inserted one of the new rows first; its row exists now, so retry as updates
+            try {
+                applyInTransaction(deltas);
+            } catch (Exception retryFailure) {
+                requeue(deltas, retryFailure);
+            }
+        } catch (Exception e) {
+            requeue(deltas, e);
+        }
+    }
+
+    /**
+     * Add deltas to their rollup rows, creating missing rows. Must run inside a transaction.
+     */
+    public void apply(Map<RollupKey, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<RollupKey, Long>> entries = new ArrayList<>(deltas.entrySet());
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, entries, entries.size(), (ps, entry) -> {
+            RollupKey key = entry.getKey();
+            ps.setLong(1, entry.getValue());
+            ps.setString(2, key.granularity().name());
+            ps.setTimestamp(3, Timestamp.valueOf(key.bucketStart()));
+            ps.setLong(4, key.channelId());
+            ps.setLong(5, key.senderId());
+        })[0];
+
+        List<Map.Entry<RollupKey, Long>> missing = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (updated[i] == 0) {
+                missing.add(entries.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, missing, missing.size(), (ps, entry) -> {
+                RollupKey key = entry.getKey();
+                ps.setString(1, key.granularity().name());
+                ps.setTimestamp(2, Timestamp.valueOf(key.bucketStart()));
+                ps.setLong(3, key.workspaceId());
+                ps.setLong(4, key.channelId());
+                ps.setLong(5, key.senderId());
+                ps.setLong(6, entry.getValue());
+            });
+        }
+    }
+
+    private void applyInTransaction(Map<RollupKey, Long> deltas) {
+        transactionTemplate.executeWithoutResult(status -> apply(deltas));
+        flushedRows.increment(deltas.size());
+    }
+
+    private void requeue(Map<RollupKey, Long> deltas, Exception failure) {
+        deltas.forEach((key, delta) -> pending.merge(key, delta, Long::sum));
+        log.warn("Rollup flush failed, {} rows kept for the next flush: {}", deltas.size(), failure.getMessage());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Identifies one rollup row
+     */
+    public record RollupKey(MessageRollup.Granularity granularity, LocalDateTime bucketStart,
+            long workspaceId, long channelId, long senderId) {
+
+        /**
+         * The DAY key for a message, plus its HOUR key unless the hour is older than the horizon
+         */
+        public static List<RollupKey> keysFor(long workspaceId, long channelId, long senderId,
+                LocalDateTime createdAt, LocalDateTime hourlyHorizon) {
+            List<RollupKey> keys = new ArrayList<>(2);
+            keys.add(new RollupKey(MessageRollup.Granularity.DAY,
+                    MessageRollup.Granularity.DAY.bucketOf(createdAt), workspaceId, channelId, senderId));
+            if (!createdAt.isBefore(hourlyHorizon)) {
+                keys.add(new RollupKey(MessageRollup.Granularity.HOUR,
+                        MessageRollup.Granularity.HOUR.bucketOf(createdAt), workspaceId, channelId, senderId));
+            }
+            return keys;
+        }
+    }
+}
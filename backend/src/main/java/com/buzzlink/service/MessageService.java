@@ -1,6 +1,9 @@
 package com.buzzlink.service;
 
 import com.buzzlink.dto.MessageDTO;
+import com.buzzlink.dto.MessageHistoryRow;
+import com.buzzlink.dto.PageCursor;
+import com.buzzlink.dto.UserDTO;
 import com.buzzlink.entity.Channel;
 import com.buzzlink.entity.Message;
 import com.buzzlink.entity.User;
@@ -13,7 +16,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -28,30 +35,68 @@ public class MessageService {
     private final UserRepository userRepository;
     private final ReactionRepository reactionRepository;
     private final NotificationService notificationService;
+    private final MessageWriteBehindBuffer writeBehindBuffer;
+    private final PooledIdAllocator idAllocator;
+    private final ChannelTailCache tailCache;
+    private final MessageRollupService rollupService;
 
     /**
      * Get recent messages for a channel
+     * Served from the channel tail cache when possible; not transactional so
+     * cache hits never take a database connection
      * 
      * @param channelId Channel ID
      * @param limit     Maximum number of messages to return
      * @return List of messages with sender info and reaction counts
      */
-    @Transactional(readOnly = true)
     public List<MessageDTO> getRecentMessages(Long channelId, int limit) {
-        Channel channel = channelRepository.findById(channelId)
-                .orElseThrow(() -> new RuntimeException("Channel not found"));
+        Optional<List<MessageDTO>> cached = tailCache.get(channelId, limit);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        // Load a full cache entry's worth so the next reader hits
+        boolean cacheable = limit <= tailCache.getPerChannel();
+        int fetchSize = cacheable ? tailCache.getPerChannel() : limit;
+        long stamp = tailCache.writeStamp(channelId);
+
+        List<MessageHistoryRow> rows = messageRepository.findTopLevelHistoryRows(
+                channelId,
+                PageRequest.of(0, fetchSize));
+
+        // Only check the channel when there is nothing to show
+        if (rows.isEmpty() && !channelRepository.existsById(channelId)) {
+            throw new RuntimeException("Channel not found");
+        }
+
+        List<MessageDTO> messages = toDTOs(rows);
+        if (cacheable) {
+            tailCache.populate(channelId, messages, rows.size() < fetchSize, stamp);
+        }
+        return messages.size() > limit ? new ArrayList<>(messages.subList(0, limit)) : messages;
+    }
 
-        List<Message> messages = messageRepository.findTopLevelMessagesByChannel(
-                channel,
+    /**
+     * Get the page of messages older than a cursor (keyset pagination)
+     *
+     * @param channelId Channel ID
+     * @param before    Cursor of the last message on the previous page
+     * @param limit     Maximum number of messages to return
+     * @return Messages older than the cursor, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<MessageDTO> getMessagesBefore(Long channelId, PageCursor before, int limit) {
+        List<MessageHistoryRow> rows = messageRepository.findTopLevelHistoryRowsBefore(
+                channelId,
+                before.createdAt(),
+                before.id(),
                 PageRequest.of(0, limit));
 
-        // Reverse to get chronological order (oldest first)
-        return messages.stream()
-                .map(msg -> {
-                    long reactionCount = reactionRepository.countByMessage(msg);
-                    return MessageDTO.fromEntity(msg, reactionCount);
-                })
-                .collect(Collectors.toList());
+        if (rows.isEmpty() && !channelRepository.existsById(channelId)) {
+            throw new RuntimeException("Channel not found");
+        }
+
+        return toDTOs(rows);
     }
 
     /**
@@ -88,6 +133,11 @@ public class MessageService {
         User sender = userRepository.findByClerkId(clerkId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        // Top-level messages can be buffered; replies also update the parent so stay synchronous
+        if (writeBehindBuffer.isEnabled() && parentMessageId == null) {
+            return bufferMessage(channel, sender, content, type);
+        }
+
         Message message = new Message();
         message.setChannel(channel);
         message.setSender(sender);
@@ -110,7 +160,57 @@ public class MessageService {
         // Publish notification event (stub - would go to Kafka in production)
         notificationService.publishMessageNotification(savedMessage);
 
-        return MessageDTO.fromEntity(savedMessage, 0L);
+        MessageDTO savedDTO = MessageDTO.fromEntity(savedMessage, 0L);
+        Long workspaceId = channel.getWorkspace().getId();
+        TransactionCallbacks.afterCommit(() ->
+                rollupService.record(workspaceId, channelId, sender.getId(), savedMessage.getCreatedAt(), 1));
+        if (parentMessageId != null) {
+            TransactionCallbacks.afterCommit(() -> tailCache.replyAdded(channelId, parentMessageId));
+        } else {
+            TransactionCallbacks.afterCommit(() -> tailCache.messageAdded(savedDTO));
+        }
+        return savedDTO;
+    }
+
+    /**
+     * Assign an ID now and hand the row to the write-behind buffer for a batched insert
+     */
+    private MessageDTO bufferMessage(Channel channel, User sender, String content, Message.MessageType type) {
+        long id = idAllocator.nextId(Message.ID_SEQUENCE, Message.ID_ALLOCATION_SIZE);
+        LocalDateTime createdAt = LocalDateTime.now();
+
+        writeBehindBuffer.enqueue(new MessageWriteBehindBuffer.PendingMessage(
+                id, channel.getId(), sender.getId(), content, type, createdAt));
+
+        MessageDTO bufferedDTO = new MessageDTO(
+                id,
+                channel.getId(),
+                UserDTO.fromEntity(sender),
+                content,
+                type.name(),
+                createdAt,
+                0L,
+                null,
+                0);
+
+        // Cached only once the row exists; a row that fails to insert is dropped and
+        // never shown, so the cache must not serve it
+        Long workspaceId = channel.getWorkspace().getId();
+        writeBehindBuffer.whenFlushed(id).thenRun(() -> {
+            tailCache.messageAdded(bufferedDTO);
+            rollupService.record(workspaceId, channel.getId(), sender.getId(), createdAt, 1);
+        });
+        return bufferedDTO;
+    }
+
+    /**
+     * Completes once the message row exists in the database. Only differs from
+     * an already-completed future when the message is still write-behind buffered.
+     *
+     * @param messageId Message ID returned by createMessage
+     */
+    public CompletableFuture<Void> whenPersisted(Long messageId) {
+        return writeBehindBuffer.whenFlushed(messageId);
     }
 
     /**
@@ -131,7 +231,13 @@ public class MessageService {
         Message message = messageRepository.findById(messageId)
                 .orElseThrow(() -> new RuntimeException("Message not found"));
 
+        Long channelId = message.getChannel().getId();
+        Long workspaceId = message.getChannel().getWorkspace().getId();
+        Long senderId = message.getSender().getId();
+        LocalDateTime createdAt = message.getCreatedAt();
         messageRepository.delete(message);
+        TransactionCallbacks.afterCommit(() -> tailCache.invalidate(channelId));
+        TransactionCallbacks.afterCommit(() -> rollupService.record(workspaceId, channelId, senderId, createdAt, -1));
     }
 
     /**
@@ -143,28 +249,30 @@ public class MessageService {
      */
     @Transactional
     public long toggleReaction(Long messageId, String clerkId) {
-        Message message = messageRepository.findById(messageId)
-                .orElseThrow(() -> new RuntimeException("Message not found"));
-
         User user = userRepository.findByClerkId(clerkId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Check if user already reacted
-        var existingReaction = reactionRepository.findByMessageAndUser(message, user);
-
-        if (existingReaction.isPresent()) {
-            // Remove reaction (toggle off)
-            reactionRepository.delete(existingReaction.get());
+        if (reactionRepository.deleteByMessageIdAndUserId(messageId, user.getId()) > 0) {
+            // Removed an existing reaction (toggle off)
+            messageRepository.decrementReactionCount(messageId);
         } else {
-            // Add reaction (toggle on)
+            // Add reaction (toggle on) - the increment doubles as the existence check
+            if (messageRepository.incrementReactionCount(messageId) == 0) {
+                throw new RuntimeException("Message not found");
+            }
+
+            // A concurrent duplicate fails the unique constraint and rolls back the increment too
             var reaction = new com.buzzlink.entity.Reaction();
-            reaction.setMessage(message);
+            reaction.setMessage(messageRepository.getReferenceById(messageId));
             reaction.setUser(user);
             reaction.setType(com.buzzlink.entity.Reaction.ReactionType.THUMBS_UP);
             reactionRepository.save(reaction);
         }
 
-        return reactionRepository.countByMessage(message);
+        long reactionCount = messageRepository.findReactionCountById(messageId).orElse(0L);
+        Long channelId = messageRepository.findChannelIdById(messageId).orElse(null);
+        TransactionCallbacks.afterCommit(() -> tailCache.reactionCountChanged(channelId, messageId, reactionCount));
+        return reactionCount;
     }
 
     /**
@@ -175,16 +283,18 @@ public class MessageService {
      */
     @Transactional(readOnly = true)
     public List<MessageDTO> getThreadReplies(Long messageId) {
-        Message parentMessage = messageRepository.findById(messageId)
-                .orElseThrow(() -> new RuntimeException("Message not found"));
+        List<MessageHistoryRow> rows = messageRepository.findReplyHistoryRows(messageId);
 
-        List<Message> replies = messageRepository.findByParentMessageOrderByCreatedAtAsc(parentMessage);
+        if (rows.isEmpty() && !messageRepository.existsById(messageId)) {
+            throw new RuntimeException("Message not found");
+        }
+
+        return toDTOs(rows);
+    }
 
-        return replies.stream()
-                .map(msg -> {
-                    long reactionCount = reactionRepository.countByMessage(msg);
-                    return MessageDTO.fromEntity(msg, reactionCount);
-                })
+    private List<MessageDTO> toDTOs(List<MessageHistoryRow> rows) {
+        return rows.stream()
+                .map(MessageHistoryRow::toDTO)
                 .collect(Collectors.toList());
     }
 }
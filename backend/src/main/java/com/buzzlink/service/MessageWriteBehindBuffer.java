@@ -0,0 +1,193 @@
+package com.buzzlink.service;
+
+import com.buzzlink.entity.Message;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind buffer for channel messages.
+ *
+ * Messages get their ID up front from {@link PooledIdAllocator} and are then
+ * written in micro-batches with a single JDBC batch insert, flushed when the
+ * batch is full or when the flush interval elapses, whichever comes first.
+ * Callers publish a message (broadcast, tail cache) only once
+ * {@link #whenFlushed} completes; a row that cannot be inserted completes it
+ * exceptionally and is never shown. Disabled by default; see
+ * {@code app.messages.write-behind.*}.
+ */
+@Component
+@Slf4j
+public class MessageWriteBehindBuffer {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO messages (id, channel_id, sender_id, content, type, reply_count, reaction_count, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, 0, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxPending;
+
+    private final ConcurrentLinkedQueue<PendingMessage> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Map<Long, CompletableFuture<Void>> flushFutures = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flusher;
+
+    public MessageWriteBehindBuffer(
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.messages.write-behind.enabled:false}") boolean enabled,
+            @Value("${app.messages.write-behind.batch-size:50}") int batchSize,
+            @Value("${app.messages.write-behind.flush-interval-ms:20}") long flushIntervalMs,
+            @Value("${app.messages.write-behind.max-pending:10000}") int maxPending) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxPending = Math.max(this.batchSize, maxPending);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "message-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a message for the next batch insert
+     */
+    public void enqueue(PendingMessage message) {
+        flushFutures.put(message.id(), new CompletableFuture<>());
+        pending.add(message);
+        int count = pendingCount.incrementAndGet();
+
+        if (count >= maxPending) {
+            // Flusher is falling behind - make the producer help out
+            flushSafely();
+        } else if (count >= batchSize) {
+            flusher.execute(this::flushSafely);
+        }
+    }
+
+    /**
+     * Completes once the message row has been inserted. Messages that are not
+     * buffered (or already flushed) complete immediately.
+     */
+    public CompletableFuture<Void> whenFlushed(Long messageId) {
+        CompletableFuture<Void> future = flushFutures.get(messageId);
+        return future != null ? future : CompletableFuture.completedFuture(null);
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Write-behind flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Drain the buffer in batches of at most batchSize
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<PendingMessage> batch = new ArrayList<>(batchSize);
+            PendingMessage next;
+            while ((next = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                batch.add(next);
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingMessage> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, message) -> {
+                ps.setLong(1, message.id());
+                ps.setLong(2, message.channelId());
+                ps.setLong(3, message.senderId());
+                ps.setString(4, message.content());
+                ps.setString(5, message.type().name());
+                ps.setTimestamp(6, Timestamp.valueOf(message.createdAt()));
+            });
+            batch.forEach(message -> complete(message, null));
+            log.debug("Flushed {} buffered messages", batch.size());
+        } catch (Exception batchEx) {
+            // One bad row fails the whole batch - retry row by row so the rest still land
+            log.warn("Batch insert of {} messages failed, retrying individually: {}", batch.size(), batchEx.getMessage());
+            for (PendingMessage message : batch) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL,
+                            message.id(),
+                            message.channelId(),
+                            message.senderId(),
+                            message.content(),
+                            message.type().name(),
+                            Timestamp.valueOf(message.createdAt()));
+                    complete(message, null);
+                } catch (Exception rowEx) {
+                    log.error("Dropping buffered message {}: {}", message.id(), rowEx.getMessage());
+                    complete(message, rowEx);
+                }
+            }
+        }
+    }
+
+    private void complete(PendingMessage message, Exception failure) {
+        CompletableFuture<Void> future = flushFutures.remove(message.id());
+        if (future == null) {
+            return;
+        }
+        if (failure == null) {
+            future.complete(null);
+        } else {
+            future.completeExceptionally(failure);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushSafely();
+    }
+
+    /**
+     * A message waiting to be inserted
+     */
+    public record PendingMessage(long id, long channelId, long senderId, String content,
+            Message.MessageType type, LocalDateTime createdAt) {
+    }
+}
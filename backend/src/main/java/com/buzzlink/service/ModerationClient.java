@@ -0,0 +1,309 @@
+package com.buzzlink.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HTTP client for the moderation API (OpenAI-compatible array input).
+ *
+ * Calls are rate limited with a token bucket, retried with exponential
+ * backoff on timeouts, 429 and 5xx (honouring Retry-After), and guarded by a
+ * circuit breaker that stops calling for a while after repeated failures.
+ * The endpoint is configurable (openai.moderation.url) so a local stub server
+ * can stand in for the real API.
+ */
+@Component
+@Slf4j
+public class ModerationClient {
+
+    public static final String DEFAULT_URL = "https://api.openai.com/v1/moderations";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final URI url;
+    private final String apiKey;
+    private final Duration requestTimeout;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+    private final TokenBucket rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+
+    private final Timer callLatency;
+    private final Counter rateLimitWaits;
+
+    public ModerationClient(
+            MeterRegistry meterRegistry,
+            @Value("${openai.moderation.url:" + DEFAULT_URL + "}") String url,
+            @Value("${openai.api.key:}") String apiKey,
+            @Value("${openai.moderation.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${openai.moderation.request-timeout-ms:5000}") long requestTimeoutMs,
+            @Value("${openai.moderation.max-retries:2}") int maxRetries,
+            @Value("${openai.moderation.retry-backoff-ms:250}") long retryBackoffMs,
+            @Value("${openai.moderation.rate-limit-per-second:10}") double rateLimitPerSecond,
+            @Value("${openai.moderation.rate-limit-burst:20}") int rateLimitBurst,
+            @Value("${openai.moderation.circuit-failure-threshold:5}") int circuitFailureThreshold,
+            @Value("${openai.moderation.circuit-open-ms:30000}") long circuitOpenMs) {
+        this.url = URI.create(url);
+        this.apiKey = apiKey;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBackoffMs = retryBackoffMs;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.rateLimiter = new TokenBucket(rateLimitPerSecond, rateLimitBurst);
+        this.circuitBreaker = new CircuitBreaker(circuitFailureThreshold, circuitOpenMs);
+
+        this.callLatency = Timer.builder("buzzlink.moderation.remote.latency")
+                .description("Moderation API calls, including retries")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rateLimitWaits = Counter.builder("buzzlink.moderation.remote.rate.limited")
+                .description("Moderation calls that waited for the rate limiter")
+                .register(meterRegistry);
+        Gauge.builder("buzzlink.moderation.circuit.open", circuitBreaker, breaker -> breaker.isOpen() ? 1 : 0)
+                .description("1 while the moderation circuit breaker is open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * False if the real API is configured without a key (a stub URL needs none)
+     */
+    public boolean isConfigured() {
+        return !DEFAULT_URL.equals(url.toString()) || (apiKey != null && !apiKey.isBlank());
+    }
+
+    /**
+     * False while the circuit breaker is open
+     */
+    public boolean isAvailable() {
+        return circuitBreaker.wouldAllow();
+    }
+
+    /**
+     * Moderate several inputs with one request
+     *
+     * @return One verdict per input, in order
+     * @throws ModerationUnavailableException if the circuit is open or all attempts failed
+     */
+    public List<ModerationVerdict> classify(List<String> inputs) {
+        if (!circuitBreaker.allowRequest()) {
+            throw new ModerationUnavailableException("Moderation circuit is open");
+        }
+        try {
+            List<ModerationVerdict> verdicts = callLatency.recordCallable(() -> callWithRetries(inputs));
+            circuitBreaker.recordSuccess();
+            return verdicts;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModerationUnavailableException("Interrupted", e);
+        } catch (Exception e) {
+            circuitBreaker.recordFailure();
+            throw e instanceof ModerationUnavailableException unavailable
+                    ? unavailable
+                    : new ModerationUnavailableException(e.getMessage(), e);
+        }
+    }
+
+    private List<ModerationVerdict> callWithRetries(List<String> inputs) throws Exception {
+        String requestBody = objectMapper.writeValueAsString(Map.of("input", inputs));
+        for (int attempt = 0; ; attempt++) {
+            if (rateLimiter.acquire()) {
+                rateLimitWaits.increment();
+            }
+
+            long retryAfterMs = -1;
+            try {
+                HttpResponse<String> response = httpClient.send(buildRequest(requestBody),
+                        HttpResponse.BodyHandlers.ofString());
+                int status = response.statusCode();
+                if (status == 200) {
+                    return parse(response.body(), inputs.size());
+                }
+                if (status != 429 && status < 500) {
+                    throw new ModerationUnavailableException(
+                            "Moderation API returned status " + status + ": " + response.body());
+                }
+                if (attempt >= maxRetries) {
+                    throw new ModerationUnavailableException("Moderation API returned status " + status);
+                }
+                retryAfterMs = response.headers().firstValue("Retry-After")
+                        .map(ModerationClient::parseRetryAfterMs)
+                        .orElse(-1L);
+            } catch (IOException e) {
+                // Includes timeouts
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+            }
+
+            long backoff = retryAfterMs >= 0 ? retryAfterMs : retryBackoffMs << attempt;
+            log.debug("Retrying moderation call in {} ms (attempt {})", backoff, attempt + 1);
+            Thread.sleep(backoff);
+        }
+    }
+
+    private HttpRequest buildRequest(String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(url)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (apiKey != null && !apiKey.isBlank()) {
+            builder.header("Authorization", "Bearer " + apiKey);
+        }
+        return builder.build();
+    }
+
+    private List<ModerationVerdict> parse(String body, int expected) throws IOException {
+        JsonNode results = objectMapper.readTree(body).path("results");
+        if (!results.isArray() || results.size() != expected) {
+            throw new ModerationUnavailableException(
+                    "Expected " + expected + " moderation results, got " + results.size());
+        }
+        List<ModerationVerdict> verdicts = new ArrayList<>(expected);
+        results.forEach(result -> verdicts.add(ModerationVerdict.fromResult(result)));
+        return verdicts;
+    }
+
+    private static long parseRetryAfterMs(String value) {
+        try {
+            return Math.min(Long.parseLong(value.trim()) * 1000, 30_000);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Moderation could not be performed right now; the message goes unmoderated
+     */
+    public static class ModerationUnavailableException extends RuntimeException {
+
+        public ModerationUnavailableException(String message) {
+            super(message);
+        }
+
+        public ModerationUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Token bucket refilled continuously at a fixed rate
+     */
+    static final class TokenBucket {
+
+        private final double permitsPerMs;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(double permitsPerSecond, int burst) {
+            this.permitsPerMs = Math.max(permitsPerSecond, 0.001) / 1000.0;
+            this.capacity = Math.max(1, burst);
+            this.tokens = capacity;
+        }
+
+        /**
+         * Take a token, sleeping until one is available
+         *
+         * @return true if the caller had to wait
+         */
+        boolean acquire() throws InterruptedException {
+            boolean waited = false;
+            while (true) {
+                long waitMs;
+                synchronized (this) {
+                    refill();
+                    if (tokens >= 1) {
+                        tokens -= 1;
+                        return waited;
+                    }
+                    waitMs = (long) Math.ceil((1 - tokens) / permitsPerMs);
+                }
+                waited = true;
+                Thread.sleep(Math.max(1, waitMs));
+            }
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) / 1_000_000.0 * permitsPerMs);
+            lastRefill = now;
+        }
+    }
+
+    /**
+     * Opens after a run of consecutive failures; after the open period one
+     * trial call is let through (half-open) and its outcome closes or reopens it
+     */
+    static final class CircuitBreaker {
+
+        private final int failureThreshold;
+        private final long openMs;
+        private int consecutiveFailures;
+        private long openedAt = -1;
+        private boolean trialInFlight;
+
+        CircuitBreaker(int failureThreshold, long openMs) {
+            this.failureThreshold = Math.max(1, failureThreshold);
+            this.openMs = openMs;
+        }
+
+        synchronized boolean allowRequest() {
+            if (openedAt < 0) {
+                return true;
+            }
+            if (System.currentTimeMillis() - openedAt < openMs || trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+            return true;
+        }
+
+        /**
+         * Like {@link #allowRequest()} but without claiming the half-open trial
+         */
+        synchronized boolean wouldAllow() {
+            return openedAt < 0 || (System.currentTimeMillis() - openedAt >= openMs && !trialInFlight);
+        }
+
+        synchronized boolean isOpen() {
+            return openedAt >= 0;
+        }
+
+        synchronized void recordSuccess() {
+            consecutiveFailures = 0;
+            openedAt = -1;
+            trialInFlight = false;
+        }
+
+        synchronized void recordFailure() {
+            consecutiveFailures++;
+            if (trialInFlight || consecutiveFailures >= failureThreshold) {
+                if (openedAt < 0 || trialInFlight) {
+                    log.warn("Moderation circuit opened after {} consecutive failures", consecutiveFailures);
+                }
+                openedAt = System.currentTimeMillis();
+            }
+            trialInFlight = false;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.buzzlink.service;
+
+import com.buzzlink.entity.MessageModeration;
+import com.buzzlink.repository.MessageModerationRepository;
+import com.buzzlink.repository.MessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-batches messages for the moderation API.
+ *
+ * Messages whose content has a cached verdict are recorded straight away.
+ * The rest go into a bounded queue; a single dispatcher thread drains up to
+ * batch-size of them (waiting at most linger-ms for a batch to fill), sends
+ * each distinct content once in one array-input request, and records the
+ * verdicts. When the queue is full the message is dropped and counted rather
+ * than blocking the ingest pipeline.
+ */
+@Component
+@Slf4j
+public class ModerationDispatcher {
+
+    private final ModerationClient client;
+    private final ModerationVerdictCache verdictCache;
+    private final MessageModerationRepository moderationRepository;
+    private final MessageRepository messageRepository;
+    private final int batchSize;
+    private final long lingerMs;
+
+    private final BlockingQueue<ModerationTask> queue;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary batchSizes;
+
+    public ModerationDispatcher(
+            ModerationClient client,
+            ModerationVerdictCache verdictCache,
+            MessageModerationRepository moderationRepository,
+            MessageRepository messageRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.moderation.batch-size:32}") int batchSize,
+            @Value("${app.moderation.linger-ms:50}") long lingerMs,
+            @Value("${app.moderation.queue-capacity:5000}") int queueCapacity) {
+        this.client = client;
+        this.verdictCache = verdictCache;
+        this.moderationRepository = moderationRepository;
+        this.messageRepository = messageRepository;
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerMs = lingerMs;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("buzzlink.moderation.queue.depth", queue, BlockingQueue::size)
+                .description("Messages waiting for a moderation batch")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("buzzlink.moderation.batch.size")
+                .description("Distinct inputs per moderation API request")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        this.dispatcher = new Thread(this::run, "moderation-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Moderate a message: from the verdict cache if possible, otherwise in the next batch
+     *
+     * @return false if the message was dropped because the queue is full
+     */
+    public boolean submit(Long messageId, String content, Long workspaceId) {
+        ModerationTask task = new ModerationTask(messageId, content, workspaceId, verdictCache.keyFor(content));
+        Optional<ModerationVerdict> cached = task.cacheKey().flatMap(verdictCache::get);
+        if (cached.isPresent()) {
+            record(List.of(task), cached.get());
+            count("cached", 1);
+            return true;
+        }
+        if (!queue.offer(task)) {
+            count("rejected", 1);
+            log.warn("Moderation queue full, message {} not moderated", messageId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Record a verdict decided locally, without the API or the queue
+     */
+    public void recordLocal(Long messageId, String content, Long workspaceId, ModerationVerdict verdict) {
+        record(List.of(new ModerationTask(messageId, content, workspaceId, Optional.empty())), verdict);
+        count(verdict.flagged() ? "prefilter_flag" : "prefilter_pass", 1);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                ModerationTask first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<ModerationTask> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < batchSize) {
+                    ModerationTask next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Moderation batch failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void dispatch(List<ModerationTask> batch) {
+        // One input per distinct content; identical messages share a verdict
+        Map<String, List<ModerationTask>> byContent = new LinkedHashMap<>();
+        for (ModerationTask task : batch) {
+            Optional<ModerationVerdict> cached = task.cacheKey().flatMap(verdictCache::get);
+            if (cached.isPresent()) {
+                record(List.of(task), cached.get());
+                count("cached", 1);
+            } else {
+                byContent.computeIfAbsent(task.content(), content -> new ArrayList<>()).add(task);
+            }
+        }
+        if (byContent.isEmpty()) {
+            return;
+        }
+
+        List<String> inputs = new ArrayList<>(byContent.keySet());
+        List<ModerationVerdict> verdicts;
+        try {
+            verdicts = client.classify(inputs);
+        } catch (ModerationClient.ModerationUnavailableException e) {
+            int skipped = byContent.values().stream().mapToInt(List::size).sum();
+            count(client.isAvailable() ? "failed" : "circuit_open", skipped);
+            log.warn("Skipping moderation of {} messages: {}", skipped, e.getMessage());
+            return;
+        }
+        batchSizes.record(inputs.size());
+
+        for (int i = 0; i < inputs.size(); i++) {
+            List<ModerationTask> tasks = byContent.get(inputs.get(i));
+            ModerationVerdict verdict = verdicts.get(i);
+            tasks.get(0).cacheKey().ifPresent(key -> verdictCache.put(key, verdict));
+            record(tasks, verdict);
+            count("remote", tasks.size());
+        }
+    }
+
+    private void record(List<ModerationTask> tasks, ModerationVerdict verdict) {
+        List<MessageModeration> rows = new ArrayList<>(tasks.size());
+        for (ModerationTask task : tasks) {
+            MessageModeration moderation = new MessageModeration();
+            moderation.setMessage(messageRepository.getReferenceById(task.messageId()));
+            moderation.setWorkspaceId(task.workspaceId());
+            moderation.setOverallScore(verdict.overallScore());
+            moderation.setSensitiveScore(verdict.sensitiveScore());
+            moderation.setProfanityScore(verdict.profanityScore());
+            moderation.setHateSpeechScore(verdict.hateSpeechScore());
+            moderation.setHarassmentScore(verdict.harassmentScore());
+            moderation.setIllegalContentScore(verdict.illegalContentScore());
+            moderation.setFlagged(verdict.flagged());
+            moderation.setRawResponse(verdict.rawResponse());
+            rows.add(moderation);
+
+            if (verdict.flagged()) {
+                log.warn("Message {} flagged with overall score {}", task.messageId(), verdict.overallScore());
+            } else {
+                log.debug("Message {} passed moderation with overall score {}", task.messageId(), verdict.overallScore());
+            }
+        }
+        moderationRepository.saveAll(rows);
+    }
+
+    private void count(String outcome, int amount) {
+        Counter.builder("buzzlink.moderation.messages")
+                .description("Messages by moderation outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment(amount);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        dispatcher.interrupt();
+    }
+
+    private record ModerationTask(Long messageId, String content, Long workspaceId, Optional<String> cacheKey) {
+    }
+}
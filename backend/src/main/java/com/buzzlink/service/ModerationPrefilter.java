@@ -0,0 +1,163 @@
+package com.buzzlink.service;
+
+import com.buzzlink.cluster.ClusterEvent;
+import com.buzzlink.cluster.ClusterEventBus;
+import com.buzzlink.entity.ModerationTerm;
+import com.buzzlink.repository.ModerationTermRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-process first pass ahead of the remote moderation API.
+ *
+ * Each workspace's term list (its own plus global terms and the configured
+ * defaults) is compiled into one {@link AhoCorasickMatcher}. A FLAG term flags
+ * the message locally. A message only passes locally on a positive signal:
+ * it is one of the configured benign phrases ("ok", "thanks", ...) or has no
+ * words at all (emoji and punctuation). Not matching any term is not such a
+ * signal, so everything else is sent to the remote API, where repeated
+ * content is answered from the verdict cache. Compiled matchers are rebuilt
+ * after term changes and after a refresh interval.
+ */
+@Component
+@Slf4j
+public class ModerationPrefilter {
+
+    // Anything that is not a letter, digit or whitespace: emoji, punctuation, symbols
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}\\s]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ModerationTermRepository termRepository;
+    private final ClusterEventBus clusterEventBus;
+    private final boolean enabled;
+    private final int passMaxLength;
+    private final Set<String> passPhrases = new HashSet<>();
+    private final long refreshMs;
+    private final Map<String, ModerationTerm.Action> defaultTerms = new HashMap<>();
+
+    private final Map<Long, CompiledTerms> compiled = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ModerationPrefilter(
+            ModerationTermRepository termRepository,
+            ClusterEventBus clusterEventBus,
+            MeterRegistry meterRegistry,
+            @Value("${app.moderation.prefilter.enabled:true}") boolean enabled,
+            @Value("${app.moderation.prefilter.pass-max-length:40}") int passMaxLength,
+            @Value("${app.moderation.prefilter.pass-phrases:}") List<String> passPhrases,
+            @Value("${app.moderation.prefilter.refresh-ms:300000}") long refreshMs,
+            @Value("${app.moderation.prefilter.flag-terms:}") List<String> flagTerms,
+            @Value("${app.moderation.prefilter.escalate-terms:}") List<String> escalateTerms) {
+        this.termRepository = termRepository;
+        this.clusterEventBus = clusterEventBus;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.passMaxLength = passMaxLength;
+        passPhrases.forEach(phrase -> this.passPhrases.add(normalize(phrase)));
+        this.passPhrases.remove("");
+        this.refreshMs = refreshMs;
+        escalateTerms.forEach(term -> defaultTerms.put(term.strip().toLowerCase(Locale.ROOT), ModerationTerm.Action.ESCALATE));
+        flagTerms.forEach(term -> defaultTerms.put(term.strip().toLowerCase(Locale.ROOT), ModerationTerm.Action.FLAG));
+
+        clusterEventBus.subscribe(ClusterEvent.MODERATION_TERMS_CHANGED, event -> compiled.clear());
+    }
+
+    /**
+     * Decide locally if possible
+     */
+    public Decision classify(Long workspaceId, String content) {
+        if (!enabled || content == null) {
+            return count(Decision.ESCALATE);
+        }
+
+        boolean escalateTerm = false;
+        for (ModerationTerm.Action action : matcher(workspaceId).findAll(content)) {
+            if (action == ModerationTerm.Action.FLAG) {
+                return count(Decision.FLAG);
+            }
+            escalateTerm = true;
+        }
+        if (escalateTerm) {
+            return count(Decision.ESCALATE);
+        }
+
+        return count(isObviouslyBenign(content) ? Decision.PASS : Decision.ESCALATE);
+    }
+
+    /**
+     * Rebuild a workspace's matcher after its terms changed (null for global terms)
+     */
+    public void invalidate(Long workspaceId) {
+        if (workspaceId == null) {
+            compiled.clear();
+        } else {
+            compiled.remove(workspaceId);
+        }
+        clusterEventBus.publish(ClusterEvent.MODERATION_TERMS_CHANGED, null, null, null);
+    }
+
+    /**
+     * True only on a positive signal: an allowlisted phrase, or no words at all
+     */
+    private boolean isObviouslyBenign(String content) {
+        if (content.strip().length() > passMaxLength) {
+            return false;
+        }
+        String words = normalize(content);
+        return words.isEmpty() || passPhrases.contains(words);
+    }
+
+    /**
+     * Lowercase words only, single-spaced; "Thanks!! 🙏" becomes "thanks"
+     */
+    private static String normalize(String text) {
+        String words = NON_WORD.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ");
+        return WHITESPACE.matcher(words).replaceAll(" ").strip();
+    }
+
+    private AhoCorasickMatcher<ModerationTerm.Action> matcher(Long workspaceId) {
+        CompiledTerms current = compiled.get(workspaceId);
+        if (current == null || System.currentTimeMillis() - current.compiledAt > refreshMs) {
+            Map<String, ModerationTerm.Action> terms = new HashMap<>(defaultTerms);
+            for (ModerationTerm term : termRepository.findApplicableTo(workspaceId)) {
+                // FLAG wins if the same term is listed both ways
+                terms.merge(term.getTerm(), term.getAction(),
+                        (a, b) -> a == ModerationTerm.Action.FLAG ? a : b);
+            }
+            current = new CompiledTerms(new AhoCorasickMatcher<>(terms), System.currentTimeMillis());
+            compiled.put(workspaceId, current);
+            log.debug("Compiled {} moderation terms for workspace {}", terms.size(), workspaceId);
+        }
+        return current.matcher;
+    }
+
+    private Decision count(Decision decision) {
+        Counter.builder("buzzlink.moderation.prefilter")
+                .description("Local moderation pre-filter decisions")
+                .tag("decision", decision.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .increment();
+        return decision;
+    }
+
+    public enum Decision {
+        PASS,       // Allowlisted phrase or no words, no remote call
+        FLAG,       // Matched a FLAG term, no remote call
+        ESCALATE    // Needs the remote API
+    }
+
+    private record CompiledTerms(AhoCorasickMatcher<ModerationTerm.Action> matcher, long compiledAt) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.buzzlink.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Moderation result for one piece of content, on our 1-5 scale.
+ * Verdicts depend only on the content, so they can be cached and shared.
+ */
+public record ModerationVerdict(
+        int overallScore,
+        int sensitiveScore,
+        int profanityScore,
+        int hateSpeechScore,
+        int harassmentScore,
+        int illegalContentScore,
+        boolean flagged,
+        String rawResponse) {
+
+    private static final String PREFILTER_PASS = "{\"source\":\"prefilter\",\"decision\":\"PASS\"}";
+    private static final String PREFILTER_FLAG = "{\"source\":\"prefilter\",\"decision\":\"FLAG\"}";
+
+    /**
+     * Verdict for a message the local pre-filter found clearly benign
+     */
+    public static ModerationVerdict localPass() {
+        return new ModerationVerdict(1, 1, 1, 1, 1, 1, false, PREFILTER_PASS);
+    }
+
+    /**
+     * Verdict for a message that matched a FLAG term in the local pre-filter
+     */
+    public static ModerationVerdict localFlag() {
+        return new ModerationVerdict(5, 1, 5, 1, 1, 1, true, PREFILTER_FLAG);
+    }
+
+    /**
+     * Build a verdict from one entry of the moderation API's results array
+     */
+    public static ModerationVerdict fromResult(JsonNode result) {
+        JsonNode categoryScores = result.path("category_scores");
+
+        // Map OpenAI scores (0.0-1.0) to our scale (1-5)
+        int hateSpeechScore = mapScore(categoryScores.path("hate").asDouble());
+        int harassmentScore = mapScore(categoryScores.path("harassment").asDouble());
+        int profanityScore = mapScore(categoryScores.path("sexual").asDouble()); // Using sexual as proxy for profanity
+        int sensitiveScore = mapScore(categoryScores.path("self-harm").asDouble());
+        int illegalContentScore = mapScore(categoryScores.path("violence").asDouble());
+
+        // Overall score is the max of all scores; flag anything above borderline
+        int overallScore = Math.max(hateSpeechScore,
+                Math.max(harassmentScore,
+                        Math.max(profanityScore,
+                                Math.max(sensitiveScore, illegalContentScore))));
+
+        return new ModerationVerdict(overallScore, sensitiveScore, profanityScore, hateSpeechScore,
+                harassmentScore, illegalContentScore, overallScore > 3, result.toString());
+    }
+
+    /**
+     * Map OpenAI score (0.0-1.0) to our scale (1-5)
+     */
+    private static int mapScore(double openaiScore) {
+        if (openaiScore < 0.1) return 1;  // Very safe
+        if (openaiScore < 0.3) return 2;  // Mostly safe
+        if (openaiScore < 0.5) return 3;  // Borderline
+        if (openaiScore < 0.8) return 4;  // Problematic
+        return 5;  // Highly problematic
+    }
+}
@@ -0,0 +1,103 @@
+package com.buzzlink.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * LRU cache of moderation verdicts keyed by a hash of the normalized content.
+ *
+ * Short messages ("ok", "thanks", "lol") repeat constantly, so most of them
+ * never need a remote call. Only content up to max-content-length is cached;
+ * long messages rarely repeat. All access is synchronized on this cache.
+ */
+@Component
+public class ModerationVerdictCache {
+
+    private final int maxEntries;
+    private final int maxContentLength;
+    private final long ttlMs;
+
+    private final LinkedHashMap<String, CachedVerdict> verdicts = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedVerdict> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public ModerationVerdictCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.moderation.cache.max-entries:50000}") int maxEntries,
+            @Value("${app.moderation.cache.max-content-length:280}") int maxContentLength,
+            @Value("${app.moderation.cache.ttl-ms:86400000}") long ttlMs) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxContentLength = maxContentLength;
+        this.ttlMs = ttlMs;
+
+        this.hits = Counter.builder("buzzlink.moderation.cache.requests")
+                .tag("result", "hit")
+                .description("Moderation verdicts served from the content cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("buzzlink.moderation.cache.requests")
+                .tag("result", "miss")
+                .description("Moderation lookups that needed a remote call")
+                .register(meterRegistry);
+        Gauge.builder("buzzlink.moderation.cache.entries", this, ModerationVerdictCache::size)
+                .description("Cached moderation verdicts")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cache key for content, or empty if the content is not cacheable
+     */
+    public Optional<String> keyFor(String content) {
+        if (content == null || content.length() > maxContentLength) {
+            return Optional.empty();
+        }
+        String normalized = content.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Optional.of(HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8))));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public synchronized Optional<ModerationVerdict> get(String key) {
+        CachedVerdict cached = verdicts.get(key);
+        if (cached == null || System.currentTimeMillis() - cached.cachedAt > ttlMs) {
+            if (cached != null) {
+                verdicts.remove(key);
+            }
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(cached.verdict);
+    }
+
+    public synchronized void put(String key, ModerationVerdict verdict) {
+        verdicts.put(key, new CachedVerdict(verdict, System.currentTimeMillis()));
+    }
+
+    private synchronized double size() {
+        return verdicts.size();
+    }
+
+    private record CachedVerdict(ModerationVerdict verdict, long cachedAt) {
+    }
+}
@@ -0,0 +1,201 @@
+package com.buzzlink.service;
+
+import com.buzzlink.config.BoundedExecutorFactory;
+import com.buzzlink.dto.NotificationDTO;
+import com.buzzlink.dto.NotificationRecipient;
+import com.buzzlink.dto.UserDTO;
+import com.buzzlink.entity.Notification;
+import com.buzzlink.repository.UserWorkspaceMemberRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-out engine for notifications that go to many users at once.
+ *
+ * Recipients are resolved with one query, rows are written with JDBC batch
+ * inserts (IDs from notifications_seq via {@link PooledIdAllocator}), and the
+ * WebSocket pushes for each batch are handed to a separate push executor
+ * once the batch is written. Rows are already stored when a push is queued,
+ * so by default a full push queue drops its oldest pushes; clients catch up
+ * from the unread count.
+ */
+@Service
+@Slf4j
+public class NotificationFanoutService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (id, user_id, type, message, actor_id, channel_id, message_id, " +
+            "workspace_id, is_read, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, false, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PooledIdAllocator idAllocator;
+    private final UserWorkspaceMemberRepository workspaceMemberRepository;
+    private final NotificationService notificationService;
+    private final UnreadCounterCache unreadCounters;
+    private final int batchSize;
+    private final ThreadPoolExecutor pushExecutor;
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary batchSizes;
+    private final DistributionSummary recipientCounts;
+
+    public NotificationFanoutService(
+            JdbcTemplate jdbcTemplate,
+            PooledIdAllocator idAllocator,
+            UserWorkspaceMemberRepository workspaceMemberRepository,
+            NotificationService notificationService,
+            UnreadCounterCache unreadCounters,
+            MeterRegistry meterRegistry,
+            BoundedExecutorFactory executorFactory,
+            @Value("${app.notifications.fanout.batch-size:500}") int batchSize,
+            @Value("${app.notifications.fanout.push-threads:2}") int pushThreads,
+            @Value("${app.notifications.fanout.push-queue-capacity:10000}") int pushQueueCapacity,
+            @Value("${app.notifications.fanout.push-overflow:discard_oldest}") String pushOverflow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+        this.workspaceMemberRepository = workspaceMemberRepository;
+        this.notificationService = notificationService;
+        this.unreadCounters = unreadCounters;
+        this.batchSize = Math.max(1, batchSize);
+        this.meterRegistry = meterRegistry;
+
+        this.pushExecutor = executorFactory.create("notification-push", pushThreads, pushQueueCapacity,
+                BoundedExecutorFactory.Overflow.valueOf(pushOverflow.toUpperCase(Locale.ROOT)));
+
+        this.batchSizes = DistributionSummary.builder("buzzlink.notifications.fanout.batch.size")
+                .description("Rows per notification insert batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.recipientCounts = DistributionSummary.builder("buzzlink.notifications.fanout.recipients")
+                .description("Recipients per fan-out")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Notify every member of the request's workspace except the actor
+     */
+    public void fanOutToWorkspace(FanoutRequest request) {
+        fanOut(request, workspaceMemberRepository.findNotificationRecipients(
+                request.workspaceId(), request.actor().getId()));
+    }
+
+    /**
+     * Write one notification per recipient in batches and push them asynchronously
+     */
+    public void fanOut(FanoutRequest request, List<NotificationRecipient> recipients) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        recipientCounts.record(recipients.size());
+
+        for (int from = 0; from < recipients.size(); from += batchSize) {
+            List<NotificationRecipient> batch = recipients.subList(from, Math.min(from + batchSize, recipients.size()));
+            List<NotificationDTO> written = insertBatch(request, batch);
+            unreadCounters.adjustAll(batch.stream().map(NotificationRecipient::clerkId).toList(), 1);
+            batchSizes.record(batch.size());
+            pushExecutor.execute(() -> push(batch, written));
+        }
+
+        sample.stop(Timer.builder("buzzlink.notifications.fanout.latency")
+                .description("Time to resolve, write and enqueue a notification fan-out")
+                .tag("type", request.type().name())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        log.debug("Fanned out {} {} notifications", recipients.size(), request.type());
+    }
+
+    private List<NotificationDTO> insertBatch(FanoutRequest request, List<NotificationRecipient> batch) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        NotificationDTO.UserDTO actor = request.actor() == null ? null : new NotificationDTO.UserDTO(
+                request.actor().getId(),
+                request.actor().getClerkId(),
+                request.actor().getDisplayName(),
+                request.actor().getAvatarUrl());
+
+        List<Long> ids = new ArrayList<>(batch.size());
+        List<NotificationDTO> written = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            long id = idAllocator.nextId(Notification.ID_SEQUENCE, Notification.ID_ALLOCATION_SIZE);
+            ids.add(id);
+            written.add(new NotificationDTO(id, request.type().name(), request.text(), actor,
+                    request.channelId(), request.messageId(), null, request.workspaceId(), false, createdAt));
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        Long actorId = request.actor() != null ? request.actor().getId() : null;
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, ids.get(i));
+                ps.setLong(2, batch.get(i).userId());
+                ps.setString(3, request.type().name());
+                ps.setString(4, request.text());
+                setNullableLong(ps, 5, actorId);
+                setNullableLong(ps, 6, request.channelId());
+                setNullableLong(ps, 7, request.messageId());
+                setNullableLong(ps, 8, request.workspaceId());
+                ps.setTimestamp(9, timestamp);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+        return written;
+    }
+
+    private void push(List<NotificationRecipient> batch, List<NotificationDTO> written) {
+        for (int i = 0; i < batch.size(); i++) {
+            notificationService.sendNotificationToUser(batch.get(i).clerkId(), written.get(i));
+        }
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pushExecutor.shutdown();
+        try {
+            if (!pushExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                pushExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pushExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * What to write for each recipient of a fan-out
+     */
+    public record FanoutRequest(Notification.NotificationType type, UserDTO actor, String text,
+            Long channelId, Long messageId, Long workspaceId) {
+    }
+}
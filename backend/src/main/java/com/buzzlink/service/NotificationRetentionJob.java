@@ -0,0 +1,231 @@
+package com.buzzlink.service;
+
+import com.buzzlink.entity.Notification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background job that keeps the notifications table small.
+ *
+ * Retention deletes read notifications older than the configured age across
+ * all users. Compaction collapses a user's repeated "posted in a channel" rows
+ * for one channel into a single summary row (such rows are no longer written
+ * since channel activity comes from read cursors, but older data has many).
+ *
+ * Both work in bounded batches with a pause in between. Retention deletes a
+ * batch in one short transaction; compaction folds each user/channel group in
+ * its own, so row locks are only held for one group at a time.
+ */
+@Component
+@Slf4j
+public class NotificationRetentionJob {
+
+    private static final String EXPIRED_IDS_SQL =
+            "SELECT id FROM notifications WHERE is_read = true AND created_at < ? AND id > ? ORDER BY id LIMIT ?";
+
+    // Keyset walk over (user_id, channel_id), served by idx_notification_type_user_channel
+    private static final String DUPLICATE_GROUPS_SQL =
+            "SELECT user_id, channel_id FROM notifications " +
+            "WHERE type = ? AND channel_id IS NOT NULL AND (user_id > ? OR (user_id = ? AND channel_id > ?)) " +
+            "GROUP BY user_id, channel_id HAVING COUNT(*) > 1 ORDER BY user_id, channel_id LIMIT ?";
+
+    private static final String GROUP_ROWS_SQL =
+            "SELECT id, is_read FROM notifications WHERE type = ? AND user_id = ? AND channel_id = ? FOR UPDATE";
+
+    private static final String UPDATE_SUMMARY_SQL =
+            "UPDATE notifications SET message = ?, is_read = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadCounterCache unreadCounters;
+    private final boolean enabled;
+    private final int readMaxAgeDays;
+    private final int batchSize;
+    private final long batchPauseMs;
+    private final int maxBatchesPerRun;
+
+    private final Counter deleted;
+    private final Counter compacted;
+
+    public NotificationRetentionJob(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            UnreadCounterCache unreadCounters,
+            MeterRegistry meterRegistry,
+            @Value("${app.notifications.retention.enabled:true}") boolean enabled,
+            @Value("${app.notifications.retention.read-max-age-days:30}") int readMaxAgeDays,
+            @Value("${app.notifications.retention.batch-size:1000}") int batchSize,
+            @Value("${app.notifications.retention.batch-pause-ms:50}") long batchPauseMs,
+            @Value("${app.notifications.retention.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.unreadCounters = unreadCounters;
+        this.enabled = enabled;
+        this.readMaxAgeDays = readMaxAgeDays;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPauseMs = batchPauseMs;
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+
+        this.deleted = Counter.builder("buzzlink.notifications.retention.deleted")
+                .description("Read notifications deleted by retention")
+                .register(meterRegistry);
+        this.compacted = Counter.builder("buzzlink.notifications.retention.compacted")
+                .description("Duplicate channel notifications folded into summary rows")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.notifications.retention.interval-ms:3600000}",
+            fixedDelayString = "${app.notifications.retention.interval-ms:3600000}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int removed = deleteExpiredRead();
+            int folded = compactChannelMessages();
+            if (removed > 0 || folded > 0) {
+                log.info("Notification retention removed {} read rows and folded {} duplicates", removed, folded);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Notification retention failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Delete read notifications older than the retention age, walking the table by ID
+     */
+    int deleteExpiredRead() throws InterruptedException {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(readMaxAgeDays));
+        long afterId = 0;
+        int total = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Long> ids = jdbcTemplate.queryForList(EXPIRED_IDS_SQL, Long.class, cutoff, afterId, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer removed = transactionTemplate.execute(status -> deleteByIds(ids));
+            total += removed != null ? removed : 0;
+            deleted.increment(removed != null ? removed : 0);
+            afterId = ids.get(ids.size() - 1);
+
+            if (ids.size() < batchSize) {
+                break;
+            }
+            Thread.sleep(batchPauseMs);
+        }
+        return total;
+    }
+
+    /**
+     * Fold each user's CHANNEL_MESSAGE rows for a channel into the newest one.
+     * The summary stays unread if any of the folded rows was unread. Only the
+     * rows read while folding are deleted, so a notification the fan-out adds
+     * meanwhile is kept with its own read state.
+     */
+    int compactChannelMessages() throws InterruptedException {
+        String type = Notification.NotificationType.CHANNEL_MESSAGE.name();
+        long afterUserId = 0;
+        long afterChannelId = 0;
+        int total = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<GroupKey> groups = jdbcTemplate.query(DUPLICATE_GROUPS_SQL,
+                    (rs, rowNum) -> new GroupKey(rs.getLong("user_id"), rs.getLong("channel_id")),
+                    type, afterUserId, afterUserId, afterChannelId, batchSize);
+            if (groups.isEmpty()) {
+                break;
+            }
+
+            Map<Long, String> channelNames = channelNames(groups);
+            for (GroupKey group : groups) {
+                Integer removed = transactionTemplate.execute(status ->
+                        foldGroup(type, group.userId(), group.channelId(), channelNames.get(group.channelId())));
+                total += removed != null ? removed : 0;
+                compacted.increment(removed != null ? removed : 0);
+            }
+
+            GroupKey last = groups.get(groups.size() - 1);
+            afterUserId = last.userId();
+            afterChannelId = last.channelId();
+            if (groups.size() < batchSize) {
+                break;
+            }
+            Thread.sleep(batchPauseMs);
+        }
+
+        if (total > 0) {
+            // Folded rows may have been unread
+            unreadCounters.invalidateAll();
+        }
+        return total;
+    }
+
+    /**
+     * Fold one user's rows for one channel into the newest of them
+     *
+     * @return Number of rows deleted
+     */
+    private int foldGroup(String type, long userId, long channelId, String channelName) {
+        List<Long> ids = new ArrayList<>();
+        boolean[] anyUnread = {false};
+        jdbcTemplate.query(GROUP_ROWS_SQL, rs -> {
+            ids.add(rs.getLong("id"));
+            anyUnread[0] |= !rs.getBoolean("is_read");
+        }, type, userId, channelId);
+        if (ids.size() < 2) {
+            return 0;
+        }
+
+        long keepId = Collections.max(ids);
+        String summary = channelName != null
+                ? ids.size() + " messages posted in #" + channelName
+                : ids.size() + " messages posted in a channel";
+        jdbcTemplate.update(UPDATE_SUMMARY_SQL, summary, !anyUnread[0], keepId);
+
+        ids.remove(Long.valueOf(keepId));
+        int count = 0;
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            count += deleteByIds(ids.subList(from, Math.min(from + batchSize, ids.size())));
+        }
+        return count;
+    }
+
+    /**
+     * Names of the channels in a batch of groups, in one query
+     */
+    private Map<Long, String> channelNames(List<GroupKey> groups) {
+        List<Long> channelIds = groups.stream().map(GroupKey::channelId).distinct().toList();
+        String placeholders = String.join(",", Collections.nCopies(channelIds.size(), "?"));
+        Map<Long, String> names = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM channels WHERE id IN (" + placeholders + ")", rs -> {
+            names.put(rs.getLong("id"), rs.getString("name"));
+        }, channelIds.toArray());
+        return names;
+    }
+
+    private int deleteByIds(List<Long> ids) {
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.update("DELETE FROM notifications WHERE id IN (" + placeholders + ")", ids.toArray());
+    }
+
+    private record GroupKey(long userId, long channelId) {
+    }
+}
@@ -1,17 +1,24 @@
 package com.buzzlink.service;
 
+import com.buzzlink.dto.ChannelActivityDTO;
+import com.buzzlink.dto.MessageDTO;
 import com.buzzlink.dto.NotificationDTO;
+import com.buzzlink.dto.PageCursor;
 import com.buzzlink.entity.Message;
 import com.buzzlink.entity.Notification;
 import com.buzzlink.entity.User;
+import com.buzzlink.repository.ChannelReadStateRepository;
 import com.buzzlink.repository.NotificationRepository;
 import com.buzzlink.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,32 +30,75 @@ public class NotificationService {
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final ChannelReadStateService channelReadStateService;
+    private final UnreadCounterCache unreadCounters;
 
     /**
-     * Get all notifications for a user
+     * Get a page of a user's notifications, newest first
+     *
+     * @param before Cursor of the last notification on the previous page, or null for the first page
      */
-    public List<NotificationDTO> getUserNotifications(String clerkId) {
-        List<Notification> notifications = notificationRepository.findByUserClerkIdOrderByCreatedAtDesc(clerkId);
+    public List<NotificationDTO> getUserNotifications(String clerkId, PageCursor before, int limit) {
+        Long userId = userRepository.findIdByClerkId(clerkId).orElse(null);
+        if (userId == null) {
+            return List.of();
+        }
+        List<Notification> notifications = before == null
+                ? notificationRepository.findPageByUserId(userId, PageRequest.of(0, limit))
+                : notificationRepository.findPageByUserIdBefore(userId, before.createdAt(), before.id(),
+                        PageRequest.of(0, limit));
         return notifications.stream()
                 .map(NotificationDTO::from)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Get unread notifications for a user
+     * Get a page of unread notifications for a user
+     * The first page also carries one "new activity" entry per channel with unread
+     * messages, derived from the user's read cursors (these have no ID and do not
+     * count towards the limit)
+     *
+     * @param before Cursor of the last stored notification on the previous page, or null
      */
-    public List<NotificationDTO> getUnreadNotifications(String clerkId) {
-        List<Notification> notifications = notificationRepository.findByUserClerkIdAndIsReadFalseOrderByCreatedAtDesc(clerkId);
-        return notifications.stream()
-                .map(NotificationDTO::from)
-                .collect(Collectors.toList());
+    public List<NotificationDTO> getUnreadNotifications(String clerkId, PageCursor before, int limit) {
+        Long userId = userRepository.findIdByClerkId(clerkId).orElse(null);
+        if (userId == null) {
+            return List.of();
+        }
+        List<Notification> notifications = before == null
+                ? notificationRepository.findUnreadPageByUserId(userId, PageRequest.of(0, limit))
+                : notificationRepository.findUnreadPageByUserIdBefore(userId, before.createdAt(), before.id(),
+                        PageRequest.of(0, limit));
+        List<NotificationDTO> result = new ArrayList<>();
+        notifications.forEach(notification -> result.add(NotificationDTO.from(notification)));
+        if (before == null) {
+            channelReadStateService.getChannelActivity(clerkId, null)
+                    .forEach(activity -> result.add(toActivityNotification(activity)));
+        }
+        result.sort(Comparator.comparing(NotificationDTO::getCreatedAt,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        return result;
     }
 
     /**
      * Get unread notification count
+     * Stored unread notifications plus channels with unread messages, both served
+     * from {@link UnreadCounterCache} and loaded from the database on a miss
      */
     public Long getUnreadCount(String clerkId) {
-        return notificationRepository.countByUserClerkIdAndIsReadFalse(clerkId);
+        return unreadCounters.getStoredUnread(clerkId, id -> userRepository.findIdByClerkId(id)
+                        .map(notificationRepository::countByUserIdAndIsReadFalse)
+                        .orElse(0L))
+                + unreadCounters.getChannelActivity(clerkId,
+                        id -> channelReadStateService.getChannelActivity(id, null).size());
+    }
+
+    /**
+     * Push the current unread count after a channel was read
+     */
+    public void refreshUnreadCount(String clerkId) {
+        unreadCounters.invalidateChannelActivity(clerkId);
+        sendUnreadCountUpdate(clerkId);
     }
 
     /**
@@ -56,10 +106,17 @@ public class NotificationService {
      */
     @Transactional
     public void markAsRead(Long notificationId, String clerkId) {
-        int updated = notificationRepository.markAsRead(notificationId, clerkId);
+        Long userId = userRepository.findIdByClerkId(clerkId).orElse(null);
+        if (userId == null) {
+            return;
+        }
+        int updated = notificationRepository.markAsRead(notificationId, userId);
         if (updated > 0) {
             // Send updated count via WebSocket
-            sendUnreadCountUpdate(clerkId);
+            TransactionCallbacks.afterCommit(() -> {
+                unreadCounters.adjust(clerkId, -updated);
+                sendUnreadCountUpdate(clerkId);
+            });
         }
     }
 
@@ -68,37 +125,15 @@ public class NotificationService {
      */
     @Transactional
     public void markAllAsRead(String clerkId) {
-        notificationRepository.markAllAsRead(clerkId);
-        sendUnreadCountUpdate(clerkId);
-    }
-
-    /**
-     * Create a notification for a new channel message
-     */
-    @Transactional
-    public void createChannelMessageNotification(Message message, List<String> recipientClerkIds) {
-        User actor = message.getSender();
-
-        for (String recipientClerkId : recipientClerkIds) {
-            // Don't notify the sender
-            if (recipientClerkId.equals(actor.getClerkId())) {
-                continue;
-            }
-
-            userRepository.findByClerkId(recipientClerkId).ifPresent(recipient -> {
-                Notification notification = new Notification();
-                notification.setUser(recipient);
-                notification.setType(Notification.NotificationType.CHANNEL_MESSAGE);
-                notification.setMessage(actor.getDisplayName() + " posted in a channel");
-                notification.setActor(actor);
-                notification.setChannelId(message.getChannel().getId());
-                notification.setMessageId(message.getId());
-                notification.setIsRead(false);
-
-                Notification saved = notificationRepository.save(notification);
-                sendNotificationToUser(recipientClerkId, NotificationDTO.from(saved));
-            });
-        }
+        int updated = userRepository.findIdByClerkId(clerkId)
+                .map(notificationRepository::markAllAsRead)
+                .orElse(0);
+        channelReadStateService.markAllRead(clerkId);
+        TransactionCallbacks.afterCommit(() -> {
+            unreadCounters.adjust(clerkId, -updated);
+            unreadCounters.invalidateChannelActivity(clerkId);
+            sendUnreadCountUpdate(clerkId);
+        });
     }
 
     /**
@@ -117,6 +152,7 @@ public class NotificationService {
                 notification.setIsRead(false);
 
                 Notification saved = notificationRepository.save(notification);
+                TransactionCallbacks.afterCommit(() -> unreadCounters.adjust(recipientClerkId, 1));
                 sendNotificationToUser(recipientClerkId, NotificationDTO.from(saved));
             });
         });
@@ -126,25 +162,26 @@ public class NotificationService {
      * Create a notification for a thread reply
      */
     @Transactional
-    public void createThreadReplyNotification(Message reply, String parentMessageAuthorClerkId) {
-        User actor = reply.getSender();
-
+    public void createThreadReplyNotification(MessageDTO reply, String parentMessageAuthorClerkId) {
         // Don't notify if replying to own message
-        if (parentMessageAuthorClerkId.equals(actor.getClerkId())) {
+        if (parentMessageAuthorClerkId.equals(reply.getSender().getClerkId())) {
             return;
         }
 
+        User actor = userRepository.getReferenceById(reply.getSender().getId());
+
         userRepository.findByClerkId(parentMessageAuthorClerkId).ifPresent(recipient -> {
             Notification notification = new Notification();
             notification.setUser(recipient);
             notification.setType(Notification.NotificationType.THREAD_REPLY);
-            notification.setMessage(actor.getDisplayName() + " replied to your message");
+            notification.setMessage(reply.getSender().getDisplayName() + " replied to your message");
             notification.setActor(actor);
-            notification.setChannelId(reply.getChannel().getId());
+            notification.setChannelId(reply.getChannelId());
             notification.setMessageId(reply.getId());
             notification.setIsRead(false);
 
             Notification saved = notificationRepository.save(notification);
+            TransactionCallbacks.afterCommit(() -> unreadCounters.adjust(parentMessageAuthorClerkId, 1));
             sendNotificationToUser(parentMessageAuthorClerkId, NotificationDTO.from(saved));
         });
     }
@@ -171,22 +208,40 @@ public class NotificationService {
                 notification.setIsRead(false);
 
                 Notification saved = notificationRepository.save(notification);
+                TransactionCallbacks.afterCommit(() -> unreadCounters.adjust(messageAuthorClerkId, 1));
                 sendNotificationToUser(messageAuthorClerkId, NotificationDTO.from(saved));
             });
         });
     }
 
+    private static NotificationDTO toActivityNotification(ChannelActivityDTO activity) {
+        NotificationDTO dto = new NotificationDTO();
+        dto.setType(Notification.NotificationType.CHANNEL_MESSAGE.name());
+        long unread = activity.getUnreadCount();
+        String count = unread >= ChannelReadStateRepository.UNREAD_CAP
+                ? (ChannelReadStateRepository.UNREAD_CAP - 1) + "+"
+                : String.valueOf(unread);
+        dto.setMessage(unread == 1
+                ? "1 new message in #" + activity.getChannelName()
+                : count + " new messages in #" + activity.getChannelName());
+        dto.setChannelId(activity.getChannelId());
+        dto.setWorkspaceId(activity.getWorkspaceId());
+        dto.setIsRead(false);
+        dto.setCreatedAt(activity.getLastActivityAt());
+        return dto;
+    }
+
     /**
      * Send a notification to a user via WebSocket
      */
-    private void sendNotificationToUser(String clerkId, NotificationDTO notification) {
+    public void sendNotificationToUser(String clerkId, NotificationDTO notification) {
         try {
             messagingTemplate.convertAndSendToUser(
                     clerkId,
                     "/queue/notifications",
                     notification
             );
-            log.info("Sent notification to user {}: {}", clerkId, notification.getMessage());
+            log.debug("Sent notification to user {}: {}", clerkId, notification.getMessage());
         } catch (Exception e) {
             log.error("Error sending notification to user {}: {}", clerkId, e.getMessage());
         }
@@ -225,12 +280,4 @@ public class NotificationService {
         log.info("Message deleted notification published for Message ID: {}, Channel ID: {}",
                 messageId, channelId);
     }
-
-    /**
-     * Legacy method kept for backward compatibility
-     */
-    public void publishMentionNotification(String mentionedUserClerkId, Message message) {
-        log.info("Mention notification published for user: {}, Message ID: {}",
-                mentionedUserClerkId, message.getId());
-    }
 }
@@ -0,0 +1,93 @@
+package com.buzzlink.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out entity IDs from database sequences in pooled blocks, so rows can be
+ * inserted with explicit IDs (and JDBC batching) outside of Hibernate.
+ *
+ * Blocks follow Hibernate's "pooled" optimizer: a sequence value V reserves
+ * (V - allocationSize, V], so this allocator and the entity's own
+ * {@code @SequenceGenerator} can draw from the same sequence without overlap.
+ */
+@Component
+public class PooledIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public PooledIdAllocator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+    }
+
+    /**
+     * Get the next ID from a sequence
+     *
+     * @param sequenceName   Database sequence name
+     * @param allocationSize Increment the sequence was created with
+     */
+    public long nextId(String sequenceName, int allocationSize) {
+        Block block = blocks.computeIfAbsent(sequenceName, name -> new Block());
+        synchronized (block) {
+            if (block.next > block.max) {
+                long hi = fetchNextValue(sequenceName);
+                if (hi - allocationSize + 1 < 1) {
+                    // First value of a fresh sequence - its block would start below 1
+                    hi = fetchNextValue(sequenceName);
+                }
+                block.next = hi - allocationSize + 1;
+                block.max = hi;
+            }
+            return block.next++;
+        }
+    }
+
+    /**
+     * Move a sequence past IDs already in its table, so rows written before
+     * the sequence existed (e.g. under IDENTITY) are never handed out again.
+     * Only ever moves the sequence forward.
+     *
+     * @param sequenceName   Database sequence name
+     * @param allocationSize Increment the sequence was created with
+     * @param maxId          Highest ID already in use
+     * @return Whether the sequence had to be restarted
+     */
+    public boolean alignPast(String sequenceName, int allocationSize, long maxId) {
+        Block block = blocks.computeIfAbsent(sequenceName, name -> new Block());
+        synchronized (block) {
+            // The block this value reserves starts above maxId, and later ones are higher still
+            if (fetchNextValue(sequenceName) - allocationSize >= maxId) {
+                return false;
+            }
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequenceName + " RESTART WITH " + (maxId + allocationSize));
+            block.next = 1;
+            block.max = 0;
+            return true;
+        }
+    }
+
+    private long fetchNextValue(String sequenceName) {
+        String sql = dialect.getSequenceSupport().getSequenceNextValString(sequenceName);
+        Long value = jdbcTemplate.queryForObject(sql, Long.class);
+        if (value == null) {
+            throw new IllegalStateException("Sequence " + sequenceName + " returned no value");
+        }
+        return value;
+    }
+
+    private static class Block {
+        private long next = 1;
+        private long max = 0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.buzzlink.service;
+
+/**
+ * A user coming online in, or going offline from, a channel
+ */
+public record PresenceChange(Long channelId, String clerkId, boolean joined) {
+
+    public static PresenceChange joined(Long channelId, String clerkId) {
+        return new PresenceChange(channelId, clerkId, true);
+    }
+
+    public static PresenceChange left(Long channelId, String clerkId) {
+        return new PresenceChange(channelId, clerkId, false);
+    }
+}
@@ -1,61 +1,108 @@
 package com.buzzlink.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service for tracking user presence (online/offline) in channels
- * Uses in-memory storage for simplicity (would use Redis in production)
+ * Presence is tracked per WebSocket session and expires when a session stops
+ * sending heartbeats; storage is delegated to a {@link PresenceStore}
  */
 @Service
 @Slf4j
 public class PresenceService {
 
-    // Map of channelId -> Set of clerkIds (users online in that channel)
-    private final Map<Long, Set<String>> channelPresence = new ConcurrentHashMap<>();
+    private final PresenceStore presenceStore;
+    private final Duration sessionTtl;
+
+    public PresenceService(
+            PresenceStore presenceStore,
+            @Value("${app.presence.ttl-ms:30000}") long sessionTtlMs) {
+        this.presenceStore = presenceStore;
+        this.sessionTtl = Duration.ofMillis(sessionTtlMs);
+    }
+
+    /**
+     * Mark a session's user as online in a channel
+     *
+     * @return The change, if the user was not online in the channel yet
+     */
+    public Optional<PresenceChange> userJoined(Long channelId, String clerkId, String sessionId) {
+        log.debug("User {} joined channel {} (session {})", clerkId, channelId, sessionId);
+        return presenceStore.join(sessionId, clerkId, channelId);
+    }
+
+    /**
+     * Remove a session from a channel
+     *
+     * @return The change, if this was the user's last session in the channel
+     */
+    public Optional<PresenceChange> userLeft(Long channelId, String sessionId) {
+        log.debug("Session {} left channel {}", sessionId, channelId);
+        return presenceStore.leave(sessionId, channelId);
+    }
+
+    /**
+     * Remove a session from all channels it joined (e.g., on disconnect)
+     *
+     * @return Channels the user went offline in
+     */
+    public List<PresenceChange> sessionDisconnected(String sessionId) {
+        log.debug("Session {} disconnected", sessionId);
+        return presenceStore.removeSession(sessionId);
+    }
 
     /**
-     * Mark a user as online in a channel
+     * Record a heartbeat or other activity on a session
      */
-    public void userJoined(Long channelId, String clerkId) {
-        channelPresence.computeIfAbsent(channelId, k -> ConcurrentHashMap.newKeySet())
-            .add(clerkId);
-        log.debug("User {} joined channel {}", clerkId, channelId);
+    public void sessionActive(String sessionId) {
+        presenceStore.touch(sessionId);
     }
 
     /**
-     * Mark a user as offline in a channel
+     * Drop sessions whose heartbeats stopped (crashed clients, lost connections)
+     *
+     * @return Channels users went offline in
      */
-    public void userLeft(Long channelId, String clerkId) {
-        Set<String> users = channelPresence.get(channelId);
-        if (users != null) {
-            users.remove(clerkId);
-            log.debug("User {} left channel {}", clerkId, channelId);
+    public List<PresenceChange> expireIdleSessions() {
+        List<PresenceChange> changes = presenceStore.expireIdle(sessionTtl);
+        if (!changes.isEmpty()) {
+            log.debug("Expired idle sessions, {} users went offline in channels", changes.size());
         }
+        return changes;
     }
 
     /**
-     * Get all online users in a channel
+     * Whether this node sends the cluster-wide presence frames (see {@link PresenceStore#isAnnouncer})
      */
-    public Set<String> getOnlineUsers(Long channelId) {
-        return new HashSet<>(channelPresence.getOrDefault(channelId, Collections.emptySet()));
+    public boolean isAnnouncer() {
+        return presenceStore.isAnnouncer(sessionTtl);
     }
 
     /**
-     * Get count of online users in a channel
+     * Channels with at least one online user
      */
-    public int getOnlineCount(Long channelId) {
-        return channelPresence.getOrDefault(channelId, Collections.emptySet()).size();
+    public Set<Long> getActiveChannels() {
+        return presenceStore.getActiveChannels();
     }
 
     /**
-     * Remove user from all channels (e.g., on disconnect)
+     * Get all online users in a channel
      */
-    public void userDisconnected(String clerkId) {
-        channelPresence.values().forEach(users -> users.remove(clerkId));
-        log.debug("User {} disconnected from all channels", clerkId);
+    public Set<String> getOnlineUsers(Long channelId) {
+        return presenceStore.getOnlineUsers(channelId);
+    }
+
+    /**
+     * Get count of online users in a channel
+     */
+    public int getOnlineCount(Long channelId) {
+        return presenceStore.getOnlineCount(channelId);
     }
 }
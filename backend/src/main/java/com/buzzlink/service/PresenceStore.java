@@ -0,0 +1,68 @@
+package com.buzzlink.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Backing store for channel presence, keyed by WebSocket session.
+ *
+ * A user is online in a channel while at least one of their sessions has
+ * joined it, so closing one of two tabs does not take them offline. Methods
+ * that change state report only the changes to channels' online sets, so
+ * callers only broadcast when there is something new to say.
+ *
+ * Implementations are selected with app.presence.store (memory or replicated).
+ */
+public interface PresenceStore {
+
+    /**
+     * @return The change, if the user was not online in the channel before
+     */
+    Optional<PresenceChange> join(String sessionId, String clerkId, Long channelId);
+
+    /**
+     * @return The change, if the user is no longer online in the channel
+     */
+    Optional<PresenceChange> leave(String sessionId, Long channelId);
+
+    /**
+     * Drop a session and all of its channel memberships
+     *
+     * @return Channels the user went offline in
+     */
+    List<PresenceChange> removeSession(String sessionId);
+
+    /**
+     * Record activity (a heartbeat or any frame) on a session
+     */
+    void touch(String sessionId);
+
+    /**
+     * Drop every session that has been silent for longer than ttl
+     *
+     * @return Channels users went offline in
+     */
+    List<PresenceChange> expireIdle(Duration ttl);
+
+    /**
+     * Whether this node sends the presence frames any node could send (expired
+     * remote sessions, periodic snapshots), so clients get one copy of each.
+     * A node that keeps presence to itself is always the announcer.
+     *
+     * @param ttl How recently a node must have been heard from to count as live
+     */
+    default boolean isAnnouncer(Duration ttl) {
+        return true;
+    }
+
+    /**
+     * Channels with at least one online user
+     */
+    Set<Long> getActiveChannels();
+
+    Set<String> getOnlineUsers(Long channelId);
+
+    int getOnlineCount(Long channelId);
+}
@@ -0,0 +1,156 @@
+package com.buzzlink.service;
+
+import com.buzzlink.entity.RollupCheckpoint;
+import com.buzzlink.repository.RollupCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One-time fill of messages.reaction_count for messages written before the
+ * column existed, which start at 0 and are older than the reconciler's window.
+ *
+ * Walks the messages table by ID in batches. Each batch sets the counts from
+ * the reactions table and advances the checkpoint in one transaction, with
+ * the checkpoint row locked, so a restart resumes after the last committed
+ * batch and two nodes never work on the same batch. Channels whose counts
+ * changed are dropped from the tail cache after the batch commits.
+ */
+@Component
+@Slf4j
+public class ReactionCountBackfillJob {
+
+    static final String CHECKPOINT_NAME = "reaction_counts";
+
+    private static final String LOCK_CHECKPOINT_SQL =
+            "SELECT last_message_id FROM rollup_checkpoints WHERE name = ? FOR UPDATE";
+
+    private static final String BATCH_END_SQL =
+            "SELECT MAX(id) FROM (SELECT id FROM messages WHERE id > ? ORDER BY id LIMIT ?) b";
+
+    private static final String COUNT_SQL =
+            "(SELECT COUNT(*) FROM reactions r WHERE r.message_id = m.id)";
+
+    private static final String DRIFTED_CHANNELS_SQL =
+            "SELECT DISTINCT m.channel_id FROM messages m " +
+            "WHERE m.id > ? AND m.id <= ? AND m.reaction_count <> " + COUNT_SQL;
+
+    private static final String FILL_SQL =
+            "UPDATE messages m SET reaction_count = " + COUNT_SQL + " " +
+            "WHERE m.id > ? AND m.id <= ? AND m.reaction_count <> " + COUNT_SQL;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RollupCheckpointRepository checkpointRepository;
+    private final ChannelTailCache tailCache;
+    private final int batchSize;
+    private final long batchPauseMs;
+    private final int maxBatchesPerRun;
+
+    private final Counter filled;
+
+    public ReactionCountBackfillJob(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            RollupCheckpointRepository checkpointRepository,
+            ChannelTailCache tailCache,
+            MeterRegistry meterRegistry,
+            @Value("${app.reactions.backfill.batch-size:5000}") int batchSize,
+            @Value("${app.reactions.backfill.batch-pause-ms:50}") long batchPauseMs,
+            @Value("${app.reactions.backfill.max-batches-per-run:200}") int maxBatchesPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.checkpointRepository = checkpointRepository;
+        this.tailCache = tailCache;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPauseMs = batchPauseMs;
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+
+        this.filled = Counter.builder("buzzlink.reactions.backfilled")
+                .description("Messages whose reaction count was set by the backfill")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.reactions.backfill.initial-delay-ms:30000}",
+            fixedDelayString = "${app.reactions.backfill.interval-ms:60000}")
+    public void run() {
+        try {
+            backfill();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Reaction count backfill failed: {}", e.getMessage(), e);
+        }
+    }
+
+    void backfill() throws InterruptedException {
+        RollupCheckpoint checkpoint = loadOrCreateCheckpoint();
+        if (checkpoint.getCompletedAt() != null) {
+            return;
+        }
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Batch done = transactionTemplate.execute(status -> fillBatch());
+            if (done == null) {
+                markComplete();
+                log.info("Reaction count backfill complete");
+                return;
+            }
+            done.channelIds().forEach(tailCache::invalidate);
+            filled.increment(done.updated());
+            Thread.sleep(batchPauseMs);
+        }
+    }
+
+    /**
+     * Fill one batch of messages after the checkpoint and advance it
+     *
+     * @return What changed, or null if no messages are left
+     */
+    private Batch fillBatch() {
+        Long checkpointId = jdbcTemplate.queryForObject(LOCK_CHECKPOINT_SQL, Long.class, CHECKPOINT_NAME);
+        long afterId = checkpointId != null ? checkpointId : 0L;
+        Long lastId = jdbcTemplate.queryForObject(BATCH_END_SQL, Long.class, afterId, batchSize);
+        if (lastId == null) {
+            return null;
+        }
+
+        List<Long> channelIds = jdbcTemplate.queryForList(DRIFTED_CHANNELS_SQL, Long.class, afterId, lastId);
+        int updated = channelIds.isEmpty() ? 0 : jdbcTemplate.update(FILL_SQL, afterId, lastId);
+        jdbcTemplate.update("UPDATE rollup_checkpoints SET last_message_id = ? WHERE name = ?",
+                lastId, CHECKPOINT_NAME);
+        return new Batch(channelIds, updated);
+    }
+
+    private RollupCheckpoint loadOrCreateCheckpoint() {
+        return checkpointRepository.findById(CHECKPOINT_NAME).orElseGet(() -> {
+            try {
+                return checkpointRepository.save(
+                        new RollupCheckpoint(CHECKPOINT_NAME, LocalDateTime.now(), 0L, null));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created it first
+                return checkpointRepository.findById(CHECKPOINT_NAME).orElseThrow();
+            }
+        });
+    }
+
+    private void markComplete() {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE rollup_checkpoints SET completed_at = ? WHERE name = ?",
+                Timestamp.valueOf(LocalDateTime.now()), CHECKPOINT_NAME));
+    }
+
+    private record Batch(List<Long> channelIds, int updated) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.buzzlink.service;
+
+import com.buzzlink.repository.MessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Background job that repairs drift in the denormalized Message.reactionCount.
+ * Only recent messages are checked - older messages rarely receive reactions,
+ * and messages from before the column existed are filled in by
+ * {@link ReactionCountBackfillJob}. Repaired channels are dropped from the
+ * tail cache so it stops serving the old counts.
+ */
+@Component
+@Slf4j
+public class ReactionCountReconciler {
+
+    private final MessageRepository messageRepository;
+    private final ChannelTailCache tailCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int lookbackDays;
+
+    public ReactionCountReconciler(
+            MessageRepository messageRepository,
+            ChannelTailCache tailCache,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.reactions.reconcile-lookback-days:7}") int lookbackDays) {
+        this.messageRepository = messageRepository;
+        this.tailCache = tailCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lookbackDays = lookbackDays;
+    }
+
+    @Scheduled(initialDelayString = "${app.reactions.reconcile-interval-ms:600000}",
+            fixedDelayString = "${app.reactions.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        LocalDateTime since = LocalDateTime.now().minusDays(lookbackDays);
+        int[] repaired = {0};
+        List<Long> channelIds = transactionTemplate.execute(status -> {
+            List<Long> drifted = messageRepository.findChannelIdsWithDriftedReactionCounts(since);
+            if (!drifted.isEmpty()) {
+                repaired[0] = messageRepository.reconcileReactionCounts(since, drifted);
+            }
+            return drifted;
+        });
+        if (channelIds == null || channelIds.isEmpty()) {
+            log.debug("Reaction counts are consistent");
+            return;
+        }
+        // After commit, so a reload cannot pick up the old counts again
+        channelIds.forEach(tailCache::invalidate);
+        log.warn("Repaired reaction counts on {} messages in {} channels", repaired[0], channelIds.size());
+    }
+}
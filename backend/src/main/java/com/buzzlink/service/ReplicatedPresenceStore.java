@@ -0,0 +1,170 @@
+package com.buzzlink.service;
+
+import com.buzzlink.cluster.ClusterEvent;
+import com.buzzlink.cluster.ClusterEventBus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Presence store shared by all nodes through the cluster event bus.
+ *
+ * Every node holds the full presence state. Local sessions are keyed
+ * "nodeId:sessionId" and kept alive by their own heartbeats. Other nodes'
+ * sessions are kept alive together by one periodic node heartbeat, so
+ * per-session heartbeats never cross the bus. When a node goes silent, all
+ * of its sessions expire with it. A starting node asks the others to replay
+ * their sessions.
+ */
+@Component
+@ConditionalOnProperty(name = "app.presence.store", havingValue = "replicated")
+@Slf4j
+public class ReplicatedPresenceStore implements PresenceStore {
+
+    private final InMemoryPresenceStore state = new InMemoryPresenceStore();
+    private final ClusterEventBus clusterEventBus;
+    private final String localNodeId;
+    private final String localPrefix;
+
+    // nodeId -> last heartbeat, shared by all sessions of that node
+    private final Map<String, AtomicLong> nodeLastSeen = new ConcurrentHashMap<>();
+
+    public ReplicatedPresenceStore(ClusterEventBus clusterEventBus) {
+        this.clusterEventBus = clusterEventBus;
+        this.localNodeId = clusterEventBus.getNodeId();
+        this.localPrefix = localNodeId + ":";
+
+        clusterEventBus.subscribe(ClusterEvent.PRESENCE_JOINED, event -> state.join(
+                remoteKey(event), event.clerkId(), event.channelId(), nodeClock(event.originNodeId())));
+        clusterEventBus.subscribe(ClusterEvent.PRESENCE_LEFT, event ->
+                state.leave(remoteKey(event), event.channelId()));
+        clusterEventBus.subscribe(ClusterEvent.PRESENCE_DISCONNECTED, event ->
+                state.removeSession(remoteKey(event)));
+        clusterEventBus.subscribe(ClusterEvent.PRESENCE_HEARTBEAT, event ->
+                nodeClock(event.originNodeId()).set(System.currentTimeMillis()));
+        clusterEventBus.subscribe(ClusterEvent.PRESENCE_SYNC_REQUEST, event -> replayLocalSessions());
+    }
+
+    @Override
+    public Optional<PresenceChange> join(String sessionId, String clerkId, Long channelId) {
+        Optional<PresenceChange> change = state.join(localPrefix + sessionId, clerkId, channelId);
+        clusterEventBus.publish(ClusterEvent.PRESENCE_JOINED, channelId, clerkId, sessionId);
+        return change;
+    }
+
+    @Override
+    public Optional<PresenceChange> leave(String sessionId, Long channelId) {
+        Optional<PresenceChange> change = state.leave(localPrefix + sessionId, channelId);
+        clusterEventBus.publish(ClusterEvent.PRESENCE_LEFT, channelId, null, sessionId);
+        return change;
+    }
+
+    @Override
+    public List<PresenceChange> removeSession(String sessionId) {
+        List<PresenceChange> changes = state.removeSession(localPrefix + sessionId);
+        clusterEventBus.publish(ClusterEvent.PRESENCE_DISCONNECTED, null, null, sessionId);
+        return changes;
+    }
+
+    @Override
+    public void touch(String sessionId) {
+        state.touch(localPrefix + sessionId);
+    }
+
+    @Override
+    public List<PresenceChange> expireIdle(Duration ttl) {
+        boolean announcer = isAnnouncer(ttl);
+        List<PresenceChange> changes = new ArrayList<>();
+        for (String key : state.idleSessions(ttl)) {
+            if (key.startsWith(localPrefix)) {
+                // Our own silent client - tell the other nodes too
+                changes.addAll(removeSession(key.substring(localPrefix.length())));
+            } else {
+                // A silent node's sessions expire on every node, but only one
+                // node reports them so clients don't get the same delta from each
+                List<PresenceChange> remote = state.removeSession(key);
+                if (announcer) {
+                    changes.addAll(remote);
+                }
+            }
+        }
+        // Sessions sharing a silent node's clock were all just expired above
+        long cutoff = System.currentTimeMillis() - ttl.toMillis();
+        nodeLastSeen.values().removeIf(lastSeen -> lastSeen.get() < cutoff);
+        return changes;
+    }
+
+    /**
+     * The live node with the lowest ID announces
+     */
+    @Override
+    public boolean isAnnouncer(Duration ttl) {
+        long cutoff = System.currentTimeMillis() - ttl.toMillis();
+        return nodeLastSeen.entrySet().stream()
+                .filter(node -> node.getValue().get() >= cutoff)
+                .map(Map.Entry::getKey)
+                .noneMatch(nodeId -> nodeId.compareTo(localNodeId) < 0);
+    }
+
+    @Override
+    public Set<Long> getActiveChannels() {
+        return state.getActiveChannels();
+    }
+
+    @Override
+    public Set<String> getOnlineUsers(Long channelId) {
+        return state.getOnlineUsers(channelId);
+    }
+
+    @Override
+    public int getOnlineCount(Long channelId) {
+        return state.getOnlineCount(channelId);
+    }
+
+    /**
+     * Keep this node's sessions alive on the other nodes
+     */
+    @Scheduled(fixedDelayString = "${app.presence.node-heartbeat-ms:10000}")
+    public void publishHeartbeat() {
+        clusterEventBus.publish(ClusterEvent.PRESENCE_HEARTBEAT, null, null, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void requestSync() {
+        clusterEventBus.publish(ClusterEvent.PRESENCE_SYNC_REQUEST, null, null, null);
+    }
+
+    private void replayLocalSessions() {
+        for (String key : state.sessionIds()) {
+            if (!key.startsWith(localPrefix)) {
+                continue;
+            }
+            String clerkId = state.clerkIdOf(key);
+            String sessionId = key.substring(localPrefix.length());
+            for (Long channelId : state.channelsOf(key)) {
+                clusterEventBus.publish(ClusterEvent.PRESENCE_JOINED, channelId, clerkId, sessionId);
+            }
+        }
+        log.debug("Replayed local presence for a joining node");
+    }
+
+    private AtomicLong nodeClock(String nodeId) {
+        return nodeLastSeen.computeIfAbsent(nodeId, id -> new AtomicLong(System.currentTimeMillis()));
+    }
+
+    private static String remoteKey(ClusterEvent event) {
+        return event.originNodeId() + ":" + event.sessionId();
+    }
+}
@@ -0,0 +1,170 @@
+package com.buzzlink.service;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Space-Saving summary: the heaviest keys of a stream in a fixed number of counters.
+ *
+ * When all counters are taken, a new key replaces the key with the smallest
+ * count and inherits that count as its error, so reported counts are upper
+ * bounds that exceed the true count by at most {@link Entry#error()}. Any key
+ * whose true count is above total/capacity is guaranteed to be present.
+ * Summaries merge by adding counters, so a window is the merge of its
+ * slices. Updates are O(log capacity). Not thread-safe.
+ */
+public final class SpaceSaving {
+
+    private final int capacity;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    // Entries grouped by count, so the minimum is found without a scan
+    private final TreeMap<Long, Set<Entry>> byCount = new TreeMap<>();
+
+    public SpaceSaving(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public void offer(long key, long increment) {
+        offer(key, increment, 0);
+    }
+
+    /**
+     * Add to a key's count; error is carried over when merging another summary
+     */
+    public void offer(long key, long increment, long error) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            unindex(entry);
+            entry.count += increment;
+            entry.error += error;
+            index(entry);
+            return;
+        }
+        if (entries.size() < capacity) {
+            entry = new Entry(key, increment, error);
+        } else {
+            Map.Entry<Long, Set<Entry>> smallest = byCount.firstEntry();
+            Entry evicted = smallest.getValue().iterator().next();
+            unindex(evicted);
+            entries.remove(evicted.key);
+            entry = new Entry(key, evicted.count + increment, evicted.count + error);
+        }
+        entries.put(key, entry);
+        index(entry);
+    }
+
+    /**
+     * Fold another summary's counters into this one
+     */
+    public void merge(SpaceSaving other) {
+        for (Entry entry : other.entries.values()) {
+            offer(entry.key, entry.count, entry.error);
+        }
+    }
+
+    /**
+     * Up to n entries, highest count first
+     */
+    public List<Entry> top(int n) {
+        List<Entry> top = new ArrayList<>(Math.min(n, entries.size()));
+        for (Set<Entry> bucket : byCount.descendingMap().values()) {
+            for (Entry entry : bucket) {
+                if (top.size() == n) {
+                    return top;
+                }
+                top.add(entry);
+            }
+        }
+        return top;
+    }
+
+    public List<Entry> entries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Serialized form: capacity, entry count, then key, count and error per entry
+     */
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Integer.BYTES + entries.size() * 3 * Long.BYTES);
+        buffer.putInt(capacity).putInt(entries.size());
+        for (Entry entry : entries.values()) {
+            buffer.putLong(entry.key).putLong(entry.count).putLong(entry.error);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Restore a summary; entries are folded into the given capacity if it has shrunk since
+     */
+    public static SpaceSaving fromBytes(byte[] bytes, int capacity) {
+        SpaceSaving summary = new SpaceSaving(capacity);
+        if (bytes == null || bytes.length == 0) {
+            return summary;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.getInt();
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            summary.offer(buffer.getLong(), buffer.getLong(), buffer.getLong());
+        }
+        return summary;
+    }
+
+    private void index(Entry entry) {
+        byCount.computeIfAbsent(entry.count, count -> new LinkedHashSet<>()).add(entry);
+    }
+
+    private void unindex(Entry entry) {
+        Set<Entry> bucket = byCount.get(entry.count);
+        bucket.remove(entry);
+        if (bucket.isEmpty()) {
+            byCount.remove(entry.count);
+        }
+    }
+
+    /**
+     * A tracked key; identity-based so it can move between count buckets
+     */
+    public static final class Entry {
+
+        private final long key;
+        private long count;
+        private long error;
+
+        Entry(long key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public long key() {
+            return key;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        /**
+         * Most the count can exceed the true count by
+         */
+        public long error() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.buzzlink.service;
+
+import com.buzzlink.dto.IdCount;
+import com.buzzlink.entity.MessageRollup;
+import com.buzzlink.entity.RollupCheckpoint;
+import com.buzzlink.entity.TopKSlice;
+import com.buzzlink.repository.RollupCheckpointRepository;
+import com.buzzlink.repository.TopKSliceRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Heaviest users, channels and workspaces by message count over the last
+ * hour, day and 30 days, in bounded memory. All-time rankings are exact
+ * grouped queries over the daily rollups instead (see {@link AnalyticsService}).
+ *
+ * Each window is split into slices (5 minutes, 1 hour, 1 day) with one
+ * {@link SpaceSaving} summary per slice, so a ranking costs a merge of a fixed
+ * number of fixed-size summaries however many messages were sent. Messages
+ * are added to in-memory summaries which are merged into the stored slices
+ * every snapshot interval (optimistic locking; a conflicting snapshot is
+ * retried next time), and every node then reloads the stored slices, so
+ * rankings cover the whole cluster and survive restarts. Rankings report
+ * each key's guaranteed count (its Space-Saving count minus the error), a
+ * lower bound on the true count; deletions are not subtracted.
+ *
+ * Slices from before tracking started are seeded once from the rollups after
+ * the rollup backfill has finished; the 1-hour window has no rollups finer
+ * than an hour and fills up live.
+ */
+@Component
+@Slf4j
+public class TopKTracker {
+
+    static final String CHECKPOINT_NAME = "top_k_slices";
+
+    /**
+     * Windows tracked here; {@link TopKSlice.Window#ALL} is served from the rollups
+     */
+    static final List<TopKSlice.Window> WINDOWS =
+            List.of(TopKSlice.Window.HOUR, TopKSlice.Window.DAY, TopKSlice.Window.MONTH);
+
+    private static final String LOCK_CHECKPOINT_SQL =
+            "SELECT completed_at FROM rollup_checkpoints WHERE name = ? FOR UPDATE";
+
+    private final TopKSliceRepository sliceRepository;
+    private final RollupCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacity;
+
+    private final LocalDateTime liveSince = LocalDateTime.now();
+    private final Map<SliceKey, SpaceSaving> pending = new ConcurrentHashMap<>();
+    // Stored slices merged per window as of the last snapshot; never modified once published
+    private volatile Map<ViewKey, SpaceSaving> view = Map.of();
+
+    public TopKTracker(
+            TopKSliceRepository sliceRepository,
+            RollupCheckpointRepository checkpointRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.analytics.top-k.capacity:200}") int capacity) {
+        this.sliceRepository = sliceRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // A serialized summary must fit the summary column
+        this.capacity = Math.min(Math.max(capacity, 10), 2000);
+
+        Gauge.builder("buzzlink.analytics.top-k.pending", pending, Map::size)
+                .description("Top-K slices with unsnapshotted additions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Count a new message towards its sender, channel and workspace
+     */
+    public void record(long workspaceId, long channelId, long senderId, LocalDateTime createdAt) {
+        LocalDateTime now = LocalDateTime.now();
+        for (TopKSlice.Window window : WINDOWS) {
+            LocalDateTime slice = window.sliceOf(createdAt);
+            if (slice.isBefore(window.oldestSlice(now))) {
+                continue;
+            }
+            add(new SliceKey(TopKSlice.Dimension.USER, window, slice), senderId);
+            add(new SliceKey(TopKSlice.Dimension.CHANNEL, window, slice), channelId);
+            add(new SliceKey(TopKSlice.Dimension.WORKSPACE, window, slice), workspaceId);
+        }
+    }
+
+    /**
+     * Up to n IDs with the most messages in the window, highest first, with
+     * counts that are lower bounds (never more than were actually sent)
+     *
+     * @throws IllegalArgumentException for {@link TopKSlice.Window#ALL}, which is not tracked here
+     */
+    public List<IdCount> top(TopKSlice.Dimension dimension, TopKSlice.Window window, int n) {
+        if (!WINDOWS.contains(window)) {
+            throw new IllegalArgumentException("Window " + window + " is not tracked by the top-K summaries");
+        }
+        SpaceSaving merged = new SpaceSaving(capacity);
+        SpaceSaving stored = view.get(new ViewKey(dimension, window));
+        if (stored != null) {
+            merged.merge(stored);
+        }
+        // Include additions that have not been snapshotted yet
+        LocalDateTime oldest = window.oldestSlice(LocalDateTime.now());
+        for (SliceKey key : pending.keySet()) {
+            if (key.dimension() == dimension && key.window() == window && !key.sliceStart().isBefore(oldest)) {
+                pending.computeIfPresent(key, (k, additions) -> {
+                    merged.merge(additions);
+                    return additions;
+                });
+            }
+        }
+        // Rank by guaranteed count, so a key that inherited a large error is not shown above its due
+        return merged.entries().stream()
+                .map(entry -> new IdCount(entry.key(), entry.count() - entry.error()))
+                .filter(count -> count.count() > 0)
+                .sorted(Comparator.comparing(IdCount::count, Comparator.reverseOrder()))
+                .limit(n)
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.top-k.snapshot-ms:15000}")
+    public void snapshot() {
+        for (SliceKey key : pending.keySet()) {
+            // After remove() no record() can touch this summary; later additions start a new one
+            SpaceSaving additions = pending.remove(key);
+            if (additions == null) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> mergeInto(key, additions));
+            } catch (Exception e) {
+                // Optimistic lock or unique key conflict with another node; retry next snapshot
+                pending.merge(key, additions, (current, failed) -> {
+                    current.merge(failed);
+                    return current;
+                });
+                log.debug("Top-K snapshot for {} deferred: {}", key, e.getMessage());
+            }
+        }
+        try {
+            prune();
+            reload();
+        } catch (Exception e) {
+            log.warn("Top-K reload failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Seed slices from before tracking started out of the rollups, once per cluster
+     */
+    @Scheduled(initialDelayString = "${app.analytics.top-k.seed-initial-delay-ms:60000}",
+            fixedDelayString = "${app.analytics.top-k.seed-interval-ms:60000}")
+    public void seed() {
+        try {
+            RollupCheckpoint checkpoint = loadOrCreateCheckpoint();
+            boolean rollupsComplete = checkpointRepository.findById(MessageRollupBackfillJob.CHECKPOINT_NAME)
+                    .map(rollups -> rollups.getCompletedAt() != null)
+                    .orElse(false);
+            if (checkpoint.getCompletedAt() != null || !rollupsComplete) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> seedFromRollups(checkpoint.getCutoff()));
+            reload();
+        } catch (Exception e) {
+            log.warn("Top-K seed failed: {}", e.getMessage());
+        }
+    }
+
+    private void seedFromRollups(LocalDateTime cutoff) {
+        // Lock the checkpoint so only one node seeds
+        if (jdbcTemplate.queryForObject(LOCK_CHECKPOINT_SQL, Timestamp.class, CHECKPOINT_NAME) != null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<SliceKey, SpaceSaving> seeded = new HashMap<>();
+        for (TopKSlice.Dimension dimension : TopKSlice.Dimension.values()) {
+            seedWindow(seeded, dimension, TopKSlice.Window.DAY, MessageRollup.Granularity.HOUR, cutoff, now);
+            seedWindow(seeded, dimension, TopKSlice.Window.MONTH, MessageRollup.Granularity.DAY, cutoff, now);
+        }
+        seeded.forEach(this::mergeInto);
+        jdbcTemplate.update("UPDATE rollup_checkpoints SET completed_at = ? WHERE name = ?",
+                Timestamp.valueOf(now), CHECKPOINT_NAME);
+        log.info("Top-K slices seeded from rollups: {} slices", seeded.size());
+    }
+
+    /**
+     * Fold the rollup buckets that end before the cutoff into the window's slices
+     */
+    private void seedWindow(Map<SliceKey, SpaceSaving> seeded, TopKSlice.Dimension dimension,
+            TopKSlice.Window window, MessageRollup.Granularity granularity, LocalDateTime cutoff, LocalDateTime now) {
+        LocalDateTime from = window.oldestSlice(now);
+        LocalDateTime to = granularity.bucketOf(cutoff);
+        if (!from.isBefore(to)) {
+            return;
+        }
+        String sql = "SELECT bucket_start, " + dimension.rollupColumn() + " AS item_id, " +
+                "SUM(message_count) AS total FROM message_rollups " +
+                "WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ? " +
+                "GROUP BY bucket_start, " + dimension.rollupColumn();
+        jdbcTemplate.query(sql, rs -> {
+            long total = rs.getLong("total");
+            if (total > 0) {
+                LocalDateTime slice = window.sliceOf(rs.getTimestamp("bucket_start").toLocalDateTime());
+                seeded.computeIfAbsent(new SliceKey(dimension, window, slice), key -> new SpaceSaving(capacity))
+                        .offer(rs.getLong("item_id"), total);
+            }
+        }, granularity.name(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    private RollupCheckpoint loadOrCreateCheckpoint() {
+        return checkpointRepository.findById(CHECKPOINT_NAME).orElseGet(() -> {
+            try {
+                return checkpointRepository.save(new RollupCheckpoint(CHECKPOINT_NAME, liveSince, 0L, null));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created it first
+                return checkpointRepository.findById(CHECKPOINT_NAME).orElseThrow();
+            }
+        });
+    }
+
+    private void mergeInto(SliceKey key, SpaceSaving additions) {
+        TopKSlice stored = sliceRepository
+                .findByDimensionAndWindowAndSliceStart(key.dimension(), key.window(), key.sliceStart())
+                .orElseGet(() -> {
+                    TopKSlice created = new TopKSlice();
+                    created.setDimension(key.dimension());
+                    created.setWindow(key.window());
+                    created.setSliceStart(key.sliceStart());
+                    return created;
+                });
+        SpaceSaving summary = SpaceSaving.fromBytes(stored.getSummary(), capacity);
+        summary.merge(additions);
+        stored.setSummary(summary.toBytes());
+        sliceRepository.save(stored);
+    }
+
+    private void prune() {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (TopKSlice.Window window : WINDOWS) {
+                sliceRepository.deleteOlderThan(window, window.oldestSlice(now));
+            }
+        });
+    }
+
+    /**
+     * Rebuild the per-window view from the stored slices
+     */
+    private void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<ViewKey, SpaceSaving> reloaded = new HashMap<>();
+        for (TopKSlice slice : sliceRepository.findAll()) {
+            if (!WINDOWS.contains(slice.getWindow())
+                    || slice.getSliceStart().isBefore(slice.getWindow().oldestSlice(now))) {
+                continue;
+            }
+            reloaded.computeIfAbsent(new ViewKey(slice.getDimension(), slice.getWindow()),
+                            key -> new SpaceSaving(capacity))
+                    .merge(SpaceSaving.fromBytes(slice.getSummary(), capacity));
+        }
+        view = reloaded;
+    }
+
+    private void add(SliceKey key, long id) {
+        pending.compute(key, (k, summary) -> {
+            SpaceSaving target = summary != null ? summary : new SpaceSaving(capacity);
+            target.offer(id, 1);
+            return target;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    private record SliceKey(TopKSlice.Dimension dimension, TopKSlice.Window window, LocalDateTime sliceStart) {
+    }
+
+    private record ViewKey(TopKSlice.Dimension dimension, TopKSlice.Window window) {
+    }
+}
@@ -0,0 +1,217 @@
+package com.buzzlink.service;
+
+import com.buzzlink.cluster.ClusterEvent;
+import com.buzzlink.cluster.ClusterEventBus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToLongFunction;
+
+/**
+ * Per-user unread counters, so count reads and pushes do not query the database.
+ *
+ * Stored notifications are counted exactly: an entry is loaded from the
+ * database on a miss and then adjusted in place (NotificationService calls
+ * {@link #adjust} after its transactions commit). The channel-activity part,
+ * derived from read cursors, changes with every message in every channel, so
+ * it is only cached for a short TTL and dropped when the user reads a channel.
+ *
+ * Entries live in a ConcurrentHashMap and are updated with atomics; a load
+ * only populates the cache if no adjustment for that user's stripe happened
+ * during it. Other nodes are told to drop their copy over the cluster bus.
+ */
+@Component
+@Slf4j
+public class UnreadCounterCache {
+
+    private static final int WRITE_STAMP_STRIPES = 1024;
+    // Users named per invalidation event, so a large fan-out costs a few events, not one per user
+    private static final int INVALIDATION_CHUNK = 500;
+
+    private final ClusterEventBus clusterEventBus;
+    private final boolean enabled;
+    private final long ttlMs;
+    private final long channelActivityTtlMs;
+    private final int maxEntries;
+
+    // clerkId -> stored unread notification count
+    private final Map<String, CachedCount> stored = new ConcurrentHashMap<>();
+    // clerkId -> number of channels with unread messages
+    private final Map<String, CachedCount> channelActivity = new ConcurrentHashMap<>();
+    private final AtomicLongArray writeStamps = new AtomicLongArray(WRITE_STAMP_STRIPES);
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public UnreadCounterCache(
+            ClusterEventBus clusterEventBus,
+            MeterRegistry meterRegistry,
+            @Value("${app.notifications.unread-cache.enabled:true}") boolean enabled,
+            @Value("${app.notifications.unread-cache.ttl-ms:300000}") long ttlMs,
+            @Value("${app.notifications.unread-cache.channel-activity-ttl-ms:15000}") long channelActivityTtlMs,
+            @Value("${app.notifications.unread-cache.max-entries:100000}") int maxEntries) {
+        this.clusterEventBus = clusterEventBus;
+        this.enabled = enabled;
+        this.ttlMs = ttlMs;
+        this.channelActivityTtlMs = channelActivityTtlMs;
+        this.maxEntries = maxEntries;
+
+        this.hits = Counter.builder("buzzlink.notifications.unread.cache.requests")
+                .tag("result", "hit")
+                .description("Unread count lookups served from memory")
+                .register(meterRegistry);
+        this.misses = Counter.builder("buzzlink.notifications.unread.cache.requests")
+                .tag("result", "miss")
+                .description("Unread count lookups that went to the database")
+                .register(meterRegistry);
+        Gauge.builder("buzzlink.notifications.unread.cache.users", stored, Map::size)
+                .description("Users with a cached unread counter")
+                .register(meterRegistry);
+
+        clusterEventBus.subscribe(ClusterEvent.UNREAD_CHANGED, event -> {
+            if (event.clerkIds() != null) {
+                event.clerkIds().forEach(this::dropLocal);
+            } else if (event.clerkId() != null) {
+                dropLocal(event.clerkId());
+            } else {
+                stored.clear();
+                channelActivity.clear();
+            }
+        });
+    }
+
+    /**
+     * Stored unread notifications for a user
+     *
+     * @param loader Database count, called on a miss
+     */
+    public long getStoredUnread(String clerkId, ToLongFunction<String> loader) {
+        return get(stored, ttlMs, clerkId, loader);
+    }
+
+    /**
+     * Channels with unread messages for a user
+     *
+     * @param loader Database count, called on a miss
+     */
+    public long getChannelActivity(String clerkId, ToLongFunction<String> loader) {
+        return get(channelActivity, channelActivityTtlMs, clerkId, loader);
+    }
+
+    /**
+     * Apply a committed change to a user's stored unread count
+     */
+    public void adjust(String clerkId, long delta) {
+        applyLocal(clerkId, delta);
+        clusterEventBus.publish(ClusterEvent.UNREAD_CHANGED, null, clerkId, null);
+    }
+
+    /**
+     * Apply the same committed change to many users, e.g. after a fan-out batch
+     */
+    public void adjustAll(Collection<String> clerkIds, long delta) {
+        clerkIds.forEach(clerkId -> applyLocal(clerkId, delta));
+        List<String> users = List.copyOf(clerkIds);
+        for (int from = 0; from < users.size(); from += INVALIDATION_CHUNK) {
+            clusterEventBus.publishForUsers(ClusterEvent.UNREAD_CHANGED,
+                    users.subList(from, Math.min(from + INVALIDATION_CHUNK, users.size())));
+        }
+    }
+
+    /**
+     * Drop the cached channel activity after a user moved a read cursor
+     */
+    public void invalidateChannelActivity(String clerkId) {
+        writeStamps.incrementAndGet(stripe(clerkId));
+        channelActivity.remove(clerkId);
+        clusterEventBus.publish(ClusterEvent.UNREAD_CHANGED, null, clerkId, null);
+    }
+
+    /**
+     * Drop everything, e.g. after notifications were deleted in bulk
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < WRITE_STAMP_STRIPES; i++) {
+            writeStamps.incrementAndGet(i);
+        }
+        stored.clear();
+        channelActivity.clear();
+        clusterEventBus.publish(ClusterEvent.UNREAD_CHANGED, null, null, null);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.unread-cache.ttl-ms:300000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        stored.values().removeIf(count -> count.isExpired(now, ttlMs));
+        channelActivity.values().removeIf(count -> count.isExpired(now, channelActivityTtlMs));
+    }
+
+    private long get(Map<String, CachedCount> cache, long ttl, String clerkId, ToLongFunction<String> loader) {
+        if (!enabled) {
+            return loader.applyAsLong(clerkId);
+        }
+        CachedCount cached = cache.get(clerkId);
+        if (cached != null && !cached.isExpired(System.currentTimeMillis(), ttl)) {
+            hits.increment();
+            return cached.value.get();
+        }
+
+        misses.increment();
+        int stripe = stripe(clerkId);
+        long stamp = writeStamps.get(stripe);
+        long loaded = loader.applyAsLong(clerkId);
+        if (cache.size() < maxEntries) {
+            // Checked inside compute so a concurrent adjust either sees the new entry or invalidated the load
+            cache.compute(clerkId, (key, current) -> {
+                if (writeStamps.get(stripe) != stamp) {
+                    return current;
+                }
+                return new CachedCount(loaded);
+            });
+        }
+        return loaded;
+    }
+
+    private void applyLocal(String clerkId, long delta) {
+        writeStamps.incrementAndGet(stripe(clerkId));
+        stored.computeIfPresent(clerkId, (key, count) -> {
+            count.value.updateAndGet(value -> Math.max(0, value + delta));
+            return count;
+        });
+    }
+
+    private void dropLocal(String clerkId) {
+        writeStamps.incrementAndGet(stripe(clerkId));
+        stored.remove(clerkId);
+        channelActivity.remove(clerkId);
+    }
+
+    private static int stripe(String clerkId) {
+        return Math.floorMod(clerkId.hashCode(), WRITE_STAMP_STRIPES);
+    }
+
+    private static final class CachedCount {
+
+        private final AtomicLong value;
+        private final long loadedAt = System.currentTimeMillis();
+
+        CachedCount(long value) {
+            this.value = new AtomicLong(value);
+        }
+
+        boolean isExpired(long now, long ttl) {
+            return now - loadedAt > ttl;
+        }
+    }
+}
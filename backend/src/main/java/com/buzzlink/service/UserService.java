@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -23,6 +24,9 @@ public class UserService {
     @Autowired
     private InvitationService invitationService;
 
+    @Autowired
+    private WorkspaceMemberDirectory memberDirectory;
+
     public UserService(UserRepository userRepository) {
         this.userRepository = userRepository;
     }
@@ -45,6 +49,9 @@ public class UserService {
         if (existingUser.isPresent()) {
             // Update existing user
             User user = existingUser.get();
+            if (!Objects.equals(user.getDisplayName(), displayName)) {
+                memberDirectory.invalidateAll();
+            }
             user.setDisplayName(displayName);
             user.setEmail(email);
             if (avatarUrl != null) {
@@ -79,6 +86,9 @@ public class UserService {
             .orElseThrow(() -> new RuntimeException("User not found"));
 
         if (displayName != null) {
+            if (!displayName.equals(user.getDisplayName())) {
+                memberDirectory.invalidateAll();
+            }
             user.setDisplayName(displayName);
         }
         if (avatarUrl != null) {
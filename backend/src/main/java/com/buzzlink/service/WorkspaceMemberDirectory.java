@@ -0,0 +1,151 @@
+package com.buzzlink.service;
+
+import com.buzzlink.cluster.ClusterEvent;
+import com.buzzlink.cluster.ClusterEventBus;
+import com.buzzlink.dto.MentionCandidate;
+import com.buzzlink.repository.UserWorkspaceMemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory member directory per workspace, indexed by display name prefix.
+ *
+ * Used to resolve {@code @displayName} mentions without a query per token.
+ * Display names may contain spaces, so a mention resolves to the longest
+ * member name that the text after {@code @} starts with. Directories are
+ * built lazily from one query, dropped after membership or name changes
+ * (locally after commit, on other nodes over the cluster bus) and rebuilt
+ * after a TTL as a safety net.
+ */
+@Component
+@Slf4j
+public class WorkspaceMemberDirectory {
+
+    private final UserWorkspaceMemberRepository memberRepository;
+    private final ClusterEventBus clusterEventBus;
+    private final long ttlMs;
+
+    private final Map<Long, Directory> directories = new ConcurrentHashMap<>();
+
+    public WorkspaceMemberDirectory(
+            UserWorkspaceMemberRepository memberRepository,
+            ClusterEventBus clusterEventBus,
+            @Value("${app.mentions.directory-ttl-ms:600000}") long ttlMs) {
+        this.memberRepository = memberRepository;
+        this.clusterEventBus = clusterEventBus;
+        this.ttlMs = ttlMs;
+
+        clusterEventBus.subscribe(ClusterEvent.MEMBERS_CHANGED, event -> {
+            if (event.workspaceId() != null) {
+                directories.remove(event.workspaceId());
+            } else {
+                directories.clear();
+            }
+        });
+    }
+
+    /**
+     * Members whose display name is the longest one that text starts with at
+     * offset, ending at a word boundary. Several members can share a name.
+     *
+     * @return Matched members and the length of the matched name, if any
+     */
+    public Optional<Match> longestMatch(Long workspaceId, String text, int offset) {
+        Node node = directory(workspaceId).root;
+        Match best = null;
+        for (int i = offset; i < text.length() && node != null; i++) {
+            node = node.children.get(Character.toLowerCase(text.charAt(i)));
+            if (node != null && !node.members.isEmpty() && isBoundary(text, i + 1)) {
+                best = new Match(node.members, i + 1 - offset);
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * A workspace member by Clerk ID, e.g. to map present users to recipients
+     */
+    public Optional<MentionCandidate> findByClerkId(Long workspaceId, String clerkId) {
+        return Optional.ofNullable(directory(workspaceId).byClerkId.get(clerkId));
+    }
+
+    /**
+     * Drop a workspace's directory after its membership changed.
+     * Deferred until the current transaction commits, if there is one.
+     */
+    public void invalidate(Long workspaceId) {
+        TransactionCallbacks.afterCommit(() -> {
+            directories.remove(workspaceId);
+            clusterEventBus.publishForWorkspace(ClusterEvent.MEMBERS_CHANGED, workspaceId);
+        });
+    }
+
+    /**
+     * Drop every directory, e.g. after a user changed their display name
+     */
+    public void invalidateAll() {
+        TransactionCallbacks.afterCommit(() -> {
+            directories.clear();
+            clusterEventBus.publish(ClusterEvent.MEMBERS_CHANGED, null, null, null);
+        });
+    }
+
+    private Directory directory(Long workspaceId) {
+        Directory directory = directories.get(workspaceId);
+        if (directory == null || System.currentTimeMillis() - directory.loadedAt > ttlMs) {
+            directory = Directory.build(memberRepository.findMentionCandidates(workspaceId));
+            directories.put(workspaceId, directory);
+            log.debug("Built member directory for workspace {} ({} members)", workspaceId, directory.byClerkId.size());
+        }
+        return directory;
+    }
+
+    private static boolean isBoundary(String text, int index) {
+        return index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    /**
+     * Members matched by a mention, and how many characters of the text the name covered
+     */
+    public record Match(List<MentionCandidate> members, int length) {
+    }
+
+    /**
+     * Immutable once built; rebuilt as a whole on change
+     */
+    private static final class Directory {
+
+        private final Node root = new Node();
+        private final Map<String, MentionCandidate> byClerkId = new HashMap<>();
+        private final long loadedAt = System.currentTimeMillis();
+
+        static Directory build(List<MentionCandidate> members) {
+            Directory directory = new Directory();
+            for (MentionCandidate member : members) {
+                directory.byClerkId.put(member.clerkId(), member);
+                if (member.displayName() == null || member.displayName().isBlank()) {
+                    continue;
+                }
+                Node node = directory.root;
+                for (char c : member.displayName().trim().toCharArray()) {
+                    node = node.children.computeIfAbsent(Character.toLowerCase(c), key -> new Node());
+                }
+                node.members.add(member);
+            }
+            return directory;
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final List<MentionCandidate> members = new ArrayList<>(1);
+    }
+}
@@ -29,6 +29,9 @@ public class WorkspaceService {
     @Autowired
     private com.buzzlink.repository.ChannelRepository channelRepository;
 
+    @Autowired
+    private WorkspaceMemberDirectory memberDirectory;
+
     /**
      * Get all workspaces a user is a member of
      */
@@ -83,6 +86,7 @@ public class WorkspaceService {
             UserWorkspaceMember.Role.OWNER
         );
         memberRepository.save(membership);
+        memberDirectory.invalidate(workspace.getId());
 
         // Auto-create #general channel
         com.buzzlink.entity.Channel generalChannel = new com.buzzlink.entity.Channel();
@@ -112,6 +116,7 @@ public class WorkspaceService {
 
         UserWorkspaceMember membership = new UserWorkspaceMember(user, workspace, role);
         memberRepository.save(membership);
+        memberDirectory.invalidate(workspaceId);
     }
 
     /**
@@ -0,0 +1,154 @@
+package com.buzzlink.websocket;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.broker.AbstractSubscriptionRegistry;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.PathMatcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Subscription registry that indexes subscriptions by exact destination.
+ *
+ * The default registry matches every broadcast against all subscriptions, so
+ * its cost grows with the total number of subscriptions on the node. Clients
+ * here only subscribe to concrete destinations ({@code /topic/channel.42}), so
+ * a lookup is a single map get and the cost of a broadcast depends only on the
+ * size of the channel. Pattern subscriptions still work but are scanned.
+ *
+ * Per-destination results are cached as snapshots until the next subscribe or
+ * unsubscribe on that destination. STOMP {@code selector} headers are ignored.
+ */
+public class DestinationIndexedSubscriptionRegistry extends AbstractSubscriptionRegistry {
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    // destination -> subscribers, for concrete destinations
+    private final Map<String, DestinationSubscriptions> exact = new ConcurrentHashMap<>();
+    // pattern -> subscribers, matched by scanning (rare)
+    private final Map<String, DestinationSubscriptions> patterns = new ConcurrentHashMap<>();
+    // sessionId -> subscriptionId -> destination, for unsubscribe and disconnect
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    protected void addSubscriptionInternal(String sessionId, String subscriptionId, String destination,
+            Message<?> message) {
+        String previous = sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                .put(subscriptionId, destination);
+        if (previous != null && !previous.equals(destination)) {
+            // Subscription ID reused for a new destination
+            remove(previous, sessionId, subscriptionId);
+        }
+        indexFor(destination).compute(destination, (key, subscriptions) -> {
+            DestinationSubscriptions result = subscriptions != null ? subscriptions : new DestinationSubscriptions();
+            result.add(sessionId, subscriptionId);
+            return result;
+        });
+    }
+
+    @Override
+    protected void removeSubscriptionInternal(String sessionId, String subscriptionId, Message<?> message) {
+        Map<String, String> subscriptions = sessions.get(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        String destination = subscriptions.remove(subscriptionId);
+        if (destination != null) {
+            remove(destination, sessionId, subscriptionId);
+        }
+    }
+
+    @Override
+    public void unregisterAllSubscriptions(String sessionId) {
+        Map<String, String> subscriptions = sessions.remove(sessionId);
+        if (subscriptions != null) {
+            subscriptions.forEach((subscriptionId, destination) -> remove(destination, sessionId, subscriptionId));
+        }
+    }
+
+    @Override
+    protected MultiValueMap<String, String> findSubscriptionsInternal(String destination, Message<?> message) {
+        DestinationSubscriptions direct = exact.get(destination);
+        MultiValueMap<String, String> result = direct != null ? direct.snapshot() : null;
+        if (patterns.isEmpty()) {
+            return result != null ? result : CollectionUtils.unmodifiableMultiValueMap(new LinkedMultiValueMap<>());
+        }
+
+        LinkedMultiValueMap<String, String> merged = new LinkedMultiValueMap<>();
+        if (result != null) {
+            merged.addAll(result);
+        }
+        patterns.forEach((pattern, subscriptions) -> {
+            if (pathMatcher.match(pattern, destination)) {
+                subscriptions.snapshot().forEach((sessionId, subscriptionIds) -> {
+                    for (String subscriptionId : subscriptionIds) {
+                        if (!merged.getOrDefault(sessionId, Collections.emptyList()).contains(subscriptionId)) {
+                            merged.add(sessionId, subscriptionId);
+                        }
+                    }
+                });
+            }
+        });
+        return merged;
+    }
+
+    private void remove(String destination, String sessionId, String subscriptionId) {
+        indexFor(destination).computeIfPresent(destination, (key, subscriptions) ->
+                subscriptions.remove(sessionId, subscriptionId) ? null : subscriptions);
+    }
+
+    private Map<String, DestinationSubscriptions> indexFor(String destination) {
+        return pathMatcher.isPattern(destination) ? patterns : exact;
+    }
+
+    /**
+     * Subscribers of one destination. Mutations happen inside the index's
+     * compute calls; readers use the cached snapshot.
+     */
+    private static final class DestinationSubscriptions {
+
+        private final Map<String, Set<String>> bySession = new ConcurrentHashMap<>();
+        private volatile MultiValueMap<String, String> snapshot;
+
+        synchronized void add(String sessionId, String subscriptionId) {
+            bySession.computeIfAbsent(sessionId, id -> new LinkedHashSet<>()).add(subscriptionId);
+            snapshot = null;
+        }
+
+        /**
+         * @return true if the destination has no subscribers left
+         */
+        synchronized boolean remove(String sessionId, String subscriptionId) {
+            Set<String> subscriptionIds = bySession.get(sessionId);
+            if (subscriptionIds != null && subscriptionIds.remove(subscriptionId) && subscriptionIds.isEmpty()) {
+                bySession.remove(sessionId);
+            }
+            snapshot = null;
+            return bySession.isEmpty();
+        }
+
+        MultiValueMap<String, String> snapshot() {
+            MultiValueMap<String, String> current = snapshot;
+            if (current != null) {
+                return current;
+            }
+            synchronized (this) {
+                if (snapshot == null) {
+                    LinkedMultiValueMap<String, String> copy = new LinkedMultiValueMap<>(bySession.size());
+                    bySession.forEach((sessionId, subscriptionIds) ->
+                            copy.put(sessionId, new ArrayList<>(subscriptionIds)));
+                    snapshot = CollectionUtils.unmodifiableMultiValueMap(copy);
+                }
+                return snapshot;
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.buzzlink.websocket;
+
+import com.buzzlink.service.PresenceChange;
+import com.buzzlink.service.PresenceService;
+import com.buzzlink.websocket.dto.PresenceEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes presence updates to /topic/channel.{channelId}.presence, and removes
+ * sessions from presence when they disconnect or time out.
+ *
+ * Changes are coalesced per channel and flushed as one DELTA frame per
+ * broadcast window, so a burst of joins costs one frame instead of one
+ * full-set frame per join. Only the node that saw a change publishes it, so
+ * with a broker relay every client gets each delta once. A subscribing client
+ * gets a SNAPSHOT as the reply to its own subscription (see
+ * {@link WebSocketController#presenceSnapshot}), and the announcer node sends
+ * a SNAPSHOT of every active channel periodically so clients that missed a
+ * delta resync.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PresenceBroadcaster {
+
+    private final PresenceService presenceService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // channelId -> changes since the last flush
+    private final Map<Long, PendingDelta> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Queue a change for the next delta frame
+     */
+    public void record(PresenceChange change) {
+        pending.compute(change.channelId(), (id, delta) -> {
+            PendingDelta result = delta != null ? delta : new PendingDelta();
+            result.apply(change);
+            return result;
+        });
+    }
+
+    /**
+     * Queue a frame carrying just the current count, e.g. for a user's second tab
+     */
+    public void touch(Long channelId) {
+        pending.compute(channelId, (id, delta) -> {
+            PendingDelta result = delta != null ? delta : new PendingDelta();
+            result.changes++;
+            result.forceSend = true;
+            return result;
+        });
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        presenceService.sessionDisconnected(event.getSessionId()).forEach(this::record);
+    }
+
+    @Scheduled(fixedDelayString = "${app.presence.sweep-interval-ms:10000}")
+    public void expireIdleSessions() {
+        try {
+            presenceService.expireIdleSessions().forEach(this::record);
+        } catch (Exception e) {
+            log.warn("Presence expiry sweep failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Send one delta frame per channel that changed in this window
+     */
+    @Scheduled(fixedDelayString = "${app.presence.broadcast-window-ms:500}")
+    public void flushDeltas() {
+        for (Long channelId : pending.keySet()) {
+            PendingDelta delta = pending.remove(channelId);
+            if (delta == null) {
+                continue;
+            }
+            boolean send = delta.forceSend || !delta.joined.isEmpty() || !delta.left.isEmpty();
+            if (send) {
+                try {
+                    messagingTemplate.convertAndSend(destination(channelId), PresenceEvent.delta(
+                            channelId, delta.joined, delta.left, presenceService.getOnlineCount(channelId)));
+                } catch (Exception e) {
+                    log.warn("Failed to send presence delta for channel {}: {}", channelId, e.getMessage());
+                }
+            }
+            int suppressed = delta.changes - (send ? 1 : 0);
+            if (suppressed > 0) {
+                suppressedCounter(channelId).increment(suppressed);
+            }
+        }
+    }
+
+    /**
+     * Full online set of every active channel, for clients that missed a delta
+     */
+    @Scheduled(initialDelayString = "${app.presence.snapshot-interval-ms:30000}",
+            fixedDelayString = "${app.presence.snapshot-interval-ms:30000}")
+    public void broadcastSnapshots() {
+        if (!presenceService.isAnnouncer()) {
+            return;
+        }
+        for (Long channelId : presenceService.getActiveChannels()) {
+            try {
+                messagingTemplate.convertAndSend(destination(channelId),
+                        PresenceEvent.snapshot(channelId, presenceService.getOnlineUsers(channelId)));
+            } catch (Exception e) {
+                log.warn("Failed to send presence snapshot for channel {}: {}", channelId, e.getMessage());
+            }
+        }
+    }
+
+    private Counter suppressedCounter(Long channelId) {
+        return Counter.builder("buzzlink.presence.frames.suppressed")
+                .tag("channel", channelId.toString())
+                .description("Presence changes folded into another frame or cancelled out")
+                .register(meterRegistry);
+    }
+
+    private static String destination(Long channelId) {
+        return "/topic/channel." + channelId + ".presence";
+    }
+
+    /**
+     * Net changes for one channel; a join and a leave of the same user cancel out
+     */
+    private static final class PendingDelta {
+        private final Set<String> joined = new LinkedHashSet<>();
+        private final Set<String> left = new LinkedHashSet<>();
+        private int changes;
+        private boolean forceSend;
+
+        private void apply(PresenceChange change) {
+            changes++;
+            if (change.joined()) {
+                if (!left.remove(change.clerkId())) {
+                    joined.add(change.clerkId());
+                }
+            } else if (!joined.remove(change.clerkId())) {
+                left.add(change.clerkId());
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.buzzlink.websocket;
+
+import com.buzzlink.service.PresenceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refreshes a session's presence TTL on every inbound frame, including STOMP
+ * heartbeats, so only sessions that have really gone quiet expire
+ */
+@Component
+@RequiredArgsConstructor
+public class PresenceHeartbeatInterceptor implements ChannelInterceptor {
+
+    private final PresenceService presenceService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId != null) {
+            presenceService.sessionActive(sessionId);
+        }
+        return message;
+    }
+}
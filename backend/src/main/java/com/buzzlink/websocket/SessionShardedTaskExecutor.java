@@ -0,0 +1,150 @@
+package com.buzzlink.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor for the client outbound channel that pins each WebSocket session
+ * to one single-threaded shard.
+ *
+ * Frames for a session are written in order by the same thread, without the
+ * extra per-session queueing of {@code preservePublishOrder}, and a large
+ * broadcast is spread over all shards. Only {@link #execute(Runnable)} (which
+ * is what the channel uses) is sharded; the inherited pool is left idle.
+ *
+ * Each shard's queue is bounded. A full queue means the shard is stuck
+ * behind a slow client: the frame that does not fit is dropped, its session
+ * is closed so the client reconnects and resyncs rather than silently missing
+ * it, and if the shard's current write has run longer than the stall limit
+ * that session is closed too, which frees the shard.
+ */
+public class SessionShardedTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private final Shard[] shards;
+    private final long stallNanos;
+    private final WebSocketSessionTracker sessions;
+    private final Counter dropped;
+
+    public SessionShardedTaskExecutor(int shardCount, int queueCapacity, long stallMs,
+            WebSocketSessionTracker sessions, MeterRegistry meterRegistry) {
+        this.shards = new Shard[Math.max(1, shardCount)];
+        this.stallNanos = TimeUnit.MILLISECONDS.toNanos(stallMs);
+        this.sessions = sessions;
+        this.dropped = Counter.builder("buzzlink.websocket.outbound.dropped")
+                .description("Outbound frames dropped because their shard's queue was full")
+                .register(meterRegistry);
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard("ws-outbound-" + i, Math.max(1, queueCapacity));
+            Gauge.builder("buzzlink.executor.queue.depth", shards[i], shard -> shard.getQueue().size())
+                    .description("Tasks waiting in the pool's queue")
+                    .tag("pool", "ws-outbound-" + i)
+                    .register(meterRegistry);
+        }
+        setThreadNamePrefix("ws-outbound-unsharded-");
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        shardFor(sessionIdOf(task)).execute(task);
+    }
+
+    @Override
+    public void shutdown() {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+        for (ThreadPoolExecutor shard : shards) {
+            try {
+                if (!shard.awaitTermination(5, TimeUnit.SECONDS)) {
+                    shard.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                shard.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        super.shutdown();
+    }
+
+    private Shard shardFor(String sessionId) {
+        return sessionId != null ? shards[Math.floorMod(sessionId.hashCode(), shards.length)] : shards[0];
+    }
+
+    private static String sessionIdOf(Runnable task) {
+        if (task instanceof MessageHandlingRunnable handlingRunnable) {
+            Message<?> message = handlingRunnable.getMessage();
+            return SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        }
+        return null;
+    }
+
+    private void overflow(Runnable task, Shard shard) {
+        if (shard.isShutdown()) {
+            return;
+        }
+        dropped.increment();
+        String stalled = shard.stalledSession(stallNanos);
+        if (stalled != null) {
+            sessions.closeSlowSession(stalled, "outbound write stalled on " + shard.name);
+        }
+        String sessionId = sessionIdOf(task);
+        if (sessionId != null && !sessionId.equals(stalled)) {
+            sessions.closeSlowSession(sessionId, "outbound queue of " + shard.name + " is full");
+        }
+    }
+
+    /**
+     * Single-threaded shard that remembers which session it is writing to
+     */
+    private final class Shard extends ThreadPoolExecutor {
+
+        private final String name;
+        private volatile String currentSession;
+        private volatile long currentSince;
+
+        Shard(String name, int queueCapacity) {
+            super(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity));
+            this.name = name;
+            AtomicInteger counter = new AtomicInteger();
+            setThreadFactory(runnable -> {
+                Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            setRejectedExecutionHandler((task, executor) -> overflow(task, this));
+        }
+
+        @Override
+        protected void beforeExecute(Thread thread, Runnable task) {
+            currentSince = System.nanoTime();
+            currentSession = sessionIdOf(task);
+        }
+
+        @Override
+        protected void afterExecute(Runnable task, Throwable failure) {
+            currentSession = null;
+        }
+
+        /**
+         * Session whose write has been running longer than the limit, or null
+         */
+        String stalledSession(long limitNanos) {
+            String session = currentSession;
+            return session != null && System.nanoTime() - currentSince > limitNanos ? session : null;
+        }
+    }
+}
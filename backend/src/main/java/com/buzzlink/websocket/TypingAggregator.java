@@ -0,0 +1,149 @@
+package com.buzzlink.websocket;
+
+import com.buzzlink.cluster.ClusterEventBus;
+import com.buzzlink.websocket.dto.TypingAggregate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side aggregation of typing indicators.
+ *
+ * Clients send a typing event on every keystroke. This keeps "who is typing"
+ * per destination (channel or DM topic), drops events that change nothing,
+ * and sends at most one {@link TypingAggregate} per destination per flush
+ * interval. Typists expire if their events stop. Frames are repeated every
+ * refresh interval while someone is typing, so clients can time out stale
+ * entries on their own. Each node only knows its own clients' typists, so
+ * frames carry the node ID and clients merge the latest frame per node.
+ */
+@Component
+@Slf4j
+public class TypingAggregator {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final String nodeId;
+    private final long typistTtlMs;
+    private final long refreshMs;
+
+    // destination -> typing state
+    private final Map<String, TypingState> states = new ConcurrentHashMap<>();
+
+    private final Counter droppedEvents;
+    private final Counter sentFrames;
+
+    public TypingAggregator(
+            SimpMessagingTemplate messagingTemplate,
+            ClusterEventBus clusterEventBus,
+            MeterRegistry meterRegistry,
+            @Value("${app.typing.ttl-ms:4000}") long typistTtlMs,
+            @Value("${app.typing.refresh-ms:2000}") long refreshMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.nodeId = clusterEventBus.getNodeId();
+        this.typistTtlMs = typistTtlMs;
+        this.refreshMs = refreshMs;
+        this.droppedEvents = Counter.builder("buzzlink.typing.events.dropped")
+                .description("Typing events that did not change anyone's typing state")
+                .register(meterRegistry);
+        this.sentFrames = Counter.builder("buzzlink.typing.frames.sent")
+                .description("Aggregated typing frames sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record a typing event for a destination
+     *
+     * @param destination Topic the aggregate is sent to
+     * @param channelId   Channel ID, or null for DMs
+     */
+    public void typing(String destination, Long channelId, String clerkId, String displayName, boolean isTyping) {
+        if (clerkId == null) {
+            return;
+        }
+        boolean changed;
+        while (true) {
+            TypingState state = states.computeIfAbsent(destination, key -> new TypingState(channelId));
+            synchronized (state) {
+                if (state.retired) {
+                    continue; // removed by a concurrent flush - use the replacement
+                }
+                if (isTyping) {
+                    Typist previous = state.typists.put(clerkId,
+                            new Typist(displayName, System.currentTimeMillis() + typistTtlMs));
+                    changed = previous == null || !Objects.equals(previous.displayName, displayName);
+                } else {
+                    changed = state.typists.remove(clerkId) != null;
+                }
+                state.dirty |= changed;
+            }
+            break;
+        }
+        if (!changed) {
+            droppedEvents.increment();
+        }
+    }
+
+    /**
+     * Send one frame per destination that changed, or is due for a refresh
+     */
+    @Scheduled(fixedDelayString = "${app.typing.flush-interval-ms:500}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, TypingState> entry : states.entrySet()) {
+            TypingState state = entry.getValue();
+            TypingAggregate frame;
+            synchronized (state) {
+                if (state.typists.values().removeIf(typist -> typist.expiresAt < now)) {
+                    state.dirty = true;
+                }
+                boolean refreshDue = !state.typists.isEmpty() && now - state.lastSentAt >= refreshMs;
+                if (!state.dirty && !refreshDue) {
+                    if (state.typists.isEmpty()) {
+                        state.retired = true;
+                        states.remove(entry.getKey(), state);
+                    }
+                    continue;
+                }
+                List<TypingAggregate.Typist> typing = new ArrayList<>(state.typists.size());
+                state.typists.forEach((clerkId, typist) ->
+                        typing.add(new TypingAggregate.Typist(clerkId, typist.displayName)));
+                frame = new TypingAggregate(nodeId, state.channelId, typing);
+                state.dirty = false;
+                state.lastSentAt = now;
+            }
+            try {
+                messagingTemplate.convertAndSend(entry.getKey(), frame);
+                sentFrames.increment();
+            } catch (Exception e) {
+                log.warn("Failed to send typing frame to {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private static final class TypingState {
+        private final Long channelId;
+        // clerkId -> typist, in the order they started typing
+        private final Map<String, Typist> typists = new LinkedHashMap<>();
+        private boolean dirty;
+        private boolean retired;
+        private long lastSentAt;
+
+        private TypingState(Long channelId) {
+            this.channelId = channelId;
+        }
+    }
+
+    private record Typist(String displayName, long expiresAt) {
+    }
+}
@@ -1,28 +1,24 @@
 package com.buzzlink.websocket;
 
 import com.buzzlink.dto.DirectMessageDTO;
-import com.buzzlink.dto.MessageDTO;
 import com.buzzlink.entity.Message;
-import com.buzzlink.repository.MessageRepository;
-import com.buzzlink.repository.UserWorkspaceMemberRepository;
 import com.buzzlink.service.DirectMessageService;
-import com.buzzlink.service.MessageService;
-import com.buzzlink.service.ModerationService;
+import com.buzzlink.service.MessageIngestPipeline;
 import com.buzzlink.service.NotificationService;
 import com.buzzlink.service.PresenceService;
-import com.buzzlink.websocket.dto.ChatMessage;
 import com.buzzlink.websocket.dto.PresenceEvent;
 import com.buzzlink.websocket.dto.TypingEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 /**
  * WebSocket controller for real-time messaging
  * Handles incoming WebSocket messages and broadcasts to subscribers
@@ -33,95 +29,32 @@ import java.util.stream.Collectors;
 public class WebSocketController {
 
     private final SimpMessagingTemplate messagingTemplate;
-    private final MessageService messageService;
+    private final MessageIngestPipeline ingestPipeline;
     private final DirectMessageService directMessageService;
     private final PresenceService presenceService;
+    private final PresenceBroadcaster presenceBroadcaster;
+    private final TypingAggregator typingAggregator;
     private final NotificationService notificationService;
-    private final ModerationService moderationService;
-    private final MessageRepository messageRepository;
-    private final UserWorkspaceMemberRepository workspaceMemberRepository;
 
     /**
      * Handle incoming chat messages from clients
      * Client sends to: /app/chat.sendMessage
-     * Broadcasts to: /topic/channel.{channelId}
+     * Broadcasts to: /topic/channel.{channelId} (from the ingest pipeline)
      */
     @MessageMapping("/chat.sendMessage")
     public void sendMessage(@Payload SendMessageRequest request) {
         log.info("Received message from {}: {}", request.clerkId(), request.content());
 
         try {
-            // Save message to database
+            // Persist, broadcast, moderation and notifications all run in the ingest pipeline
             Message.MessageType type = Message.MessageType.valueOf(request.type());
-            MessageDTO savedMessage = messageService.createMessage(
+            ingestPipeline.submit(
                     request.channelId(),
                     request.clerkId(),
                     request.content(),
                     type,
                     request.parentMessageId() // Support threading
             );
-
-            // Convert to WebSocket message format
-            ChatMessage chatMessage = new ChatMessage(
-                    savedMessage.getId(),
-                    savedMessage.getChannelId(),
-                    savedMessage.getSender(),
-                    savedMessage.getContent(),
-                    savedMessage.getType(),
-                    savedMessage.getCreatedAt(),
-                    savedMessage.getReactionCount(),
-                    savedMessage.getParentMessageId(),
-                    savedMessage.getReplyCount());
-
-            // Broadcast to all subscribers of this channel
-            messagingTemplate.convertAndSend(
-                    "/topic/channel." + request.channelId(),
-                    chatMessage);
-
-            // Run AI moderation asynchronously (use workspaceId=1 for default workspace)
-            try {
-                Message message = messageRepository.findById(savedMessage.getId()).orElse(null);
-                if (message != null) {
-                    // Use default workspace ID (1) - in production you'd get this from the channel
-                    Long workspaceId = 1L;
-                    // Run AI moderation asynchronously
-                    moderationService.analyzeMessage(message, workspaceId);
-                }
-            } catch (Exception moderationEx) {
-                log.warn("Failed to run moderation: {}", moderationEx.getMessage());
-            }
-
-            // Create notifications for workspace members
-            try {
-                Message message = messageRepository.findById(savedMessage.getId()).orElse(null);
-                if (message != null) {
-                    // Use default workspace ID (1)
-                    Long workspaceId = 1L;
-                    List<String> memberClerkIds = workspaceMemberRepository
-                            .findByWorkspaceId(workspaceId)
-                            .stream()
-                            .map(member -> member.getUser().getClerkId())
-                            .collect(Collectors.toList());
-
-                    // Check if it's a thread reply or regular message
-                    if (request.parentMessageId() != null) {
-                        // It's a reply - notify the parent message author
-                        Message parentMessage = messageRepository.findById(request.parentMessageId()).orElse(null);
-                        if (parentMessage != null) {
-                            notificationService.createThreadReplyNotification(
-                                    message,
-                                    parentMessage.getSender().getClerkId()
-                            );
-                        }
-                    } else {
-                        // Regular channel message - notify all workspace members
-                        notificationService.createChannelMessageNotification(message, memberClerkIds);
-                    }
-                }
-            } catch (Exception notifEx) {
-                log.warn("Failed to create notification: {}", notifEx.getMessage());
-            }
-
         } catch (Exception e) {
             log.error("Error sending message: {}", e.getMessage(), e);
         }
@@ -130,57 +63,58 @@ public class WebSocketController {
     /**
      * Handle typing indicators
      * Client sends to: /app/chat.typing
-     * Broadcasts to: /topic/channel.{channelId}.typing
+     * Broadcasts to: /topic/channel.{channelId}.typing (aggregated, at most once per flush interval)
      */
     @MessageMapping("/chat.typing")
     public void handleTyping(@Payload TypingEvent event) {
-        messagingTemplate.convertAndSend(
+        // Aggregated and throttled; see TypingAggregator
+        typingAggregator.typing(
                 "/topic/channel." + event.getChannelId() + ".typing",
-                event);
+                event.getChannelId(),
+                event.getClerkId(),
+                event.getDisplayName(),
+                event.isTyping());
     }
 
     /**
      * Handle user joining a channel
      * Client sends to: /app/chat.join
-     * Broadcasts presence update to: /topic/channel.{channelId}.presence
+     * Presence deltas go to: /topic/channel.{channelId}.presence (coalesced)
      */
     @MessageMapping("/chat.join")
-    public void handleJoin(@Payload JoinChannelRequest request) {
+    public void handleJoin(@Payload JoinChannelRequest request,
+            @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
         log.info("User {} joined channel {}", request.clerkId(), request.channelId());
 
-        presenceService.userJoined(request.channelId(), request.clerkId());
+        // A user's second tab changes nothing, but the new tab still needs the current count
+        presenceService.userJoined(request.channelId(), request.clerkId(), sessionId)
+                .ifPresentOrElse(presenceBroadcaster::record,
+                        () -> presenceBroadcaster.touch(request.channelId()));
+    }
 
-        // Broadcast updated presence
-        broadcastPresence(request.channelId());
+    /**
+     * Current online set of a channel, for a client that just subscribed to its presence
+     * Client subscribes to: /app/channel.{channelId}.presence
+     * Replies to: that subscription only (one frame, not through the broker)
+     */
+    @SubscribeMapping("/channel.{channelId}.presence")
+    public PresenceEvent presenceSnapshot(@DestinationVariable Long channelId) {
+        return PresenceEvent.snapshot(channelId, presenceService.getOnlineUsers(channelId));
     }
 
     /**
      * Handle user leaving a channel
      * Client sends to: /app/chat.leave
-     * Broadcasts presence update to: /topic/channel.{channelId}.presence
+     * Presence deltas go to: /topic/channel.{channelId}.presence (coalesced)
      */
     @MessageMapping("/chat.leave")
-    public void handleLeave(@Payload LeaveChannelRequest request) {
+    public void handleLeave(@Payload LeaveChannelRequest request,
+            @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
         log.info("User {} left channel {}", request.clerkId(), request.channelId());
 
-        presenceService.userLeft(request.channelId(), request.clerkId());
-
-        // Broadcast updated presence
-        broadcastPresence(request.channelId());
-    }
-
-    /**
-     * Broadcast presence update for a channel
-     */
-    private void broadcastPresence(Long channelId) {
-        PresenceEvent presenceEvent = new PresenceEvent(
-                channelId,
-                presenceService.getOnlineUsers(channelId),
-                presenceService.getOnlineCount(channelId));
-
-        messagingTemplate.convertAndSend(
-                "/topic/channel." + channelId + ".presence",
-                presenceEvent);
+        // Other tabs of the same user keep them online
+        presenceService.userLeft(request.channelId(), sessionId)
+                .ifPresent(presenceBroadcaster::record);
     }
 
     /**
@@ -234,28 +168,20 @@ public class WebSocketController {
     /**
      * Handle DM typing indicators
      * Client sends to: /app/dm.typing
-     * Broadcasts to: /topic/dm.{recipientClerkId}.typing
+     * Broadcasts to: /topic/dm.{recipientClerkId}.typing (aggregated, at most once per flush interval)
      */
     @MessageMapping("/dm.typing")
     public void handleDMTyping(@Payload DMTypingRequest request) {
-        log.info("Received DM typing from {} to {}: {}", request.senderClerkId(), request.recipientClerkId(), request.isTyping());
+        log.debug("Received DM typing from {} to {}: {}", request.senderClerkId(), request.recipientClerkId(), request.isTyping());
 
         try {
-            // Create typing event
-            TypingEvent typingEvent = new TypingEvent(
-                    null, // channelId is null for DMs
+            // Aggregated per recipient topic; channelId is null for DMs
+            typingAggregator.typing(
+                    "/topic/dm." + request.recipientClerkId() + ".typing",
+                    null,
                     request.senderClerkId(),
                     request.displayName(),
-                    request.isTyping()
-            );
-
-            // Send to recipient's personal DM typing topic
-            messagingTemplate.convertAndSend(
-                    "/topic/dm." + request.recipientClerkId() + ".typing",
-                    typingEvent
-            );
-
-            log.debug("Sent DM typing event to topic: /topic/dm.{}.typing", request.recipientClerkId());
+                    request.isTyping());
         } catch (Exception e) {
             log.error("Error handling DM typing: {}", e.getMessage(), e);
         }
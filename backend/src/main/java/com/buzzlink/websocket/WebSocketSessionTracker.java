@@ -0,0 +1,85 @@
+package com.buzzlink.websocket;
+
+import com.buzzlink.config.BoundedExecutorFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Open WebSocket sessions by ID (the STOMP simpSessionId), so components
+ * that only see STOMP messages can close a session that has fallen behind.
+ *
+ * Closes run on their own thread: closing a session that is stuck in a
+ * write can block, and the caller is usually the broker.
+ */
+@Component
+@Slf4j
+public class WebSocketSessionTracker implements WebSocketHandlerDecoratorFactory {
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final Set<String> closing = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor closeExecutor;
+    private final Counter closed;
+
+    public WebSocketSessionTracker(BoundedExecutorFactory executorFactory, MeterRegistry meterRegistry) {
+        this.closeExecutor = executorFactory.create("ws-close", 1, 1000, BoundedExecutorFactory.Overflow.DISCARD);
+        this.closed = Counter.builder("buzzlink.websocket.sessions.closed.slow")
+                .description("Sessions closed because their outbound frames could not keep up")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), session);
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                closing.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * Close a session that missed outbound frames; the client reconnects and resyncs
+     */
+    public void closeSlowSession(String sessionId, String reason) {
+        WebSocketSession session = sessions.get(sessionId);
+        if (session == null || !closing.add(sessionId)) {
+            return;
+        }
+        closed.increment();
+        log.warn("Closing WebSocket session {}: {}", sessionId, reason);
+        closeExecutor.execute(() -> {
+            try {
+                session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException e) {
+                log.debug("Closing WebSocket session {} failed: {}", sessionId, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closeExecutor.shutdown();
+    }
+}
@@ -1,5 +1,6 @@
 package com.buzzlink.websocket.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,12 +9,32 @@ import java.util.Set;
 
 /**
  * WebSocket message for presence updates
+ * DELTA frames carry the users who joined/left since the last frame;
+ * SNAPSHOT frames carry the full online set; a client gets one when it
+ * subscribes and periodically for resync.
+ * Both carry the current online count.
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PresenceEvent {
+
+    public static final String DELTA = "DELTA";
+    public static final String SNAPSHOT = "SNAPSHOT";
+
     private Long channelId;
+    private String type;
     private Set<String> onlineUsers;
+    private Set<String> joined;
+    private Set<String> left;
     private int onlineCount;
+
+    public static PresenceEvent delta(Long channelId, Set<String> joined, Set<String> left, int onlineCount) {
+        return new PresenceEvent(channelId, DELTA, null, joined, left, onlineCount);
+    }
+
+    public static PresenceEvent snapshot(Long channelId, Set<String> onlineUsers) {
+        return new PresenceEvent(channelId, SNAPSHOT, onlineUsers, null, null, onlineUsers.size());
+    }
 }
@@ -0,0 +1,29 @@
+package com.buzzlink.websocket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * WebSocket message listing everyone typing in a channel or DM on one backend
+ * node. Each frame replaces the previous frame from the same node; clients
+ * show the union over nodes. channelId is null for DMs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypingAggregate {
+    private String nodeId;
+    private Long channelId;
+    private List<Typist> typing;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Typist {
+        private String clerkId;
+        private String displayName;
+    }
+}
@@ -0,0 +1,34 @@
+package com.buzzlink;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, so
+ * query-count tests are not disturbed by scheduled jobs running alongside.
+ * Registered through hibernate.session_factory.statement_inspector in the
+ * test profile.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Start counting from zero on this thread
+     */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * Statements prepared on this thread since the last reset
+     */
+    public static long count() {
+        return COUNT.get()[0];
+    }
+}
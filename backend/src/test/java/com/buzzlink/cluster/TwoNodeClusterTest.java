@@ -0,0 +1,119 @@
+package com.buzzlink.cluster;
+
+import com.buzzlink.BuzzLinkApplication;
+import com.buzzlink.dto.NotificationRecipient;
+import com.buzzlink.dto.UserDTO;
+import com.buzzlink.entity.Notification;
+import com.buzzlink.entity.User;
+import com.buzzlink.repository.UserRepository;
+import com.buzzlink.service.NotificationFanoutService;
+import com.buzzlink.service.NotificationService;
+import com.buzzlink.service.PresenceService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application contexts in one JVM, joined by {@link InMemoryClusterEventBus}
+ * and sharing one database, stand in for two backend nodes: state changed on
+ * one node must be visible on the other.
+ */
+class TwoNodeClusterTest {
+
+    private static final Long CHANNEL_ID = 7001L;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("node-a", "create-drop");
+        // Node B uses the schema node A created and must not drop it
+        nodeB = startNode("node-b", "none");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void presenceIsSharedAcrossNodes() {
+        PresenceService presenceA = nodeA.getBean(PresenceService.class);
+        PresenceService presenceB = nodeB.getBean(PresenceService.class);
+
+        presenceA.userJoined(CHANNEL_ID, "alice", "session-a1");
+        assertThat(presenceB.getOnlineUsers(CHANNEL_ID)).containsExactly("alice");
+
+        presenceB.userJoined(CHANNEL_ID, "bob", "session-b1");
+        assertThat(presenceA.getOnlineUsers(CHANNEL_ID)).containsExactlyInAnyOrder("alice", "bob");
+        assertThat(presenceB.getOnlineCount(CHANNEL_ID)).isEqualTo(2);
+
+        presenceA.sessionDisconnected("session-a1");
+        assertThat(presenceB.getOnlineUsers(CHANNEL_ID)).containsExactly("bob");
+
+        // Both nodes have heard from each other; exactly one sends cluster-wide frames
+        assertThat(presenceA.isAnnouncer()).isTrue();
+        assertThat(presenceB.isAnnouncer()).isFalse();
+
+        presenceB.sessionDisconnected("session-b1");
+        assertThat(presenceA.getOnlineUsers(CHANNEL_ID)).isEmpty();
+    }
+
+    @Test
+    void notificationsOnOneNodeUpdateUnreadCountsOnTheOther() {
+        UserRepository users = nodeA.getBean(UserRepository.class);
+        User sender = users.save(user("cluster-sender"));
+        User recipient = users.save(user("cluster-recipient"));
+
+        NotificationService notificationsA = nodeA.getBean(NotificationService.class);
+        NotificationService notificationsB = nodeB.getBean(NotificationService.class);
+
+        // Node B caches the count, then node A writes notifications
+        assertThat(notificationsB.getUnreadCount(recipient.getClerkId())).isZero();
+
+        notificationsA.createDirectMessageNotification(sender.getClerkId(), recipient.getClerkId(), 1L);
+        assertThat(notificationsB.getUnreadCount(recipient.getClerkId())).isEqualTo(1);
+
+        nodeA.getBean(NotificationFanoutService.class).fanOut(
+                new NotificationFanoutService.FanoutRequest(Notification.NotificationType.CHANNEL_MESSAGE,
+                        UserDTO.fromEntity(sender), "cluster-sender posted in #general", CHANNEL_ID, null, null),
+                List.of(new NotificationRecipient(recipient.getId(), recipient.getClerkId())));
+        assertThat(notificationsB.getUnreadCount(recipient.getClerkId())).isEqualTo(2);
+
+        notificationsB.markAllAsRead(recipient.getClerkId());
+        assertThat(notificationsA.getUnreadCount(recipient.getClerkId())).isZero();
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId, String ddlAuto) {
+        return new SpringApplicationBuilder(BuzzLinkApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:buzzlink-cluster;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                        "app.cluster.bus=local",
+                        "app.cluster.local-hub=two-node-test",
+                        "app.cluster.node-id=" + nodeId,
+                        "app.presence.store=replicated")
+                .run();
+    }
+
+    private static User user(String clerkId) {
+        User user = new User();
+        user.setClerkId(clerkId);
+        user.setDisplayName(clerkId);
+        return user;
+    }
+}
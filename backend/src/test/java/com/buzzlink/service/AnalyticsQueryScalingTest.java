@@ -0,0 +1,168 @@
+package com.buzzlink.service;
+
+import com.buzzlink.SqlStatementCounter;
+import com.buzzlink.entity.Channel;
+import com.buzzlink.entity.TopKSlice;
+import com.buzzlink.entity.Workspace;
+import com.buzzlink.repository.ChannelRepository;
+import com.buzzlink.repository.WorkspaceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Analytics and admin aggregates must cost the same number of queries with
+ * 100k users as with 1k: one grouped query per figure, no per-user or
+ * per-channel loops.
+ */
+@SpringBootTest(properties = {
+        // Own database, since this test loads 100k users
+        "spring.datasource.url=jdbc:h2:mem:buzzlink-scaling;DB_CLOSE_DELAY=-1",
+        // Recompute on every call instead of serving cached results
+        "app.analytics.cache.fresh-ms=1",
+        "app.analytics.cache.max-stale-ms=0",
+        "app.analytics.cache.endpoints.kpis.fresh-ms=1",
+        "app.analytics.cache.endpoints.user-activity-distribution.fresh-ms=1"
+})
+@ActiveProfiles("test")
+class AnalyticsQueryScalingTest {
+
+    private static final int SMALL = 1_000;
+    private static final int LARGE = 100_000;
+    private static final int BATCH = 5_000;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private TopKTracker topK;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> senderTotals = new ArrayList<>();
+    private int seededUsers;
+    private long lastUserId;
+
+    @Test
+    void statementCountDoesNotGrowWithUsers() {
+        Workspace workspace = workspaceRepository.save(new Workspace("Scaling", "scaling", null));
+
+        seed(workspace, SMALL);
+        Map<String, Long> small = measure();
+        assertDistributionMatchesSeed();
+
+        seed(workspace, LARGE);
+        Map<String, Long> large = measure();
+        assertDistributionMatchesSeed();
+
+        assertThat(large).isEqualTo(small);
+        assertThat(large.get("user-activity-distribution")).isLessThanOrEqualTo(2);
+        assertThat(large.get("top-users")).isLessThanOrEqualTo(1);
+        assertThat(large.get("messages-by-channel")).isLessThanOrEqualTo(1);
+        assertThat(large.get("top-workspaces")).isLessThanOrEqualTo(1);
+        assertThat(large.get("admin-users")).isLessThanOrEqualTo(3);
+        assertThat(large.get("admin-stats")).isLessThanOrEqualTo(7);
+        assertThat(adminService.getAllUsers()).hasSize(LARGE);
+    }
+
+    /**
+     * Statements each aggregate runs on this thread
+     */
+    private Map<String, Long> measure() {
+        Map<String, Long> statements = new LinkedHashMap<>();
+        statements.put("user-activity-distribution", count(analyticsService::getUserActivityDistribution));
+        statements.put("top-users", count(() -> analyticsService.getTopUsers(TopKSlice.Window.ALL)));
+        statements.put("messages-by-channel", count(() -> analyticsService.getMessagesByChannel(TopKSlice.Window.ALL)));
+        statements.put("top-workspaces", count(() -> analyticsService.getTopWorkspaces(TopKSlice.Window.ALL)));
+        statements.put("admin-users", count(adminService::getAllUsers));
+        statements.put("admin-stats", count(adminService::getSystemStats));
+        return statements;
+    }
+
+    private static long count(Supplier<?> call) {
+        SqlStatementCounter.reset();
+        assertThat(call.get()).isNotNull();
+        return SqlStatementCounter.count();
+    }
+
+    /**
+     * Add users up to the target, every tenth of them with a day of messages
+     * in their own channel's rollups and in the top-K tracker
+     */
+    private void seed(Workspace workspace, int targetUsers) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp today = Timestamp.valueOf(now.truncatedTo(ChronoUnit.DAYS));
+
+        Channel channel = new Channel();
+        channel.setName("scaling-" + targetUsers);
+        channel.setWorkspace(workspace);
+        channel = channelRepository.save(channel);
+
+        List<Object[]> users = new ArrayList<>(BATCH);
+        for (int i = seededUsers; i < targetUsers; i++) {
+            users.add(new Object[]{"scaling-" + i, "Scaling user " + i, i % 100 == 0, Timestamp.valueOf(now)});
+            if (users.size() == BATCH || i == targetUsers - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO users (clerk_id, display_name, is_admin, is_banned, created_at) " +
+                        "VALUES (?, ?, FALSE, ?, ?)", users);
+                users.clear();
+            }
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM users WHERE id > ? ORDER BY id",
+                Long.class, lastUserId);
+        List<Object[]> rollups = new ArrayList<>(BATCH);
+        for (int i = 0; i < ids.size(); i++) {
+            if (i % 10 != 0) {
+                continue;
+            }
+            long senderId = ids.get(i);
+            long total = senderId % 80 + 1;
+            senderTotals.add(total);
+            rollups.add(new Object[]{today, workspace.getId(), channel.getId(), senderId, total});
+            for (int m = 0; m < Math.min(total, 5); m++) {
+                topK.record(workspace.getId(), channel.getId(), senderId, now);
+            }
+        }
+        for (int from = 0; from < rollups.size(); from += BATCH) {
+            jdbcTemplate.batchUpdate("INSERT INTO message_rollups " +
+                            "(granularity, bucket_start, workspace_id, channel_id, sender_id, message_count) " +
+                            "VALUES ('DAY', ?, ?, ?, ?, ?)",
+                    rollups.subList(from, Math.min(from + BATCH, rollups.size())));
+        }
+        seededUsers = targetUsers;
+        lastUserId = ids.get(ids.size() - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertDistributionMatchesSeed() {
+        long medium = senderTotals.stream().filter(total -> total >= 11 && total <= 50).count();
+        long high = senderTotals.stream().filter(total -> total > 50).count();
+
+        List<Long> data = (List<Long>) analyticsService.getUserActivityDistribution().get("data");
+
+        assertThat(data).containsExactly(seededUsers - medium - high, medium, high);
+    }
+}
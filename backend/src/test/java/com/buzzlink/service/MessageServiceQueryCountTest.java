@@ -0,0 +1,139 @@
+package com.buzzlink.service;
+
+import com.buzzlink.SqlStatementCounter;
+import com.buzzlink.dto.MessageDTO;
+import com.buzzlink.entity.Channel;
+import com.buzzlink.entity.Message;
+import com.buzzlink.entity.Reaction;
+import com.buzzlink.entity.User;
+import com.buzzlink.entity.Workspace;
+import com.buzzlink.repository.ChannelRepository;
+import com.buzzlink.repository.MessageRepository;
+import com.buzzlink.repository.ReactionRepository;
+import com.buzzlink.repository.UserRepository;
+import com.buzzlink.repository.WorkspaceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Channel history and thread replies must load in a fixed number of
+ * statements however many messages, senders and reactions are on the page.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MessageServiceQueryCountTest {
+
+    private static final int MESSAGES = 50;
+    private static final long REACTORS = 3;
+    private static final long MAX_STATEMENTS = 2;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ReactionRepository reactionRepository;
+
+    private Long channelId;
+    private Long threadParentId;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Workspace workspace = workspaceRepository.save(
+                new Workspace("Query count " + suffix, "query-count-" + suffix, null));
+
+        Channel channel = new Channel();
+        channel.setName("general");
+        channel.setWorkspace(workspace);
+        channel = channelRepository.save(channel);
+        channelId = channel.getId();
+
+        List<User> senders = new ArrayList<>();
+        for (int i = 0; i <= REACTORS; i++) {
+            User user = new User();
+            user.setClerkId("query-count-" + suffix + "-" + i);
+            user.setDisplayName("User " + i);
+            senders.add(userRepository.save(user));
+        }
+
+        List<Message> topLevel = new ArrayList<>();
+        for (int i = 0; i < MESSAGES; i++) {
+            Message message = new Message();
+            message.setChannel(channel);
+            // Spread messages over every sender so each row joins a different user
+            message.setSender(senders.get(i % senders.size()));
+            message.setContent("message " + i);
+            message.setReactionCount(REACTORS);
+            topLevel.add(message);
+        }
+        topLevel = messageRepository.saveAll(topLevel);
+
+        List<Reaction> reactions = new ArrayList<>();
+        for (Message message : topLevel) {
+            for (User reactor : senders.subList(1, senders.size())) {
+                Reaction reaction = new Reaction();
+                reaction.setMessage(message);
+                reaction.setUser(reactor);
+                reactions.add(reaction);
+            }
+        }
+        reactionRepository.saveAll(reactions);
+
+        Message parent = topLevel.get(0);
+        List<Message> replies = new ArrayList<>();
+        for (int i = 0; i < MESSAGES; i++) {
+            Message reply = new Message();
+            reply.setChannel(channel);
+            reply.setSender(senders.get(i % senders.size()));
+            reply.setContent("reply " + i);
+            reply.setParentMessage(parent);
+            replies.add(reply);
+        }
+        messageRepository.saveAll(replies);
+        parent.setReplyCount(MESSAGES);
+        messageRepository.save(parent);
+        threadParentId = parent.getId();
+    }
+
+    @Test
+    void recentMessagesLoadInFixedStatementCount() {
+        SqlStatementCounter.reset();
+
+        List<MessageDTO> messages = messageService.getRecentMessages(channelId, MESSAGES);
+
+        assertThat(messages).hasSize(MESSAGES);
+        assertThat(messages).allSatisfy(message -> assertThat(message.getReactionCount()).isEqualTo(REACTORS));
+        assertThat(SqlStatementCounter.count()).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    @Test
+    void threadRepliesLoadInFixedStatementCount() {
+        SqlStatementCounter.reset();
+
+        List<MessageDTO> replies = messageService.getThreadReplies(threadParentId);
+
+        assertThat(replies).hasSize(MESSAGES);
+        assertThat(SqlStatementCounter.count()).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+}
@@ -0,0 +1,105 @@
+package com.buzzlink.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ModerationClientTest {
+
+    private ModerationStubServer stub;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        stub = new ModerationStubServer();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    void sendsAllInputsInOneArrayRequest() {
+        ModerationClient client = client(0, 5, 30_000);
+
+        List<ModerationVerdict> verdicts = client.classify(List.of("first", "second", "third"));
+
+        assertThat(verdicts).hasSize(3).noneMatch(ModerationVerdict::flagged);
+        assertThat(stub.received()).hasSize(1);
+        assertThat(stub.received().get(0).input().toString()).isEqualTo("[\"first\",\"second\",\"third\"]");
+    }
+
+    @Test
+    void waitsForRetryAfterOn429() {
+        stub.thenReply(429, Map.of("Retry-After", "1"));
+        ModerationClient client = client(2, 5, 30_000);
+
+        List<ModerationVerdict> verdicts = client.classify(List.of("hello there"));
+
+        assertThat(verdicts).hasSize(1);
+        assertThat(stub.received()).hasSize(2);
+        long gapMs = TimeUnit.NANOSECONDS.toMillis(
+                stub.received().get(1).receivedAtNanos() - stub.received().get(0).receivedAtNanos());
+        // Retry-After (1s) wins over the 10ms configured backoff
+        assertThat(gapMs).isGreaterThanOrEqualTo(900);
+        assertThat(client.isAvailable()).isTrue();
+    }
+
+    @Test
+    void circuitOpensAfterRepeatedFailuresAndRecoversThroughTrialCall() throws Exception {
+        stub.thenReply(500, Map.of()).thenReply(500, Map.of());
+        ModerationClient client = client(0, 2, 300);
+
+        assertThatThrownBy(() -> client.classify(List.of("a")))
+                .isInstanceOf(ModerationClient.ModerationUnavailableException.class);
+        assertThatThrownBy(() -> client.classify(List.of("a")))
+                .isInstanceOf(ModerationClient.ModerationUnavailableException.class);
+
+        // Open: calls fail fast without reaching the API
+        assertThat(client.isAvailable()).isFalse();
+        assertThatThrownBy(() -> client.classify(List.of("a")))
+                .isInstanceOf(ModerationClient.ModerationUnavailableException.class)
+                .hasMessageContaining("circuit is open");
+        assertThat(stub.received()).hasSize(2);
+
+        // Half-open after the open period: one trial call, which succeeds and closes the circuit
+        Thread.sleep(350);
+        assertThat(client.isAvailable()).isTrue();
+        assertThat(client.classify(List.of("a"))).hasSize(1);
+        assertThat(client.classify(List.of("b"))).hasSize(1);
+        assertThat(stub.received()).hasSize(4);
+    }
+
+    @Test
+    void failedTrialCallReopensCircuit() throws Exception {
+        stub.thenReply(500, Map.of()).thenReply(500, Map.of()).thenReply(503, Map.of());
+        ModerationClient client = client(0, 2, 300);
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> client.classify(List.of("a")))
+                    .isInstanceOf(ModerationClient.ModerationUnavailableException.class);
+        }
+
+        Thread.sleep(350);
+        assertThatThrownBy(() -> client.classify(List.of("a")))
+                .isInstanceOf(ModerationClient.ModerationUnavailableException.class);
+
+        // The failed trial opens the circuit for another full period
+        assertThat(client.isAvailable()).isFalse();
+        assertThatThrownBy(() -> client.classify(List.of("a")))
+                .hasMessageContaining("circuit is open");
+        assertThat(stub.received()).hasSize(3);
+    }
+
+    private ModerationClient client(int maxRetries, int failureThreshold, long circuitOpenMs) {
+        return new ModerationClient(new SimpleMeterRegistry(), stub.url(), "", 1000, 5000,
+                maxRetries, 10, 100, 100, failureThreshold, circuitOpenMs);
+    }
+}
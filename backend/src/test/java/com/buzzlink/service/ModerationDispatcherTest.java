@@ -0,0 +1,106 @@
+package com.buzzlink.service;
+
+import com.buzzlink.entity.MessageModeration;
+import com.buzzlink.repository.MessageModerationRepository;
+import com.buzzlink.repository.MessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class ModerationDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MessageModerationRepository moderationRepository = mock(MessageModerationRepository.class);
+    private final MessageRepository messageRepository = mock(MessageRepository.class);
+
+    private ModerationStubServer stub;
+    private ModerationDispatcher dispatcher;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        stub = new ModerationStubServer();
+    }
+
+    @AfterEach
+    void stop() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+        stub.close();
+    }
+
+    @Test
+    void batchesDistinctContentIntoOneRequest() throws Exception {
+        dispatcher = dispatcher(8, 200, 100);
+
+        dispatcher.submit(1L, "is the deploy done", 1L);
+        dispatcher.submit(2L, "which branch should I use", 1L);
+        dispatcher.submit(3L, "is the deploy done", 1L);
+        dispatcher.submit(4L, "lunch at noon?", 1L);
+
+        assertThat(stub.awaitRequests(1, 2000)).isTrue();
+        assertThat(stub.received().get(0).input().size()).isEqualTo(3);
+        verify(moderationRepository, timeout(2000).times(3)).saveAll(anyList());
+        assertThat(savedRows()).hasSize(4);
+        assertThat(outcome("remote")).isEqualTo(4);
+
+        // The verdict is cached, so the same content is not sent again
+        dispatcher.submit(5L, "Is the deploy  done", 1L);
+        assertThat(outcome("cached")).isEqualTo(1);
+        assertThat(stub.received()).hasSize(1);
+    }
+
+    @Test
+    void rejectsMessagesWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        stub.thenHoldUntil(release);
+        dispatcher = dispatcher(1, 0, 2);
+
+        // The dispatcher takes the first message and blocks on the held request
+        assertThat(dispatcher.submit(1L, "first message", 1L)).isTrue();
+        assertThat(stub.awaitRequests(1, 2000)).isTrue();
+
+        assertThat(dispatcher.submit(2L, "second message", 1L)).isTrue();
+        assertThat(dispatcher.submit(3L, "third message", 1L)).isTrue();
+        assertThat(dispatcher.submit(4L, "fourth message", 1L)).isFalse();
+        assertThat(outcome("rejected")).isEqualTo(1);
+
+        release.countDown();
+        assertThat(stub.awaitRequests(3, 2000)).isTrue();
+        verify(moderationRepository, timeout(2000).times(3)).saveAll(anyList());
+    }
+
+    private ModerationDispatcher dispatcher(int batchSize, long lingerMs, int queueCapacity) {
+        ModerationClient client = new ModerationClient(meterRegistry, stub.url(), "", 1000, 5000,
+                0, 10, 100, 100, 5, 30_000);
+        ModerationVerdictCache cache = new ModerationVerdictCache(meterRegistry, 100, 280, 60_000);
+        return new ModerationDispatcher(client, cache, moderationRepository, messageRepository,
+                meterRegistry, batchSize, lingerMs, queueCapacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MessageModeration> savedRows() {
+        ArgumentCaptor<List<MessageModeration>> captor = ArgumentCaptor.forClass(List.class);
+        verify(moderationRepository, atLeastOnce()).saveAll(captor.capture());
+        List<MessageModeration> rows = new ArrayList<>();
+        captor.getAllValues().forEach(rows::addAll);
+        return rows;
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.counter("buzzlink.moderation.messages", "outcome", outcome).count();
+    }
+}
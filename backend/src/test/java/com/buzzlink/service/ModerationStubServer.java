@@ -0,0 +1,133 @@
+package com.buzzlink.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for the moderation API. Responses are scripted in order;
+ * once the script runs out every request gets a 200 with one harmless
+ * result per input.
+ */
+class ModerationStubServer implements AutoCloseable {
+
+    private static final String HARMLESS_RESULT =
+            "{\"flagged\":false,\"category_scores\":{\"hate\":0.01,\"harassment\":0.01," +
+                    "\"sexual\":0.01,\"self-harm\":0.01,\"violence\":0.01}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final BlockingQueue<Reply> script = new LinkedBlockingQueue<>();
+    private final List<Received> received = new CopyOnWriteArrayList<>();
+
+    ModerationStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/moderations", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/moderations";
+    }
+
+    /**
+     * Answer the next unanswered request with a status and headers
+     */
+    ModerationStubServer thenReply(int status, Map<String, String> headers) {
+        script.add(new Reply(status, headers, null));
+        return this;
+    }
+
+    /**
+     * Hold the next request until the latch opens, then answer it normally
+     */
+    ModerationStubServer thenHoldUntil(CountDownLatch release) {
+        script.add(new Reply(200, Map.of(), release));
+        return this;
+    }
+
+    List<Received> received() {
+        return received;
+    }
+
+    /**
+     * Wait until at least this many requests have arrived
+     */
+    boolean awaitRequests(int count, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (received.size() < count) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            JsonNode body = objectMapper.readTree(exchange.getRequestBody());
+            received.add(new Received(body.path("input"), System.nanoTime()));
+
+            Reply reply = script.poll();
+            if (reply == null) {
+                reply = new Reply(200, Map.of(), null);
+            }
+            if (reply.hold() != null) {
+                try {
+                    reply.hold().await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            String response = reply.status() == 200 ? results(body.path("input").size()) : "{\"error\":\"stub\"}";
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            reply.headers().forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(reply.status(), bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String results(int count) {
+        return "{\"results\":[" + String.join(",", Collections.nCopies(count, HARMLESS_RESULT)) + "]}";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * A request as seen by the stub: its input array and arrival time
+     */
+    record Received(JsonNode input, long receivedAtNanos) {
+    }
+
+    private record Reply(int status, Map<String, String> headers, CountDownLatch hold) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.buzzlink.service;
+
+import com.buzzlink.SqlStatementCounter;
+import com.buzzlink.dto.NotificationDTO;
+import com.buzzlink.dto.PageCursor;
+import com.buzzlink.entity.User;
+import com.buzzlink.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Notification pages must cost the same statements and roughly the same
+ * time whether the user has 1k or 100k notifications: keyset pagination
+ * over the (user_id, is_read, created_at) index, never a scan of the history.
+ */
+@SpringBootTest(properties = {
+        // Own database, since this test loads 100k notifications
+        "spring.datasource.url=jdbc:h2:mem:buzzlink-notifications;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class NotificationListingScalingTest {
+
+    private static final int SMALL = 1_000;
+    private static final int LARGE = 100_000;
+    private static final int BATCH = 5_000;
+    private static final int PAGE = 50;
+    private static final long MAX_STATEMENTS = 2;
+    private static final int SAMPLES = 200;
+
+    // Explicit IDs far above anything the notifications sequence hands out here
+    private static final long FIRST_ID = 10_000_000L;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime newest = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private int seeded;
+
+    @Test
+    void pagesStayFlatAsHistoryGrows() {
+        User recipient = userRepository.save(user("notification-recipient"));
+        User actor = userRepository.save(user("notification-actor"));
+
+        seed(recipient, actor, SMALL);
+        long[] small = measure(recipient.getClerkId());
+
+        seed(recipient, actor, LARGE);
+        long[] large = measure(recipient.getClerkId());
+
+        // Same statements at both sizes
+        assertThat(large[0]).isEqualTo(small[0]).isLessThanOrEqualTo(MAX_STATEMENTS);
+        assertThat(large[1]).isEqualTo(small[1]).isLessThanOrEqualTo(MAX_STATEMENTS);
+        assertThat(large[2]).isEqualTo(small[2]).isLessThanOrEqualTo(MAX_STATEMENTS);
+
+        // p99 of a page with 100x the history stays within a small factor (plus
+        // slack for timer noise) rather than growing with the row count
+        long p99Small = small[3];
+        long p99Large = large[3];
+        assertThat(p99Large).isLessThanOrEqualTo(p99Small * 4 + 10_000_000L);
+    }
+
+    /**
+     * Statements of the first page, a page half-way back and an unread page
+     * half-way back, then the p99 latency (nanoseconds) of those pages
+     */
+    private long[] measure(String clerkId) {
+        PageCursor middle = cursorAt(seeded / 2);
+
+        long firstPage = count(() -> notificationService.getUserNotifications(clerkId, null, PAGE));
+        long deepPage = count(() -> notificationService.getUserNotifications(clerkId, middle, PAGE));
+        long unreadPage = count(() -> notificationService.getUnreadNotifications(clerkId, middle, PAGE));
+
+        List<NotificationDTO> page = notificationService.getUserNotifications(clerkId, middle, PAGE);
+        assertThat(page).hasSize(PAGE);
+        assertThat(page.get(0).getId()).isEqualTo(FIRST_ID + seeded / 2 + 1);
+
+        // Warm up, then sample
+        for (int i = 0; i < SAMPLES / 4; i++) {
+            notificationService.getUserNotifications(clerkId, cursorAt(i % seeded), PAGE);
+        }
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            PageCursor cursor = i % 2 == 0 ? null : cursorAt((int) ((long) i * seeded / SAMPLES));
+            long start = System.nanoTime();
+            notificationService.getUserNotifications(clerkId, cursor, PAGE);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        long p99 = samples[(int) Math.ceil(SAMPLES * 0.99) - 1];
+
+        return new long[]{firstPage, deepPage, unreadPage, p99};
+    }
+
+    private static long count(Supplier<List<NotificationDTO>> call) {
+        SqlStatementCounter.reset();
+        assertThat(call.get()).hasSize(PAGE);
+        return SqlStatementCounter.count();
+    }
+
+    /**
+     * Cursor of the k-th newest seeded notification
+     */
+    private PageCursor cursorAt(int k) {
+        return new PageCursor(newest.minusSeconds(k), FIRST_ID + k);
+    }
+
+    /**
+     * Extend the recipient's history to the target size, one notification per
+     * second going back in time; every other one is unread
+     */
+    private void seed(User recipient, User actor, int target) {
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int k = seeded; k < target; k++) {
+            rows.add(new Object[]{FIRST_ID + k, recipient.getId(), actor.getId(), "Notification " + k,
+                    k % 2 == 0, Timestamp.valueOf(newest.minusSeconds(k))});
+            if (rows.size() == BATCH || k == target - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO notifications " +
+                        "(id, user_id, actor_id, type, message, is_read, created_at) " +
+                        "VALUES (?, ?, ?, 'DIRECT_MESSAGE', ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        seeded = target;
+    }
+
+    private static User user(String clerkId) {
+        User user = new User();
+        user.setClerkId(clerkId);
+        user.setDisplayName(clerkId);
+        return user;
+    }
+}
@@ -3,7 +3,7 @@
 import { useEffect, useState, useRef } from 'react';
 import { useUser } from '@clerk/nextjs';
 import { Channel, Message, TypingEvent, PresenceEvent, Conversation, DirectMessage } from '@/types';
-import { getMessages, getConversation } from '@/lib/api';
+import { getMessages, getConversation, markChannelRead } from '@/lib/api';
 import { useWebSocket } from '@/hooks/useWebSocket';
 import MessageList from './MessageList';
 import MessageInput from './MessageInput';
@@ -51,6 +51,8 @@ export default function ChatPanel({ channel, conversation }: ChatPanelProps) {
         const fetchedMessages = await getMessages(channel.id);
         setMessages(fetchedMessages.reverse()); // Chronological order
         setDmMessages([]); // Clear DM messages when viewing channel
+        markChannelRead(channel.id, user.id).catch((error) =>
+          console.error('Error marking channel as read:', error));
       } catch (error) {
         console.error('Error loading messages:', error);
       } finally {
@@ -5,7 +5,7 @@ import Link from 'next/link';
 import Image from 'next/image';
 import { useState, useEffect, useRef } from 'react';
 import { Notification } from '@/types';
-import { getUnreadNotifications, markNotificationAsRead, markAllNotificationsAsRead } from '@/lib/api';
+import { getUnreadNotifications, markNotificationAsRead, markAllNotificationsAsRead, markChannelRead } from '@/lib/api';
 import { useWebSocket } from '@/hooks/useWebSocket';
 
 export default function Header() {
@@ -23,7 +23,7 @@ export default function Header() {
 
     const loadNotifications = async () => {
       try {
-        const unread = await getUnreadNotifications(user.id);
+        const { items: unread } = await getUnreadNotifications(user.id);
         setNotifications(unread);
         setUnreadCount(unread.length);
       } catch (error) {
@@ -62,13 +62,18 @@ export default function Header() {
     return () => document.removeEventListener('mousedown', handleClickOutside);
   }, []);
 
-  const handleMarkAsRead = async (notificationId: number) => {
+  const handleMarkAsRead = async (notification: Notification) => {
     if (!user) return;
 
     try {
-      await markNotificationAsRead(notificationId, user.id);
+      if (notification.id !== null) {
+        await markNotificationAsRead(notification.id, user.id);
+      } else if (notification.channelId) {
+        // Channel activity entry: move the channel's read cursor instead
+        await markChannelRead(notification.channelId, user.id);
+      }
       setNotifications((prev) => prev.map(n =>
-        n.id === notificationId ? { ...n, isRead: true } : n
+        n === notification ? { ...n, isRead: true } : n
       ));
     } catch (error) {
       console.error('Error marking notification as read:', error);
@@ -154,10 +159,10 @@ export default function Header() {
                 <div className="divide-y divide-gray-200">
                   {notifications.map((notification) => (
                     <div
-                      key={notification.id}
+                      key={notification.id ?? `channel-${notification.channelId}`}
                       className={`p-4 hover:bg-gray-50 cursor-pointer transition ${!notification.isRead ? 'bg-blue-50' : ''
                         }`}
-                      onClick={() => !notification.isRead && handleMarkAsRead(notification.id)}
+                      onClick={() => !notification.isRead && handleMarkAsRead(notification)}
                     >
                       <div className="flex items-start space-x-3">
                         <div className="flex-shrink-0">
@@ -1,5 +1,5 @@
-import axios from 'axios';
-import { Channel, Message, User, Workspace, DirectMessage, Conversation, Notification } from '@/types';
+import axios, { AxiosResponse } from 'axios';
+import { Channel, Message, User, Workspace, DirectMessage, Conversation, Notification, NotificationPage } from '@/types';
 
 const API_URL = process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080';
 
@@ -194,14 +194,20 @@ export const sendDirectMessage = async (
 };
 
 // Notification APIs
-export const getNotifications = async (clerkId: string): Promise<Notification[]> => {
-  const response = await api.get('/api/notifications', { params: { clerkId } });
-  return response.data;
+// Pages are newest first; pass a page's nextCursor as `before` to get the next one
+const toNotificationPage = (response: AxiosResponse<Notification[]>): NotificationPage => ({
+  items: response.data,
+  nextCursor: (response.headers['x-next-cursor'] as string | undefined) ?? null,
+});
+
+export const getNotifications = async (clerkId: string, before?: string): Promise<NotificationPage> => {
+  const response = await api.get<Notification[]>('/api/notifications', { params: { clerkId, before } });
+  return toNotificationPage(response);
 };
 
-export const getUnreadNotifications = async (clerkId: string): Promise<Notification[]> => {
-  const response = await api.get('/api/notifications/unread', { params: { clerkId } });
-  return response.data;
+export const getUnreadNotifications = async (clerkId: string, before?: string): Promise<NotificationPage> => {
+  const response = await api.get<Notification[]>('/api/notifications/unread', { params: { clerkId, before } });
+  return toNotificationPage(response);
 };
 
 export const getUnreadNotificationCount = async (clerkId: string): Promise<number> => {
@@ -217,6 +223,29 @@ export const markAllNotificationsAsRead = async (clerkId: string): Promise<void>
   await api.put('/api/notifications/read-all', null, { params: { clerkId } });
 };
 
+// Channel read cursors
+export interface ChannelActivity {
+  channelId: number;
+  channelName: string;
+  workspaceId: number;
+  unreadCount: number;
+  lastActivityAt: string;
+}
+
+export const getChannelActivity = async (clerkId: string, workspaceId?: number): Promise<ChannelActivity[]> => {
+  const response = await api.get('/api/channels/activity', { params: { clerkId, workspaceId } });
+  return response.data;
+};
+
+// Opt in to a notification for every message in a channel (default: mentions only)
+export const setChannelNotifyAll = async (channelId: number, clerkId: string, enabled: boolean): Promise<void> => {
+  await api.put(`/api/channels/${channelId}/notify-all`, null, { params: { clerkId, enabled } });
+};
+
+export const markChannelRead = async (channelId: number, clerkId: string, messageId?: number): Promise<void> => {
+  await api.put(`/api/channels/${channelId}/read`, null, { params: { clerkId, messageId } });
+};
+
 // Admin APIs
 export interface AdminUser {
   id: number;
@@ -1,9 +1,47 @@
-import { Client } from '@stomp/stompjs';
+import { Client, IMessage } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
-import { Message, TypingEvent, PresenceEvent, DirectMessage, Notification } from '@/types';
+import { Message, TypingEvent, TypingAggregate, PresenceEvent, DirectMessage, Notification } from '@/types';
 
 const WS_URL = process.env.NEXT_PUBLIC_WS_URL || 'http://localhost:8080/ws';
 
+// A node that has sent nothing for this long has no typists left (it refreshes every 2s while any)
+const TYPING_NODE_STALE_MS = 6000;
+
+// Typing frames list everyone typing via one backend node; merge the latest frame
+// per node and turn changes in the union back into per-user events
+function typingFrameHandler(onTyping: (event: TypingEvent) => void) {
+  const byNode = new Map<string, { typists: Map<string, string>; receivedAt: number }>();
+  let previous = new Map<string, string>();
+  return (message: IMessage) => {
+    const frame: TypingAggregate = JSON.parse(message.body);
+    const now = Date.now();
+    byNode.set(frame.nodeId ?? '', {
+      typists: new Map(frame.typing.map((typist) => [typist.clerkId, typist.displayName])),
+      receivedAt: now,
+    });
+
+    const current = new Map<string, string>();
+    byNode.forEach((node, nodeId) => {
+      if (now - node.receivedAt > TYPING_NODE_STALE_MS) {
+        byNode.delete(nodeId);
+        return;
+      }
+      node.typists.forEach((displayName, clerkId) => current.set(clerkId, displayName));
+    });
+    const channelId = frame.channelId as number;
+
+    current.forEach((displayName, clerkId) => {
+      onTyping({ channelId, clerkId, displayName, isTyping: true });
+    });
+    previous.forEach((displayName, clerkId) => {
+      if (!current.has(clerkId)) {
+        onTyping({ channelId, clerkId, displayName, isTyping: false });
+      }
+    });
+    previous = current;
+  };
+}
+
 export class WebSocketClient {
   private client: Client | null = null;
   private clerkId: string;
@@ -70,16 +108,15 @@ export class WebSocketClient {
     });
 
     // Subscribe to typing indicators
-    this.client.subscribe(`/topic/channel.${channelId}.typing`, (message) => {
-      const typingEvent = JSON.parse(message.body);
-      onTyping(typingEvent);
-    });
+    this.client.subscribe(`/topic/channel.${channelId}.typing`, typingFrameHandler(onTyping));
 
-    // Subscribe to presence updates
-    this.client.subscribe(`/topic/channel.${channelId}.presence`, (message) => {
+    // Subscribe to presence updates, then ask this node for the current online set
+    const presenceHandler = (message: IMessage) => {
       const presenceEvent = JSON.parse(message.body);
       onPresence(presenceEvent);
-    });
+    };
+    this.client.subscribe(`/topic/channel.${channelId}.presence`, presenceHandler);
+    this.client.subscribe(`/app/channel.${channelId}.presence`, presenceHandler);
 
     // Join the channel
     this.client.publish({
@@ -186,11 +223,7 @@ export class WebSocketClient {
     const typingTopic = `/topic/dm.${this.clerkId}.typing`;
     console.log('Subscribing to DM typing topic:', typingTopic);
 
-    this.client.subscribe(typingTopic, (message) => {
-      const typingEvent = JSON.parse(message.body);
-      console.log('WebSocket: Received DM typing event:', typingEvent);
-      onTyping(typingEvent);
-    });
+    this.client.subscribe(typingTopic, typingFrameHandler(onTyping));
   }
 
   sendDirectMessage(recipientId: number, content: string, type: 'TEXT' | 'FILE' = 'TEXT') {
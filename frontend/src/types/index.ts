@@ -33,9 +33,21 @@ export interface TypingEvent {
   isTyping: boolean;
 }
 
+// Server-side aggregate: everyone currently typing; users missing from the list stopped
+export interface TypingAggregate {
+  // Backend node that sent the frame; each node only lists its own clients' typists
+  nodeId: string;
+  channelId: number | null;
+  typing: { clerkId: string; displayName: string }[];
+}
+
 export interface PresenceEvent {
   channelId: number;
-  onlineUsers: string[];
+  // DELTA frames carry joined/left; SNAPSHOT frames (on subscribe and periodic) carry onlineUsers
+  type: 'DELTA' | 'SNAPSHOT';
+  onlineUsers?: string[];
+  joined?: string[];
+  left?: string[];
   onlineCount: number;
 }
 
@@ -64,7 +76,7 @@ export interface Conversation {
 }
 
 export interface Notification {
-  id: number;
+  id: number | null; // null for channel activity derived from read cursors
   type: 'CHANNEL_MESSAGE' | 'DIRECT_MESSAGE' | 'THREAD_REPLY' | 'REACTION' | 'MENTION' | 'WORKSPACE_INVITE';
   message: string;
   actor: {
@@ -80,3 +92,9 @@ export interface Notification {
   isRead: boolean;
   createdAt: string;
 }
+
+// One page of notifications; nextCursor is null on the last page
+export interface NotificationPage {
+  items: Notification[];
+  nextCursor: string | null;
+}